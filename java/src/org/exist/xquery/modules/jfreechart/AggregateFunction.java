@@ -0,0 +1,312 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.exist.dom.QName;
+import org.exist.xquery.AnalyzeContextInfo;
+import org.exist.xquery.BasicFunction;
+import org.exist.xquery.Cardinality;
+import org.exist.xquery.FunctionSignature;
+import org.exist.xquery.XPathException;
+import org.exist.xquery.XQueryContext;
+import org.exist.xquery.modules.jfreechart.data.GroupAggregator;
+import org.exist.xquery.modules.jfreechart.data.GroupAggregator.Aggregation;
+import org.exist.xquery.value.FunctionParameterSequenceType;
+import org.exist.xquery.value.FunctionReference;
+import org.exist.xquery.value.FunctionReturnSequenceType;
+import org.exist.xquery.value.Item;
+import org.exist.xquery.value.JavaObjectValue;
+import org.exist.xquery.value.NodeValue;
+import org.exist.xquery.value.NumericValue;
+import org.exist.xquery.value.Sequence;
+import org.exist.xquery.value.SequenceIterator;
+import org.exist.xquery.value.SequenceType;
+import org.exist.xquery.value.Type;
+import org.w3c.dom.Node;
+
+/**
+ * Groups nodes by keys and aggregates their values in Java into a
+ * CategoryDataset, returned as a dataset handle, instead of a FLWOR group by
+ * constructing CategoryDataset XML for render to parse.
+ */
+public class AggregateFunction extends BasicFunction {
+
+    private static final String selectorText = " Either a function taking the node and returning the " +
+            "key or value, or a relative path of child element names, '*' and '.' steps, optionally " +
+            "ending in an attribute step, e.g. 'region' or 'sale/@amount', of which the string value " +
+            "of the first match is used. Names in paths match the local name of nodes.";
+
+    private static final String aggregationText = "The aggregation of the values of a group: sum, count, " +
+            "avg, min or max. Values which are not numbers are counted but left out of the other aggregations.";
+
+    private static final String returnText = "the handle of the CategoryDataset, to be used as the data of " +
+            "render and stream-render; the rows and columns are in order of first appearance";
+
+    public final static FunctionSignature signatures[] = {
+
+        new FunctionSignature(
+            new QName("aggregate", JFreeChartModule.NAMESPACE_URI, JFreeChartModule.PREFIX),
+            "Group nodes by a key and aggregate their values, into a CategoryDataset of one row, " +
+            "named after the aggregation, with a column per key. Nodes without a key are skipped.",
+            new SequenceType[]{
+                new FunctionParameterSequenceType("nodes", Type.NODE, Cardinality.ZERO_OR_MORE,
+                        "The nodes to group."),
+                new FunctionParameterSequenceType("key", Type.ITEM, Cardinality.EXACTLY_ONE,
+                        "The key of a node, the column key." + selectorText),
+                new FunctionParameterSequenceType("value", Type.ITEM, Cardinality.ZERO_OR_ONE,
+                        "The value of a node, may be empty for count." + selectorText),
+                new FunctionParameterSequenceType("aggregation", Type.STRING, Cardinality.EXACTLY_ONE,
+                        aggregationText)
+            },
+            new FunctionReturnSequenceType(Type.ITEM, Cardinality.EXACTLY_ONE, returnText)
+        ),
+
+        new FunctionSignature(
+            new QName("aggregate", JFreeChartModule.NAMESPACE_URI, JFreeChartModule.PREFIX),
+            "Group nodes by a series key and a category key and aggregate their values, into a " +
+            "CategoryDataset with a row per series and a column per category. Nodes without both " +
+            "keys are skipped.",
+            new SequenceType[]{
+                new FunctionParameterSequenceType("nodes", Type.NODE, Cardinality.ZERO_OR_MORE,
+                        "The nodes to group."),
+                new FunctionParameterSequenceType("series", Type.ITEM, Cardinality.EXACTLY_ONE,
+                        "The series of a node, the row key." + selectorText),
+                new FunctionParameterSequenceType("key", Type.ITEM, Cardinality.EXACTLY_ONE,
+                        "The category of a node, the column key." + selectorText),
+                new FunctionParameterSequenceType("value", Type.ITEM, Cardinality.ZERO_OR_ONE,
+                        "The value of a node, may be empty for count." + selectorText),
+                new FunctionParameterSequenceType("aggregation", Type.STRING, Cardinality.EXACTLY_ONE,
+                        aggregationText)
+            },
+            new FunctionReturnSequenceType(Type.ITEM, Cardinality.EXACTLY_ONE, returnText)
+        )
+    };
+
+    public AggregateFunction(XQueryContext context, FunctionSignature signature) {
+        super(context, signature);
+    }
+
+    @Override
+    public Sequence eval(Sequence[] args, Sequence contextSequence) throws XPathException {
+        boolean series = args.length == 5;
+        String name = args[args.length - 1].getStringValue();
+        Aggregation aggregation = Aggregation.forName(name);
+        if (aggregation == null) {
+            throw new XPathException(this, "Unknown aggregation '" + name + "', choose one of sum, count, avg, min, max");
+        }
+
+        List<Selector> selectors = new ArrayList<>();
+        try {
+            Selector rowSelector = series ? selector(args[1].itemAt(0), selectors) : null;
+            Selector columnSelector = selector(args[series ? 2 : 1].itemAt(0), selectors);
+            Sequence valueArg = args[series ? 3 : 2];
+            Selector valueSelector = valueArg.isEmpty() ? null : selector(valueArg.itemAt(0), selectors);
+            if (valueSelector == null && aggregation != Aggregation.COUNT) {
+                throw new XPathException(this, "A value is required for the aggregation '" + name + "'");
+            }
+
+            // the keys and values are read here, as queries and stored nodes
+            // belong to the thread of the query; the aggregator partitions
+            GroupAggregator aggregator = new GroupAggregator(aggregation);
+            String rowKey = aggregation.name().toLowerCase();
+            for (SequenceIterator i = args[0].iterate(); i.hasNext(); ) {
+                NodeValue node = (NodeValue) i.nextItem();
+                if (series) {
+                    rowKey = rowSelector.selectString(node);
+                    if (rowKey == null) {
+                        continue;
+                    }
+                }
+                String columnKey = columnSelector.selectString(node);
+                if (columnKey == null) {
+                    continue;
+                }
+                aggregator.add(rowKey, columnKey, valueSelector == null ? Double.NaN : valueSelector.selectDouble(node));
+            }
+            return new JavaObjectValue(aggregator.getDataset());
+
+        } finally {
+            for (Selector selector : selectors) {
+                selector.close();
+            }
+        }
+    }
+
+    private Selector selector(Item item, List<Selector> selectors) throws XPathException {
+        Selector selector;
+        if (item.getType() == Type.FUNCTION_REFERENCE) {
+            FunctionReference function = (FunctionReference) item;
+            function.analyze(new AnalyzeContextInfo(this, 0));
+            selector = new FunctionSelector(function);
+        } else if (Type.subTypeOf(item.getType(), Type.STRING)) {
+            selector = new PathSelector(this, item.getStringValue());
+        } else {
+            throw new XPathException(this, "A key or value must be a function or a path, not "
+                    + Type.getTypeName(item.getType()));
+        }
+        selectors.add(selector);
+        return selector;
+    }
+
+    /**
+     * Selects the key or value of a node.
+     */
+    private static abstract class Selector {
+
+        /**
+         * Get the key or value of a node as a string, null when there is none.
+         */
+        abstract String selectString(NodeValue node) throws XPathException;
+
+        /**
+         * Get the value of a node as a number, NaN when there is none or it
+         * is not a number.
+         */
+        double selectDouble(NodeValue node) throws XPathException {
+            return parseDouble(selectString(node));
+        }
+
+        void close() {
+        }
+
+        static double parseDouble(String value) {
+            if (value == null) {
+                return Double.NaN;
+            }
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException ex) {
+                return Double.NaN;
+            }
+        }
+    }
+
+    private static class FunctionSelector extends Selector {
+
+        private final FunctionReference function;
+
+        FunctionSelector(FunctionReference function) {
+            this.function = function;
+        }
+
+        @Override
+        String selectString(NodeValue node) throws XPathException {
+            Sequence result = function.evalFunction(null, null, new Sequence[] {node});
+            return result.isEmpty() ? null : result.itemAt(0).getStringValue();
+        }
+
+        @Override
+        double selectDouble(NodeValue node) throws XPathException {
+            Sequence result = function.evalFunction(null, null, new Sequence[] {node});
+            if (result.isEmpty()) {
+                return Double.NaN;
+            }
+            Item item = result.itemAt(0);
+            return item instanceof NumericValue ? ((NumericValue) item).getDouble() : parseDouble(item.getStringValue());
+        }
+
+        @Override
+        void close() {
+            function.close();
+        }
+    }
+
+    /**
+     * A relative path of child element and attribute steps, walked over the
+     * DOM of the nodes without evaluating an expression.
+     */
+    private static class PathSelector extends Selector {
+
+        private static final Pattern STEP = Pattern.compile("\\.|\\*|@?([\\w.\\-]+:)?[\\w.\\-]+");
+
+        private final String[] steps;
+
+        PathSelector(BasicFunction function, String path) throws XPathException {
+            String[] parts = path.trim().split("/", -1);
+            for (int i = 0; i < parts.length; i++) {
+                String step = parts[i].trim();
+                if (!STEP.matcher(step).matches() || step.startsWith("@") && i < parts.length - 1) {
+                    throw new XPathException(function, "Unsupported path '" + path
+                            + "', use a function for the key or value instead");
+                }
+                int colon = step.indexOf(':');
+                parts[i] = colon < 0 ? step : (step.startsWith("@") ? "@" : "") + step.substring(colon + 1);
+            }
+            this.steps = parts;
+        }
+
+        @Override
+        String selectString(NodeValue node) {
+            if (steps.length == 1 && ".".equals(steps[0])) {
+                return node.getNode().getTextContent();
+            }
+            Node match = find(node.getNode(), 0);
+            if (match == null) {
+                return null;
+            }
+            return match.getNodeType() == Node.ATTRIBUTE_NODE ? match.getNodeValue() : match.getTextContent();
+        }
+
+        /**
+         * Find the first node matching the steps from a step on, in document
+         * order.
+         */
+        private Node find(Node node, int step) {
+            if (step == steps.length) {
+                return node;
+            }
+            String name = steps[step];
+            if (".".equals(name)) {
+                return find(node, step + 1);
+            }
+            if (name.startsWith("@")) {
+                if (node.getNodeType() != Node.ELEMENT_NODE || node.getAttributes() == null) {
+                    return null;
+                }
+                String localName = name.substring(1);
+                for (int i = 0; i < node.getAttributes().getLength(); i++) {
+                    Node attribute = node.getAttributes().item(i);
+                    if (localName.equals(localName(attribute))) {
+                        return attribute;
+                    }
+                }
+                return null;
+            }
+            for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child.getNodeType() == Node.ELEMENT_NODE
+                        && ("*".equals(name) || name.equals(localName(child)))) {
+                    Node match = find(child, step + 1);
+                    if (match != null) {
+                        return match;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static String localName(Node node) {
+            return node.getLocalName() != null ? node.getLocalName() : node.getNodeName();
+        }
+    }
+}
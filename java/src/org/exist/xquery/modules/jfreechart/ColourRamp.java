@@ -0,0 +1,105 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart;
+
+import java.awt.Color;
+import java.util.StringTokenizer;
+import org.exist.xquery.XPathException;
+
+/**
+ * A colour ramp interpolating linearly between evenly spaced colours, with
+ * a lookup table of 256 steps.
+ */
+public class ColourRamp {
+
+    /** Dark blue over teal and green to yellow, readable in grey scale. */
+    public static final String DEFAULT_RAMP = "440154,3B528B,21908C,5DC963,FDE725";
+
+    private static final int STEPS = 256;
+
+    private final int[] table = new int[STEPS];
+
+    public ColourRamp(Color... colours) {
+        if (colours.length == 0) {
+            throw new IllegalArgumentException("A colour ramp needs at least one colour");
+        }
+        for (int i = 0; i < STEPS; i++) {
+            double position = (double) i / (STEPS - 1) * (colours.length - 1);
+            int index = Math.min((int) position, colours.length - 1);
+            Color from = colours[index];
+            Color to = colours[Math.min(index + 1, colours.length - 1)];
+            double f = position - index;
+            table[i] = 0xFF000000
+                    | interpolate(from.getRed(), to.getRed(), f) << 16
+                    | interpolate(from.getGreen(), to.getGreen(), f) << 8
+                    | interpolate(from.getBlue(), to.getBlue(), f);
+        }
+    }
+
+    /**
+     * Convert a list of colour names or hex values into a ramp.
+     *
+     * @param value The colours, separated by commas.
+     * @return The ramp.
+     * @throws XPathException Thrown when a colour cannot be converted.
+     */
+    public static ColourRamp parse(String value) throws XPathException {
+        StringTokenizer st = new StringTokenizer(value, ",");
+        Color[] colours = new Color[st.countTokens()];
+        for (int i = 0; i < colours.length; i++) {
+            colours[i] = Colour.getColor(st.nextToken().trim());
+            if (colours[i] == null) {
+                throw new XPathException("Cannot create colour ramp, null colour in: " + value);
+            }
+        }
+        if (colours.length == 0) {
+            throw new XPathException("Cannot create colour ramp, no colours in: " + value);
+        }
+        return new ColourRamp(colours);
+    }
+
+    /**
+     * Get the opaque ARGB value at a position of the ramp.
+     *
+     * @param fraction The position, 0 (first colour) to 1 (last colour).
+     * @return The ARGB value.
+     */
+    public int getRGB(double fraction) {
+        if (!(fraction > 0)) {
+            return table[0];
+        }
+        return fraction >= 1 ? table[STEPS - 1] : table[(int) (fraction * (STEPS - 1) + 0.5)];
+    }
+
+    /**
+     * Get the colour at a position of the ramp.
+     *
+     * @param fraction The position, 0 (first colour) to 1 (last colour).
+     * @return The colour.
+     */
+    public Color getColor(double fraction) {
+        return new Color(getRGB(fraction));
+    }
+
+    private static int interpolate(int from, int to, double f) {
+        return (int) Math.round(from + (to - from) * f);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart;
+
+import java.awt.Color;
+import java.awt.Paint;
+import org.jfree.chart.renderer.PaintScale;
+
+/**
+ * A paint scale mapping values between two bounds linearly onto a colour
+ * ramp; values outside the bounds get the colour of the nearest bound,
+ * missing values (NaN) none.
+ */
+public class ColourRampPaintScale implements PaintScale {
+
+    private static final Color TRANSPARENT = new Color(0, 0, 0, 0);
+
+    private final ColourRamp ramp;
+    private final double lowerBound;
+    private final double upperBound;
+
+    public ColourRampPaintScale(ColourRamp ramp, double lowerBound, double upperBound) {
+        if (!(lowerBound <= upperBound)) {
+            throw new IllegalArgumentException("Invalid bounds of a paint scale: " + lowerBound + ", " + upperBound);
+        }
+        this.ramp = ramp;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    @Override
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    @Override
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Get the paint of a value.
+     *
+     * @param value The value.
+     * @return The colour, transparent when the value is NaN.
+     */
+    @Override
+    public Paint getPaint(double value) {
+        return Double.isNaN(value) ? TRANSPARENT : ramp.getColor(getFraction(value));
+    }
+
+    /**
+     * Get the opaque ARGB value of a value.
+     *
+     * @param value The value.
+     * @return The ARGB value, 0 (transparent) when the value is NaN.
+     */
+    public int getRGB(double value) {
+        return Double.isNaN(value) ? 0 : ramp.getRGB(getFraction(value));
+    }
+
+    private double getFraction(double value) {
+        return upperBound > lowerBound ? (value - lowerBound) / (upperBound - lowerBound) : 0.5;
+    }
+}
@@ -22,9 +22,21 @@ package org.exist.xquery.modules.jfreechart;
 
 import java.awt.Color;
 import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 import org.exist.xquery.XPathException;
+import org.exist.xquery.functions.map.AbstractMapType;
+import org.exist.xquery.modules.jfreechart.data.OHLCBars;
+import org.exist.xquery.modules.jfreechart.data.SeriesTransforms;
+import org.exist.xquery.value.AtomicValue;
+import org.exist.xquery.value.Sequence;
+import org.exist.xquery.value.SequenceIterator;
+import org.exist.xquery.value.StringValue;
 import org.jfree.chart.axis.CategoryLabelPositions;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.util.TableOrder;
@@ -52,6 +64,9 @@ public class Configuration {
     // for XYBarRenderer
     private Double barWidth = 0.9;
 
+    // The parameters as set, by name
+    private final SortedMap<String, String> parameters = new TreeMap<>();
+
     // Chart title
     private String title;
 
@@ -73,6 +88,8 @@ public class Configuration {
     private String categoryItemLabelGeneratorParameter = "{2}";
     private String categoryItemLabelGeneratorNumberFormat = "0";
     private CategoryLabelPositions categoryLabelPositions = CategoryLabelPositions.STANDARD;
+    // Label every k-th category only, so the labels do not overlap
+    private boolean categoryLabelThinning = false;
 
     // Orientation and Order
     private TableOrder order = TableOrder.BY_COLUMN;
@@ -138,8 +155,79 @@ public class Configuration {
     private boolean useRangeSymbolAxis = false;
     private Float lineWidth;
 
+    // Delimited (CSV, TSV) data
+    private char csvDelimiter = ',';
+    private boolean csvHeader = true;
+    private String csvSeriesColumn;
+    private String csvValueColumns;
+
+    // Downsampling of XY series: none, lttb or m4
+    public static final String DECIMATION_NONE = "none";
+    public static final String DECIMATION_LTTB = "lttb";
+    public static final String DECIMATION_M4 = "m4";
+    private String decimation = DECIMATION_NONE;
+
+    // Density rendering of ScatterPlot: none, pixel or hexbin
+    public static final String DENSITY_NONE = "none";
+    public static final String DENSITY_PIXEL = "pixel";
+    public static final String DENSITY_HEXBIN = "hexbin";
+    private String density = DENSITY_NONE;
+    private Integer densityBinSize;
+    private ColourRamp colorRamp;
+
+    // Values at the ends of the colour ramp of HeatMap, the bounds of the
+    // z values when unset
+    private Double paintScaleLowerBound;
+    private Double paintScaleUpperBound;
+
+    // Number of bins of Histogram, the Freedman-Diaconis rule when unset
+    private Integer histogramBins;
+
+    // Period of the bars of CandlestickChart and HighLowChart, in milliseconds
+    private long ohlcPeriod = OHLCBars.DEFAULT_PERIOD;
+
+    // Number of series, pie sections or categories of a single series kept,
+    // the rest folded into one entry; 0 keeps all
+    private int topN = 0;
+    // Minimum share of the total of a kept entry, 0 to 1
+    private double topNMinShare = 0;
+    private String otherLabel = "Other";
+
+    // Transforms of the series of XY and time series data, e.g.
+    // "resample(PT1M) movingAverage(5)"
+    private SeriesTransforms transforms = SeriesTransforms.NONE;
+
+    // Two pass rendering of XY data without holding the items
+    private boolean streaming = false;
+
+    // Renderer of XYLineChart, ScatterPlot and LineChart: default, bulk
+    // (XYLineChart and ScatterPlot), path (XYLineChart and LineChart) or
+    // raster (ScatterPlot in raster images)
+    public static final String RENDERER_DEFAULT = "default";
+    public static final String RENDERER_BULK = "bulk";
+    public static final String RENDERER_PATH = "path";
+    public static final String RENDERER_RASTER = "raster";
+    private String renderer = RENDERER_DEFAULT;
+
+    // Draw groups of series of XY charts in parallel raster layers
+    private boolean parallelLayers = false;
+
+    // Reuse the drawn titles, legend, axes and gridlines of PNG and JPG
+    // images while they are unchanged
+    private boolean staticLayerCache = false;
+
     // =========================
     // Getters
+
+    /**
+     * Get the parameters as they were set, e.g. as part of a cache key.
+     *
+     * @return The textual values by parameter name, sorted by name.
+     */
+    public SortedMap<String, String> getParameters() {
+        return Collections.unmodifiableSortedMap(parameters);
+    }
+
     public String getImageType() {
         return imageType;
     }
@@ -376,6 +464,10 @@ public class Configuration {
         return categoryLabelPositions;
     }
 
+    public boolean isCategoryLabelThinning() {
+        return categoryLabelThinning;
+    }
+
     public String getSeriesColors() {
         return seriesColors;
     }
@@ -388,6 +480,103 @@ public class Configuration {
         return sectionColorsDelimiter;
     }
 
+    public char getCsvDelimiter() {
+        return csvDelimiter;
+    }
+
+    public boolean isCsvHeader() {
+        return csvHeader;
+    }
+
+    public String getCsvSeriesColumn() {
+        return csvSeriesColumn;
+    }
+
+    public String getCsvValueColumns() {
+        return csvValueColumns;
+    }
+
+    public String getDecimation() {
+        return decimation;
+    }
+
+    public String getDensity() {
+        return density;
+    }
+
+    /**
+     * Get the size of density bins in pixels: the width of square bins or
+     * the radius of hexagonal bins. Defaults to 1 and 6 respectively.
+     */
+    public int getDensityBinSize() {
+        if (densityBinSize != null) {
+            return densityBinSize;
+        }
+        return DENSITY_HEXBIN.equals(density) ? 6 : 1;
+    }
+
+    public ColourRamp getColorRamp() throws XPathException {
+        if (colorRamp == null) {
+            colorRamp = ColourRamp.parse(ColourRamp.DEFAULT_RAMP);
+        }
+        return colorRamp;
+    }
+
+    public Double getPaintScaleLowerBound() {
+        return paintScaleLowerBound;
+    }
+
+    public Double getPaintScaleUpperBound() {
+        return paintScaleUpperBound;
+    }
+
+    /**
+     * Get the number of bins of a histogram, 0 for the number given by the
+     * Freedman-Diaconis rule.
+     */
+    public int getHistogramBins() {
+        return histogramBins != null ? histogramBins : 0;
+    }
+
+    /**
+     * Get the period of OHLC bars in milliseconds, one day by default.
+     */
+    public long getOhlcPeriod() {
+        return ohlcPeriod;
+    }
+
+    public int getTopN() {
+        return topN;
+    }
+
+    public double getTopNMinShare() {
+        return topNMinShare;
+    }
+
+    public String getOtherLabel() {
+        return otherLabel;
+    }
+
+    public SeriesTransforms getTransforms() {
+        return transforms;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public String getRenderer() {
+        return renderer;
+    }
+
+    public boolean isParallelLayers() {
+        return parallelLayers;
+    }
+
+    public boolean isStaticLayerCache() {
+        return staticLayerCache;
+    }
+
     /**
      * Read configuration from node and initialize configuration.
      *
@@ -413,308 +602,7 @@ public class Configuration {
                         throw new XPathException(MessageFormat.format("Value for \"{0}\" cannot be parsed", localName));
                     }
 
-                    switch (localName) {
-                        case "title":
-                            title = value;
-                            break;
-                        case "categoryAxisLabel":
-                            categoryAxisLabel = value;
-                            break;
-                        case "categoryAxisColor":
-                            categoryAxisColor = Colour.getColor(value);
-                            break;
-                        case "valueAxisLabel":
-                            valueAxisLabel = value;
-                            break;
-                        case "valueAxisColor":
-                            valueAxisColor = Colour.getColor(value);
-                            break;
-                        case "timeAxisLabel":
-                            timeAxisLabel = value;
-                            break;
-                        case "timeAxisColor":
-                            timeAxisColor = Colour.getColor(value);
-                            break;
-                        case "domainAxisLabel":
-                            domainAxisLabel = value;
-                            break;
-                        case "rangeAxisLabel":
-                            rangeAxisLabel = value;
-                            break;
-                        case "pieSectionLabel":
-                            pieSectionLabel = value;
-                            break;
-                        case "pieSectionNumberFormat":
-                            pieSectionNumberFormat = value;
-                            break;
-                        case "pieSectionPercentFormat":
-                            pieSectionPercentFormat = value;
-                            break;
-                        case "orientation":
-                            if ("HORIZONTAL".equalsIgnoreCase(value)) {
-                                orientation = PlotOrientation.HORIZONTAL;
-
-                            } else if ("VERTICAL".equalsIgnoreCase(value)) {
-                                orientation = PlotOrientation.VERTICAL;
-
-                            } else {
-                                throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
-                            }
-                            verifyValue(localName, orientation);
-                            break;
-                        case "tableOrder":
-                            if ("COLUMN".equalsIgnoreCase(value)) {
-                                order = TableOrder.BY_COLUMN;
-
-                            } else if ("ROW".equalsIgnoreCase(value)) {
-                                order = TableOrder.BY_ROW;
-
-                            } else {
-                                throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
-                            }
-                            verifyValue(localName, order);
-                            break;
-
-                        case "legend":
-                            generateLegend = parseBoolean(value);
-                            verifyValue(localName, generateLegend);
-                            break;
-
-                        case "tooltips":
-                            generateTooltips = parseBoolean(value);
-                            verifyValue(localName, generateTooltips);
-                            break;
-
-                        case "urls":
-                            generateUrls = parseBoolean(value);
-                            verifyValue(localName, generateUrls);
-                            break;
-
-                        case "onlyShape":
-                            onlyShape = parseBoolean(value);
-                            verifyValue(localName, onlyShape);
-                            break;
-
-                        case "rangeAutoRangeIncludesZero":
-                            rangeAutoRangeIncludesZero = parseBoolean(value);
-                            verifyValue(localName, rangeAutoRangeIncludesZero);
-                            break;
-
-                        case "domainAutoRangeIncludesZero":
-                            domainAutoRangeIncludesZero = parseBoolean(value);
-                            verifyValue(localName, domainAutoRangeIncludesZero);
-                            break;
-
-                        case "rangeIntegerTickUnits":
-                            rangeIntegerTickUnits = parseBoolean(value);
-                            verifyValue(localName, rangeIntegerTickUnits);
-                            break;
-
-                        case "domainIntegerTickUnits":
-                            domainIntegerTickUnits = parseBoolean(value);
-                            verifyValue(localName, domainIntegerTickUnits);
-                            break;
-
-                        case "rangeGridlinesVisible":
-                            rangeGridlinesVisible = parseBoolean(value);
-                            verifyValue(localName, rangeGridlinesVisible);
-                            break;
-
-                        case "domainGridlinesVisible":
-                            domainGridlinesVisible = parseBoolean(value);
-                            verifyValue(localName, domainGridlinesVisible);
-                            break;
-
-                        case "rangeGridbandsVisible":
-                            rangeGridbandsVisible = parseBoolean(value);
-                            verifyValue(localName, rangeGridbandsVisible);
-                            break;
-
-                        case "domainGridbandsVisible":
-                            domainGridbandsVisible = parseBoolean(value);
-                            verifyValue(localName, domainGridbandsVisible);
-                            break;
-
-                        case "rangeZeroBaselineVisible":
-                            rangeZeroBaselineVisible = parseBoolean(value);
-                            verifyValue(localName, rangeZeroBaselineVisible);
-                            break;
-
-                        case "domainZeroBaselineVisible":
-                            domainZeroBaselineVisible = parseBoolean(value);
-                            verifyValue(localName, domainZeroBaselineVisible);
-                            break;
-
-                        case "outlineVisible":
-                            outlineVisible = parseBoolean(value);
-                            verifyValue(localName, outlineVisible);
-                            break;
-
-                        case "pieSectionOutlinesVisible":
-                            pieSectionOutlinesVisible = parseBoolean(value);
-                            verifyValue(localName, pieSectionOutlinesVisible);
-                            break;
-
-                        case "useYInterval":
-                            useYInterval = parseBoolean(value);
-                            verifyValue(localName, useYInterval);
-                            break;
-
-			case "useDomainSymbolAxis":
-                            useDomainSymbolAxis = parseBoolean(value);
-                            verifyValue(localName, useDomainSymbolAxis);
-                            break;
-
-		        case "useDomainNumberAxis":
-                            useDomainNumberAxis = parseBoolean(value);
-                            verifyValue(localName, useDomainNumberAxis);
-                            break;
-
-			case "useRangeSymbolAxis":
-                            useRangeSymbolAxis = parseBoolean(value);
-                            verifyValue(localName, useRangeSymbolAxis);
-                            break;
-
-                        case "width":
-                            imageWidth = parseInteger(value);
-                            verifyValue(localName, imageWidth);
-                            break;
-
-                        case "height":
-                            imageHeight = parseInteger(value);
-                            verifyValue(localName, imageHeight);
-                            break;
-
-                        case "dotWidth":
-                            dotWidth = parseInteger(value);
-                            verifyValue(localName, dotWidth);
-                            break;
-
-                        case "dotHeight":
-                            dotHeight = parseInteger(value);
-                            verifyValue(localName, dotHeight);
-                            break;
-
-		        case "barWidth":
-                            barWidth = parseDouble(value);
-                            verifyValue(localName, barWidth);
-                            break;
-
-                        case "titleColor":
-                            titleColor = Colour.getColor(value);
-                            break;
-
-                        case "chartBackgroundColor":
-                            chartBackgroundColor = Colour.getColor(value);
-                            break;
-
-                        case "plotBackgroundColor":
-                            plotBackgroundColor = Colour.getColor(value);
-                            break;
-
-                        case "outlineColor":
-                            outlineColor = Colour.getColor(value);
-                            break;
-
-                        case "pieShadowColor":
-                            pieShadowColor = Colour.getColor(value);
-                            break;
-
-                        case "seriesColors":
-                            seriesColors = value; // DW: to verify
-                            break;
-
-                        case "sectionColors":
-                            sectionColors = value; // DW: to verify
-                            break;
-
-                        case "sectionColorsDelimiter":
-                            sectionColorsDelimiter = value; // DW: to verify
-                            break;
-
-                        case "rangeLowerBound":
-                            rangeLowerBound = parseDouble(value);
-                            verifyValue(localName, rangeLowerBound);
-                            break;
-
-                        case "rangeUpperBound":
-                            rangeUpperBound = parseDouble(value);
-                            verifyValue(localName, rangeUpperBound);
-                            break;
-
-                        case "rangeLowerMargin":
-                            rangeLowerMargin = parseDouble(value);
-                            verifyValue(localName, rangeLowerMargin);
-                            break;
-
-                        case "rangeUpperMargin":
-                            rangeUpperMargin = parseDouble(value);
-                            verifyValue(localName, rangeUpperMargin);
-                            break;
-
-                        case "domainLowerBound":
-                            domainLowerBound = parseDouble(value);
-                            verifyValue(localName, domainLowerBound);
-                            break;
-
-                        case "domainUpperBound":
-                            domainUpperBound = parseDouble(value);
-                            verifyValue(localName, domainUpperBound);
-                            break;
-
-                        case "domainLowerMargin":
-                            domainLowerMargin = parseDouble(value);
-                            verifyValue(localName, domainLowerMargin);
-                            break;
-
-                        case "domainUpperMargin":
-                            domainUpperMargin = parseDouble(value);
-                            verifyValue(localName, domainUpperMargin);
-                            break;
-
-                        case "foregroundAlpha":
-                            foregroundAlpha = parseFloat(value);
-                            verifyValue(localName, foregroundAlpha);
-                            break;
-
-                        case "lineWidth":
-                            lineWidth = parseFloat(value);
-                            verifyValue(localName, lineWidth);
-                            break;
-
-		        case "categoryItemLabelGeneratorClass":
-                            categoryItemLabelGeneratorClass = value;
-                            break;
-
-                        case "categoryItemLabelGeneratorParameter":
-                            categoryItemLabelGeneratorParameter = value;
-                            break;
-                        case "categoryItemLabelGeneratorNumberFormat":
-                            categoryItemLabelGeneratorNumberFormat = value;
-                            break;
-
-                        case "categoryLabelPositions":
-                            if ("UP_45".equalsIgnoreCase(value)) {
-                                categoryLabelPositions = CategoryLabelPositions.UP_45;
-                            } else if ("UP_90".equalsIgnoreCase(value)) {
-                                categoryLabelPositions = CategoryLabelPositions.UP_90;
-                            } else if ("DOWN_45".equalsIgnoreCase(value)) {
-                                categoryLabelPositions = CategoryLabelPositions.DOWN_45;
-
-                            } else if ("DOWN_90".equalsIgnoreCase(value)) {
-                                categoryLabelPositions = CategoryLabelPositions.DOWN_90;
-
-                            } else {
-                                throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
-                            }
-                            verifyValue(localName, categoryLabelPositions);
-                            break;
-
-                        case "imageType":
-                            imageType = value;
-                            break;
-
-                    }
+                    setParameter(localName, value);
 
                 }
 
@@ -725,6 +613,503 @@ public class Configuration {
         }
     }
 
+    /**
+     * Read configuration from a map, e.g. map { "title": "Sales", "width": 600 },
+     * and initialize configuration. The keys are the names of the configuration
+     * elements. A value holding more than one item is joined with the
+     * delimiter of its parameter, e.g. "seriesColors": ("red", "blue").
+     *
+     * @param configuration Chart configuration options.
+     * @throws XPathException Thrown when an entry cannot be read.
+     */
+    public void parse(AbstractMapType configuration) throws XPathException {
+
+        // sectionColors are joined with their own delimiter
+        Sequence delimiter = configuration.get(new StringValue("sectionColorsDelimiter"));
+        String sectionDelimiter = delimiter.isEmpty() ? sectionColorsDelimiter : delimiter.getStringValue();
+
+        for (SequenceIterator i = configuration.keys().iterate(); i.hasNext(); ) {
+            AtomicValue key = (AtomicValue) i.nextItem();
+            String localName = key.getStringValue();
+            Sequence values = configuration.get(key);
+
+            if (values.isEmpty()) {
+                continue;
+            }
+
+            String value;
+            if (values.hasOne()) {
+                value = values.getStringValue();
+            } else {
+                String separator = "sectionColors".equals(localName) ? sectionDelimiter : ",";
+                StringBuilder builder = new StringBuilder();
+                for (SequenceIterator j = values.iterate(); j.hasNext(); ) {
+                    if (builder.length() > 0) {
+                        builder.append(separator);
+                    }
+                    builder.append(j.nextItem().getStringValue());
+                }
+                value = builder.toString();
+            }
+
+            setParameter(localName, value);
+        }
+    }
+
+    /**
+     * Set a configuration parameter from its textual value. Unknown
+     * parameters are ignored.
+     *
+     * @param localName Name of the configuration element or map key.
+     * @param value The value.
+     * @throws XPathException Thrown when the value cannot be converted.
+     */
+    public void setParameter(String localName, String value) throws XPathException {
+
+        parameters.put(localName, value);
+
+        switch (localName) {
+            case "title":
+                title = value;
+                break;
+            case "categoryAxisLabel":
+                categoryAxisLabel = value;
+                break;
+            case "categoryAxisColor":
+                categoryAxisColor = Colour.getColor(value);
+                break;
+            case "valueAxisLabel":
+                valueAxisLabel = value;
+                break;
+            case "valueAxisColor":
+                valueAxisColor = Colour.getColor(value);
+                break;
+            case "timeAxisLabel":
+                timeAxisLabel = value;
+                break;
+            case "timeAxisColor":
+                timeAxisColor = Colour.getColor(value);
+                break;
+            case "domainAxisLabel":
+                domainAxisLabel = value;
+                break;
+            case "rangeAxisLabel":
+                rangeAxisLabel = value;
+                break;
+            case "pieSectionLabel":
+                pieSectionLabel = value;
+                break;
+            case "pieSectionNumberFormat":
+                pieSectionNumberFormat = value;
+                break;
+            case "pieSectionPercentFormat":
+                pieSectionPercentFormat = value;
+                break;
+            case "orientation":
+                if ("HORIZONTAL".equalsIgnoreCase(value)) {
+                    orientation = PlotOrientation.HORIZONTAL;
+
+                } else if ("VERTICAL".equalsIgnoreCase(value)) {
+                    orientation = PlotOrientation.VERTICAL;
+
+                } else {
+                    throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
+                }
+                verifyValue(localName, orientation);
+                break;
+            case "tableOrder":
+                if ("COLUMN".equalsIgnoreCase(value)) {
+                    order = TableOrder.BY_COLUMN;
+
+                } else if ("ROW".equalsIgnoreCase(value)) {
+                    order = TableOrder.BY_ROW;
+
+                } else {
+                    throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
+                }
+                verifyValue(localName, order);
+                break;
+
+            case "legend":
+                generateLegend = parseBoolean(value);
+                verifyValue(localName, generateLegend);
+                break;
+
+            case "tooltips":
+                generateTooltips = parseBoolean(value);
+                verifyValue(localName, generateTooltips);
+                break;
+
+            case "urls":
+                generateUrls = parseBoolean(value);
+                verifyValue(localName, generateUrls);
+                break;
+
+            case "onlyShape":
+                onlyShape = parseBoolean(value);
+                verifyValue(localName, onlyShape);
+                break;
+
+            case "rangeAutoRangeIncludesZero":
+                rangeAutoRangeIncludesZero = parseBoolean(value);
+                verifyValue(localName, rangeAutoRangeIncludesZero);
+                break;
+
+            case "domainAutoRangeIncludesZero":
+                domainAutoRangeIncludesZero = parseBoolean(value);
+                verifyValue(localName, domainAutoRangeIncludesZero);
+                break;
+
+            case "rangeIntegerTickUnits":
+                rangeIntegerTickUnits = parseBoolean(value);
+                verifyValue(localName, rangeIntegerTickUnits);
+                break;
+
+            case "domainIntegerTickUnits":
+                domainIntegerTickUnits = parseBoolean(value);
+                verifyValue(localName, domainIntegerTickUnits);
+                break;
+
+            case "rangeGridlinesVisible":
+                rangeGridlinesVisible = parseBoolean(value);
+                verifyValue(localName, rangeGridlinesVisible);
+                break;
+
+            case "domainGridlinesVisible":
+                domainGridlinesVisible = parseBoolean(value);
+                verifyValue(localName, domainGridlinesVisible);
+                break;
+
+            case "rangeGridbandsVisible":
+                rangeGridbandsVisible = parseBoolean(value);
+                verifyValue(localName, rangeGridbandsVisible);
+                break;
+
+            case "domainGridbandsVisible":
+                domainGridbandsVisible = parseBoolean(value);
+                verifyValue(localName, domainGridbandsVisible);
+                break;
+
+            case "rangeZeroBaselineVisible":
+                rangeZeroBaselineVisible = parseBoolean(value);
+                verifyValue(localName, rangeZeroBaselineVisible);
+                break;
+
+            case "domainZeroBaselineVisible":
+                domainZeroBaselineVisible = parseBoolean(value);
+                verifyValue(localName, domainZeroBaselineVisible);
+                break;
+
+            case "outlineVisible":
+                outlineVisible = parseBoolean(value);
+                verifyValue(localName, outlineVisible);
+                break;
+
+            case "pieSectionOutlinesVisible":
+                pieSectionOutlinesVisible = parseBoolean(value);
+                verifyValue(localName, pieSectionOutlinesVisible);
+                break;
+
+            case "useYInterval":
+                useYInterval = parseBoolean(value);
+                verifyValue(localName, useYInterval);
+                break;
+
+            case "useDomainSymbolAxis":
+                useDomainSymbolAxis = parseBoolean(value);
+                verifyValue(localName, useDomainSymbolAxis);
+                break;
+
+            case "useDomainNumberAxis":
+                useDomainNumberAxis = parseBoolean(value);
+                verifyValue(localName, useDomainNumberAxis);
+                break;
+
+            case "useRangeSymbolAxis":
+                useRangeSymbolAxis = parseBoolean(value);
+                verifyValue(localName, useRangeSymbolAxis);
+                break;
+
+            case "width":
+                imageWidth = parseInteger(value);
+                verifyValue(localName, imageWidth);
+                break;
+
+            case "height":
+                imageHeight = parseInteger(value);
+                verifyValue(localName, imageHeight);
+                break;
+
+            case "dotWidth":
+                dotWidth = parseInteger(value);
+                verifyValue(localName, dotWidth);
+                break;
+
+            case "dotHeight":
+                dotHeight = parseInteger(value);
+                verifyValue(localName, dotHeight);
+                break;
+
+            case "barWidth":
+                barWidth = parseDouble(value);
+                verifyValue(localName, barWidth);
+                break;
+
+            case "titleColor":
+                titleColor = Colour.getColor(value);
+                break;
+
+            case "chartBackgroundColor":
+                chartBackgroundColor = Colour.getColor(value);
+                break;
+
+            case "plotBackgroundColor":
+                plotBackgroundColor = Colour.getColor(value);
+                break;
+
+            case "outlineColor":
+                outlineColor = Colour.getColor(value);
+                break;
+
+            case "pieShadowColor":
+                pieShadowColor = Colour.getColor(value);
+                break;
+
+            case "seriesColors":
+                seriesColors = value; // DW: to verify
+                break;
+
+            case "sectionColors":
+                sectionColors = value; // DW: to verify
+                break;
+
+            case "sectionColorsDelimiter":
+                sectionColorsDelimiter = value; // DW: to verify
+                break;
+
+            case "rangeLowerBound":
+                rangeLowerBound = parseDouble(value);
+                verifyValue(localName, rangeLowerBound);
+                break;
+
+            case "rangeUpperBound":
+                rangeUpperBound = parseDouble(value);
+                verifyValue(localName, rangeUpperBound);
+                break;
+
+            case "rangeLowerMargin":
+                rangeLowerMargin = parseDouble(value);
+                verifyValue(localName, rangeLowerMargin);
+                break;
+
+            case "rangeUpperMargin":
+                rangeUpperMargin = parseDouble(value);
+                verifyValue(localName, rangeUpperMargin);
+                break;
+
+            case "domainLowerBound":
+                domainLowerBound = parseDouble(value);
+                verifyValue(localName, domainLowerBound);
+                break;
+
+            case "domainUpperBound":
+                domainUpperBound = parseDouble(value);
+                verifyValue(localName, domainUpperBound);
+                break;
+
+            case "domainLowerMargin":
+                domainLowerMargin = parseDouble(value);
+                verifyValue(localName, domainLowerMargin);
+                break;
+
+            case "domainUpperMargin":
+                domainUpperMargin = parseDouble(value);
+                verifyValue(localName, domainUpperMargin);
+                break;
+
+            case "foregroundAlpha":
+                foregroundAlpha = parseFloat(value);
+                verifyValue(localName, foregroundAlpha);
+                break;
+
+            case "lineWidth":
+                lineWidth = parseFloat(value);
+                verifyValue(localName, lineWidth);
+                break;
+
+            case "categoryItemLabelGeneratorClass":
+                categoryItemLabelGeneratorClass = value;
+                break;
+
+            case "categoryItemLabelGeneratorParameter":
+                categoryItemLabelGeneratorParameter = value;
+                break;
+            case "categoryItemLabelGeneratorNumberFormat":
+                categoryItemLabelGeneratorNumberFormat = value;
+                break;
+
+            case "categoryLabelPositions":
+                if ("UP_45".equalsIgnoreCase(value)) {
+                    categoryLabelPositions = CategoryLabelPositions.UP_45;
+                } else if ("UP_90".equalsIgnoreCase(value)) {
+                    categoryLabelPositions = CategoryLabelPositions.UP_90;
+                } else if ("DOWN_45".equalsIgnoreCase(value)) {
+                    categoryLabelPositions = CategoryLabelPositions.DOWN_45;
+
+                } else if ("DOWN_90".equalsIgnoreCase(value)) {
+                    categoryLabelPositions = CategoryLabelPositions.DOWN_90;
+
+                } else {
+                    throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
+                }
+                verifyValue(localName, categoryLabelPositions);
+                break;
+
+            case "categoryLabelThinning":
+                categoryLabelThinning = parseBoolean(value);
+                verifyValue(localName, categoryLabelThinning);
+                break;
+
+            case "imageType":
+                imageType = value;
+                break;
+
+            case "csvDelimiter":
+                if ("tab".equalsIgnoreCase(value) || "\\t".equals(value)) {
+                    csvDelimiter = '\t';
+                } else if ("space".equalsIgnoreCase(value)) {
+                    csvDelimiter = ' ';
+                } else if (value.length() == 1) {
+                    csvDelimiter = value.charAt(0);
+                } else {
+                    throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
+                }
+                break;
+
+            case "csvHeader":
+                csvHeader = parseBoolean(value);
+                verifyValue(localName, csvHeader);
+                break;
+
+            case "csvSeriesColumn":
+                csvSeriesColumn = value;
+                break;
+
+            case "csvValueColumns":
+                csvValueColumns = value;
+                break;
+
+            case "decimation":
+                switch (value.toLowerCase()) {
+                    case DECIMATION_NONE:
+                    case DECIMATION_LTTB:
+                    case DECIMATION_M4:
+                        decimation = value.toLowerCase();
+                        break;
+                    default:
+                        throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
+                }
+                break;
+
+            case "density":
+                switch (value.toLowerCase()) {
+                    case DENSITY_NONE:
+                    case DENSITY_PIXEL:
+                    case DENSITY_HEXBIN:
+                        density = value.toLowerCase();
+                        break;
+                    default:
+                        throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
+                }
+                break;
+
+            case "densityBinSize":
+                densityBinSize = parseInteger(value);
+                verifyValue(localName, densityBinSize);
+                break;
+
+            case "colorRamp":
+                colorRamp = ColourRamp.parse(value);
+                break;
+
+            case "paintScaleLowerBound":
+                paintScaleLowerBound = parseDouble(value);
+                verifyValue(localName, paintScaleLowerBound);
+                break;
+
+            case "paintScaleUpperBound":
+                paintScaleUpperBound = parseDouble(value);
+                verifyValue(localName, paintScaleUpperBound);
+                break;
+
+            case "histogramBins":
+                histogramBins = parseInteger(value);
+                verifyValue(localName, histogramBins);
+                break;
+
+            case "ohlcPeriod":
+                Long period = parseDuration(value);
+                verifyValue(localName, period);
+                ohlcPeriod = period;
+                break;
+
+            case "topN":
+                Integer n = parseInteger(value);
+                verifyValue(localName, n);
+                if (n < 0) {
+                    throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
+                }
+                topN = n;
+                break;
+
+            case "topNMinShare":
+                Double share = parseDouble(value);
+                verifyValue(localName, share);
+                if (share < 0 || share > 1) {
+                    throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
+                }
+                topNMinShare = share;
+                break;
+
+            case "otherLabel":
+                otherLabel = value;
+                break;
+
+            case "transforms":
+                transforms = SeriesTransforms.parse(value);
+                break;
+
+            case "streaming":
+                streaming = parseBoolean(value);
+                verifyValue(localName, streaming);
+                break;
+
+            case "renderer":
+                switch (value.toLowerCase()) {
+                    case RENDERER_DEFAULT:
+                    case RENDERER_BULK:
+                    case RENDERER_PATH:
+                    case RENDERER_RASTER:
+                        renderer = value.toLowerCase();
+                        break;
+                    default:
+                        throw new XPathException(MessageFormat.format("Wrong value for \"{0}\"", localName));
+                }
+                break;
+
+            case "parallelLayers":
+                parallelLayers = parseBoolean(value);
+                verifyValue(localName, parallelLayers);
+                break;
+
+            case "staticLayerCache":
+                staticLayerCache = parseBoolean(value);
+                verifyValue(localName, staticLayerCache);
+                break;
+
+        }
+    }
+
     /**
      * Parse text and return boolean. Accepted values Yes No True False,
      * otherwise NULL is returned.
@@ -783,6 +1168,24 @@ public class Configuration {
         }
     }
 
+    /**
+     * Parse a positive duration, an xs:dayTimeDuration like PT5M or P1D or
+     * a number of milliseconds, and return milliseconds. NULL is returned
+     * when value cannot be converted.
+     */
+    private Long parseDuration(String value) {
+
+        try {
+            String trimmed = value.trim();
+            long millis = trimmed.startsWith("P") ? Duration.parse(trimmed).toMillis() : Long.parseLong(trimmed);
+            return millis > 0 ? millis : null;
+
+        } catch (DateTimeParseException | ArithmeticException | NumberFormatException ex) {
+            logger.debug(ex.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Helper method for getting the value of the (first) node.
      */
@@ -0,0 +1,167 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.exist.dom.QName;
+import org.exist.xquery.BasicFunction;
+import org.exist.xquery.Cardinality;
+import org.exist.xquery.FunctionSignature;
+import org.exist.xquery.XPathException;
+import org.exist.xquery.XQueryContext;
+import org.exist.xquery.modules.jfreechart.data.IndexedXYDataset;
+import org.exist.xquery.modules.jfreechart.data.MappedDatasetCache;
+import org.exist.xquery.modules.jfreechart.data.ResidentDatasets;
+import org.exist.xquery.value.BooleanValue;
+import org.exist.xquery.value.FunctionParameterSequenceType;
+import org.exist.xquery.value.FunctionReturnSequenceType;
+import org.exist.xquery.value.JavaObjectValue;
+import org.exist.xquery.value.Sequence;
+import org.exist.xquery.value.SequenceType;
+import org.exist.xquery.value.Type;
+import org.jfree.data.general.Dataset;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Functions returning dataset handles, which can be passed as the data of
+ * jfreechart:render and jfreechart:stream-render, and managing the datasets
+ * kept resident between queries.
+ */
+public class DatasetFunctions extends BasicFunction {
+
+    protected static final Logger logger = LogManager.getLogger(DatasetFunctions.class);
+
+    private static final String handleText = "the dataset handle, to be used as the data of render and stream-render";
+
+    public final static FunctionSignature signatures[] = {
+
+        new FunctionSignature(
+            new QName("mapped-dataset", JFreeChartModule.NAMESPACE_URI, JFreeChartModule.PREFIX),
+            "Get an XYDataset or XYZDataset backed by a memory mapped file in the data directory " +
+            "of the module (module parameter 'data-directory'). The file holds packed binary " +
+            "columns, starting with the 'JFCB' header. The values are read off-heap, and the " +
+            "mapping is shared by all renders until the file changes.",
+            new SequenceType[]{
+                new FunctionParameterSequenceType("name", Type.STRING, Cardinality.EXACTLY_ONE,
+                        "The name of the file in the data directory.")
+            },
+            new FunctionReturnSequenceType(Type.ITEM, Cardinality.EXACTLY_ONE, handleText)
+        ),
+
+        new FunctionSignature(
+            new QName("register-dataset", JFreeChartModule.NAMESPACE_URI, JFreeChartModule.PREFIX),
+            "Read an XYDataset, as the data of render, and keep it resident under a name, replacing " +
+            "a dataset of the same name. The series are sorted by x and indexed, so renders with " +
+            "domainLowerBound and domainUpperBound only read the items within the bounds, or with " +
+            "decimation 'm4' only the points drawn per pixel column.",
+            new SequenceType[]{
+                new FunctionParameterSequenceType("name", Type.STRING, Cardinality.EXACTLY_ONE,
+                        "The name of the dataset."),
+                new FunctionParameterSequenceType("configuration", Type.ITEM, Cardinality.EXACTLY_ONE,
+                        "The configuration for reading the data, e.g. the csv* parameters."),
+                new FunctionParameterSequenceType("data", Type.ITEM, Cardinality.EXACTLY_ONE,
+                        "The data, in any of the forms accepted by render.")
+            },
+            new FunctionReturnSequenceType(Type.ITEM, Cardinality.EXACTLY_ONE, handleText)
+        ),
+
+        new FunctionSignature(
+            new QName("resident-dataset", JFreeChartModule.NAMESPACE_URI, JFreeChartModule.PREFIX),
+            "Get a dataset kept resident by register-dataset.",
+            new SequenceType[]{
+                new FunctionParameterSequenceType("name", Type.STRING, Cardinality.EXACTLY_ONE,
+                        "The name of the dataset.")
+            },
+            new FunctionReturnSequenceType(Type.ITEM, Cardinality.ZERO_OR_ONE,
+                    handleText + ", or the empty sequence when no dataset has the name")
+        ),
+
+        new FunctionSignature(
+            new QName("remove-dataset", JFreeChartModule.NAMESPACE_URI, JFreeChartModule.PREFIX),
+            "Remove a dataset kept resident by register-dataset.",
+            new SequenceType[]{
+                new FunctionParameterSequenceType("name", Type.STRING, Cardinality.EXACTLY_ONE,
+                        "The name of the dataset.")
+            },
+            new FunctionReturnSequenceType(Type.BOOLEAN, Cardinality.EXACTLY_ONE,
+                    "true when a dataset had the name")
+        )
+    };
+
+    public DatasetFunctions(XQueryContext context, FunctionSignature signature) {
+        super(context, signature);
+    }
+
+    @Override
+    public Sequence eval(Sequence[] args, Sequence contextSequence) throws XPathException {
+        String name = args[0].getStringValue();
+
+        if (isCalledAs("register-dataset")) {
+            return registerDataset(name, args);
+
+        } else if (isCalledAs("resident-dataset")) {
+            IndexedXYDataset dataset = ResidentDatasets.get(name);
+            return dataset == null ? Sequence.EMPTY_SEQUENCE : new JavaObjectValue(dataset);
+
+        } else if (isCalledAs("remove-dataset")) {
+            return BooleanValue.valueOf(ResidentDatasets.remove(name));
+        }
+
+        JFreeChartModule module = (JFreeChartModule) context.getModule(JFreeChartModule.NAMESPACE_URI);
+
+        Path file = module.getDataFile(name);
+        if (file == null) {
+            throw new XPathException(this, "Invalid dataset file name: " + name);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new XPathException(this, "Dataset file not found: " + name);
+        }
+
+        try {
+            return new JavaObjectValue(MappedDatasetCache.getDataset(file));
+
+        } catch (IOException ex) {
+            logger.error(ex);
+            throw new XPathException(this, ex.getMessage());
+        }
+    }
+
+    private Sequence registerDataset(String name, Sequence[] args) throws XPathException {
+        Configuration config = JFreeCharting.readConfiguration(this, args[1].itemAt(0));
+        Dataset dataset;
+        try {
+            // any XY chart type reads the data as an XYDataset
+            dataset = JFreeCharting.readDataset(context, this, "XYLineChart", config, args[2].itemAt(0));
+
+        } catch (IOException ex) {
+            logger.error(ex);
+            throw new XPathException(this, ex.getMessage());
+        }
+        if (!(dataset instanceof XYDataset)) {
+            throw new XPathException(this, "Only XYDataset can be registered");
+        }
+        return new JavaObjectValue(ResidentDatasets.register(name, (XYDataset) dataset));
+    }
+}
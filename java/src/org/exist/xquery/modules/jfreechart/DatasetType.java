@@ -0,0 +1,67 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart;
+
+/**
+ * The kind of dataset a chart type is drawn from.
+ */
+public enum DatasetType {
+
+    CATEGORY, PIE, XY, XYZ, TIME_SERIES, DISTRIBUTION, OHLC;
+
+    /**
+     * Get the dataset type for a chart type, CategoryDataset being the
+     * default.
+     *
+     * @param chartType One of the supported chart types.
+     * @return The dataset type the chart is drawn from.
+     */
+    public static DatasetType forChartType(String chartType) {
+        if (chartType == null) {
+            return CATEGORY;
+        }
+        switch (chartType) {
+            case "PieChart":
+            case "PieChart3D":
+            case "RingChart":
+                return PIE;
+            case "ScatterPlot":
+            case "XYAreaChart":
+            case "XYBarChart":
+            case "XYLineChart":
+                return XY;
+            case "BubbleChart":
+            case "HeatMap":
+                return XYZ;
+            case "TimeSeriesChart":
+            case "TimeSeriesScatterPlot":
+                return TIME_SERIES;
+            case "Histogram":
+            case "BoxAndWhisker":
+                return DISTRIBUTION;
+            case "CandlestickChart":
+            case "HighLowChart":
+                return OHLC;
+            default:
+                return CATEGORY;
+        }
+    }
+}
@@ -22,6 +22,8 @@ package org.exist.xquery.modules.jfreechart;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.geom.Area;
+import java.awt.geom.Rectangle2D;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
@@ -29,38 +31,73 @@ import java.text.DecimalFormat;
 import java.text.MessageFormat;
 import java.text.NumberFormat;
 import java.util.StringTokenizer;
+import java.util.concurrent.ForkJoinPool;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 import org.exist.xquery.XPathException;
+import org.exist.xquery.modules.jfreechart.data.ArrayOHLCDataset;
+import org.exist.xquery.modules.jfreechart.data.ArrayXYZDataset;
+import org.exist.xquery.modules.jfreechart.data.DistributionDataset;
+import org.exist.xquery.modules.jfreechart.data.IndexedXYDataset;
+import org.exist.xquery.modules.jfreechart.data.MatrixDataset;
+import org.exist.xquery.modules.jfreechart.data.TopN;
+import org.exist.xquery.modules.jfreechart.data.XYDecimator;
+import org.exist.xquery.modules.jfreechart.data.XYItemSource;
+import org.exist.xquery.modules.jfreechart.data.XYStreamSummary;
+import org.exist.xquery.modules.jfreechart.data.XYSummaryDataset;
+import org.exist.xquery.modules.jfreechart.render.category.OutlierBoxAndWhiskerRenderer;
+import org.exist.xquery.modules.jfreechart.render.category.PathLineAndShapeRenderer;
+import org.exist.xquery.modules.jfreechart.render.category.ThinningCategoryAxis;
+import org.exist.xquery.modules.jfreechart.render.xy.BulkLineRenderer;
+import org.exist.xquery.modules.jfreechart.render.xy.BulkXYRenderer;
+import org.exist.xquery.modules.jfreechart.render.xy.DensityRenderer;
+import org.exist.xquery.modules.jfreechart.render.xy.HeatMapRenderer;
+import org.exist.xquery.modules.jfreechart.render.xy.ParallelLayerRenderer;
+import org.exist.xquery.modules.jfreechart.render.xy.PathXYLineRenderer;
+import org.exist.xquery.modules.jfreechart.render.xy.RasterScatterRenderer;
+import org.exist.xquery.modules.jfreechart.render.xy.StreamingXYRenderer;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.CategoryAxis;
 import org.jfree.chart.axis.CategoryLabelPositions;
+import org.jfree.chart.axis.DateAxis;
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.axis.SymbolAxis;
+import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.labels.CategoryItemLabelGenerator;
 import org.jfree.chart.labels.StandardCategoryToolTipGenerator;
 import org.jfree.chart.labels.StandardPieSectionLabelGenerator;
 import org.jfree.chart.plot.CategoryPlot;
 import org.jfree.chart.plot.MultiplePiePlot;
 import org.jfree.chart.plot.PiePlot;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.SeriesRenderingOrder;
 import org.jfree.chart.plot.SpiderWebPlot;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.category.CategoryItemRenderer;
 import org.jfree.chart.renderer.category.LineAndShapeRenderer;
+import org.jfree.chart.renderer.xy.AbstractXYItemRenderer;
+import org.jfree.chart.renderer.xy.CandlestickRenderer;
 import org.jfree.chart.renderer.xy.XYDotRenderer;
 import org.jfree.chart.renderer.xy.XYBarRenderer;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.chart.title.LegendTitle;
+import org.jfree.chart.title.PaintScaleLegend;
 import org.jfree.chart.title.TextTitle;
+import org.jfree.data.Range;
 import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.general.Dataset;
+import org.jfree.data.general.DatasetUtilities;
 import org.jfree.data.general.PieDataset;
-import org.jfree.data.xml.DatasetReader;
-import org.jfree.data.xml.XYDatasetReader;
+import org.jfree.data.xml.ArrayDatasetReader;
 import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.data.xy.OHLCDataset;
 import org.jfree.data.xy.XYBarDataset;
 import org.jfree.data.xy.XYDataset;
 import org.jfree.data.xy.XYZDataset;
 import org.jfree.ui.RectangleEdge;
+import org.jfree.ui.RectangleInsets;
 
 /**
  * Wrapper for JFreeChart's ChartFactory.
@@ -84,38 +121,58 @@ public class JFreeChartFactory {
      */
     public static JFreeChart createJFreeChart(String chartType, Configuration conf, InputStream is)
             throws XPathException {
+        return createJFreeChart(chartType, conf, readXMLDataset(chartType, conf, is));
+    }
 
-        logger.debug("Generating "+chartType);
+    /**
+     *  Read the dataset for a chart type from JFreeChart XML.
+     *
+     * @param chartType One of the many chart types.
+     * @param is        Inputstream containing chart data, closed when read.
+     * @return          The dataset.
+     * @throws org.exist.xquery.XPathException Thrown when the data cannot be read
+     */
+    public static Dataset readXMLDataset(String chartType, InputStream is)
+            throws XPathException {
+        return readXMLDataset(chartType, new Configuration(), is);
+    }
 
-        // Currently four dataset types supported
-        CategoryDataset categoryDataset = null;
-        PieDataset pieDataset = null;
-        XYDataset XYDataset = null;
-        XYZDataset XYZDataset = null;
+    /**
+     *  Read the dataset for a chart type from JFreeChart XML, with the
+     * parameters of reading, like the period of OHLC bars.
+     *
+     * @param chartType One of the many chart types.
+     * @param conf      Chart configuration
+     * @param is        Inputstream containing chart data, closed when read.
+     * @return          The dataset.
+     * @throws org.exist.xquery.XPathException Thrown when the data cannot be read
+     */
+    public static Dataset readXMLDataset(String chartType, Configuration conf, InputStream is)
+            throws XPathException {
 
         try {
-            if (null != chartType) switch (chartType) {
-                case "PieChart":
-                case "PieChart3D":
-                case "RingChart":
+            switch (DatasetType.forChartType(chartType)) {
+                case PIE:
                     logger.debug("Reading XML PieDataset");
-                    pieDataset = DatasetReader.readPieDatasetFromXML(is);
-                    break;
-                case "ScatterPlot":
-                case "XYAreaChart":
-                case "XYBarChart":
-                case "XYLineChart":
+                    return ArrayDatasetReader.readPieDatasetFromXML(is);
+                case XY:
                     logger.debug("Reading XML XYDataset");
-                    XYDataset = XYDatasetReader.readXYDatasetFromXML(is);
-                    break;
-                case "BubbleChart":
+                    return ArrayDatasetReader.readXYDatasetFromXML(is);
+                case TIME_SERIES:
+                    logger.debug("Reading XML time series");
+                    return ArrayDatasetReader.readTimeSeriesDatasetFromXML(is);
+                case DISTRIBUTION:
+                    logger.debug("Reading XML distributions");
+                    return ArrayDatasetReader.readDistributionDatasetFromXML(is);
+                case OHLC:
+                    logger.debug("Reading XML ticks into OHLC bars");
+                    return ArrayDatasetReader.readOHLCDatasetFromXML(is, conf.getOhlcPeriod());
+                case XYZ:
                     logger.debug("Reading XML XYZDataset");
-                    XYZDataset = XYDatasetReader.readXYZDatasetFromXML(is);
-                    break;
+                    return ArrayDatasetReader.readXYZDatasetFromXML(is);
                 default:
                     logger.debug("Reading XML CategoryDataset");
-                    categoryDataset = DatasetReader.readCategoryDatasetFromXML(is);
-                    break;
+                    return ArrayDatasetReader.readCategoryDatasetFromXML(is);
             }
 
         } catch (IOException ex) {
@@ -128,6 +185,189 @@ public class JFreeChartFactory {
                 //
             }
         }
+    }
+
+    /**
+     *  Create JFreeChart graph from XY data streamed twice instead of read
+     * into a dataset: the first pass collects the series keys and bounds,
+     * from which the chart is built, the second pass runs when the chart is
+     * drawn. Supported for XYLineChart and ScatterPlot.
+     *
+     * @param chartType XYLineChart or ScatterPlot.
+     * @param conf      Chart configuration
+     * @param source    Chart data, streamed once for the bounds and once
+     *                  for every drawing of the chart.
+     * @return          Initialized chart.
+     * @throws org.exist.xquery.XPathException Thrown when the chart type is not
+     *                  supported or the data cannot be read.
+     */
+    public static JFreeChart createStreamingChart(String chartType, Configuration conf, XYItemSource source)
+            throws XPathException {
+
+        if (!"XYLineChart".equals(chartType) && !"ScatterPlot".equals(chartType)) {
+            throw new XPathException(MessageFormat.format(
+                    "Streaming is only supported for XYLineChart and ScatterPlot, not ''{0}''", chartType));
+        }
+
+        logger.debug("Streaming summary of " + chartType);
+        XYStreamSummary summary = new XYStreamSummary();
+        try {
+            source.stream(summary);
+        } catch (IOException ex) {
+            throw new XPathException(ex.getMessage());
+        }
+
+        XYSummaryDataset dataset = summary.getDataset();
+        JFreeChart chart = createJFreeChart(chartType, conf, dataset);
+
+        setBulkRenderer(chart, new StreamingXYRenderer(source, "XYLineChart".equals(chartType)));
+
+        return chart;
+    }
+
+    /**
+     *  Create a tile of an XY chart of a resident dataset. At zoom level z the
+     * domain of the dataset is split into 2^z tiles of the configured size. All
+     * tiles have the range of the whole dataset, unless configured, and only
+     * their data area: without title, legend, axes or insets, so neighbouring
+     * tiles join up.
+     *
+     * @param chartType ScatterPlot, XYAreaChart, XYBarChart or XYLineChart.
+     * @param conf      Chart configuration, receiving the bounds of the tile.
+     * @param dataset   The resident dataset.
+     * @param zoom      The zoom level, 0 to 30.
+     * @param tile      The index of the tile along the domain, 0 to 2^zoom - 1.
+     * @return          Initialized chart.
+     * @throws org.exist.xquery.XPathException Thrown when the chart type is not
+     *                  an XY chart or the tile does not exist.
+     */
+    public static JFreeChart createTileChart(String chartType, Configuration conf, IndexedXYDataset dataset,
+            int zoom, long tile) throws XPathException {
+
+        if (DatasetType.forChartType(chartType) != DatasetType.XY) {
+            throw new XPathException(MessageFormat.format("Tiles are only supported for XY charts, not ''{0}''", chartType));
+        }
+        if (zoom < 0 || zoom > 30 || tile < 0 || tile >= 1L << zoom) {
+            throw new XPathException(MessageFormat.format("No tile {0} at zoom level {1}", tile, zoom));
+        }
+
+        Range domain = dataset.getDomainBounds(false);
+        Range range = dataset.getRangeBounds(false);
+        if (domain != null) {
+            double width = domain.getLength() / (1L << zoom);
+            conf.setParameter("domainLowerBound", Double.toString(domain.getLowerBound() + tile * width));
+            conf.setParameter("domainUpperBound", Double.toString(domain.getLowerBound() + (tile + 1) * width));
+        }
+        if (range != null) {
+            // as the auto range of the whole dataset
+            if (conf.isRangeAutoRangeIncludesZero()) {
+                range = Range.expandToInclude(range, 0.0);
+            }
+            double length = range.getLength() > 0 ? range.getLength() : Math.max(Math.abs(range.getLowerBound()), 1.0);
+            double lowerMargin = conf.getRangeLowerMargin() != null ? conf.getRangeLowerMargin() : ValueAxis.DEFAULT_LOWER_MARGIN;
+            double upperMargin = conf.getRangeUpperMargin() != null ? conf.getRangeUpperMargin() : ValueAxis.DEFAULT_UPPER_MARGIN;
+            if (conf.getRangeLowerBound() == null) {
+                conf.setParameter("rangeLowerBound", Double.toString(range.getLowerBound() - length * lowerMargin));
+            }
+            if (conf.getRangeUpperBound() == null) {
+                conf.setParameter("rangeUpperBound", Double.toString(range.getUpperBound() + length * upperMargin));
+            }
+        }
+
+        JFreeChart chart = createJFreeChart(chartType, conf, dataset);
+
+        chart.setTitle((TextTitle) null);
+        chart.clearSubtitles();
+        chart.setBorderVisible(false);
+        chart.setPadding(RectangleInsets.ZERO_INSETS);
+        XYPlot plot = (XYPlot) chart.getPlot();
+        plot.getDomainAxis().setVisible(false);
+        plot.getRangeAxis().setVisible(false);
+        plot.setInsets(RectangleInsets.ZERO_INSETS);
+        plot.setAxisOffset(RectangleInsets.ZERO_INSETS);
+        plot.setOutlineVisible(false);
+
+        return chart;
+    }
+
+    /**
+     *  Create JFreeChart graph from an already read dataset.
+     *
+     * @param chartType One of the many chart types.
+     * @param conf      Chart configuration
+     * @param dataset   Chart data, of the dataset type of the chart type
+     * @return          Initialized chart or NULL in case of issues.
+     * @throws org.exist.xquery.XPathException Thrown when something unexpected happens
+     */
+    public static JFreeChart createJFreeChart(String chartType, Configuration conf, Dataset dataset)
+            throws XPathException {
+
+        logger.debug("Generating "+chartType);
+
+        // Currently four dataset types supported
+        CategoryDataset categoryDataset = null;
+        PieDataset pieDataset = null;
+        XYDataset XYDataset = null;
+        XYZDataset XYZDataset = null;
+        DistributionDataset distributionDataset = null;
+        OHLCDataset ohlcDataset = null;
+
+        DatasetType datasetType = DatasetType.forChartType(chartType);
+        switch (datasetType) {
+            case PIE:
+                if (dataset instanceof PieDataset) {
+                    pieDataset = (PieDataset) dataset;
+                } else if (dataset instanceof CategoryDataset && ((CategoryDataset) dataset).getRowCount() > 0) {
+                    // e.g. a dataset handle of jfreechart:aggregate, the first row as sections
+                    pieDataset = DatasetUtilities.createPieDatasetForRow((CategoryDataset) dataset, 0);
+                }
+                break;
+            case XY:
+            case TIME_SERIES:
+                if (dataset instanceof XYDataset) {
+                    XYDataset = (XYDataset) dataset;
+                }
+                break;
+            case XYZ:
+                if (dataset instanceof XYZDataset) {
+                    XYZDataset = (XYZDataset) dataset;
+                }
+                break;
+            case DISTRIBUTION:
+                if (dataset instanceof DistributionDataset) {
+                    distributionDataset = (DistributionDataset) dataset;
+                }
+                break;
+            case OHLC:
+                if (dataset instanceof OHLCDataset) {
+                    ohlcDataset = (OHLCDataset) dataset;
+                }
+                break;
+            default:
+                if (dataset instanceof CategoryDataset) {
+                    categoryDataset = (CategoryDataset) dataset;
+                }
+                break;
+        }
+        if (dataset != null && pieDataset == null && XYDataset == null && XYZDataset == null && categoryDataset == null
+                && distributionDataset == null && ohlcDataset == null) {
+            throw new XPathException(MessageFormat.format("Chart type ''{0}'' requires a {1} dataset",
+                    chartType, datasetType));
+        }
+        if (XYDataset != null && !conf.getTransforms().isEmpty()) {
+            XYDataset = conf.getTransforms().apply(XYDataset, datasetType == DatasetType.TIME_SERIES);
+        }
+        if (conf.getTopN() > 0 || conf.getTopNMinShare() > 0) {
+            // bounds the sections, series and categories to lay out
+            TopN topN = new TopN(conf.getTopN(), conf.getTopNMinShare(), conf.getOtherLabel());
+            if (pieDataset != null) {
+                pieDataset = topN.fold(pieDataset);
+            } else if (categoryDataset != null) {
+                categoryDataset = topN.fold(categoryDataset);
+            } else if (XYDataset != null && !(XYDataset instanceof XYSummaryDataset)) {
+                XYDataset = topN.fold(XYDataset, datasetType == DatasetType.TIME_SERIES);
+            }
+        }
 
         // Return chart
         JFreeChart chart = null;
@@ -163,6 +403,7 @@ public class JFreeChartFactory {
                         conf.getTitle(), conf.getCategoryAxisLabel(), conf.getValueAxisLabel(), categoryDataset,
                         conf.getOrientation(), conf.isGenerateLegend(), conf.isGenerateTooltips(), conf.isGenerateUrls());
 
+                setPathRenderer(chart, conf);
                 setCategoryChartParameters(chart, conf);
                 break;
 
@@ -267,34 +508,101 @@ public class JFreeChartFactory {
                 break;
             case "ScatterPlot":
                 chart = ChartFactory.createScatterPlot(
-                        conf.getTitle(), conf.getDomainAxisLabel(), conf.getRangeAxisLabel(), XYDataset,
+                        conf.getTitle(), conf.getDomainAxisLabel(), conf.getRangeAxisLabel(), window(XYDataset, conf),
                         conf.getOrientation(), conf.isGenerateLegend(), conf.isGenerateTooltips(), conf.isGenerateUrls());
 
                 setPlotAndNumberAxisParameters(chart, conf);
+                setBulkRenderer(chart, conf, false);
+                setDensityRenderer(chart, conf);
                 break;
 	    case "XYAreaChart":
                 chart = ChartFactory.createXYAreaChart(
-                        conf.getTitle(), conf.getDomainAxisLabel(), conf.getRangeAxisLabel(), XYDataset,
+                        conf.getTitle(), conf.getDomainAxisLabel(), conf.getRangeAxisLabel(), decimate(XYDataset, conf),
                         conf.getOrientation(), conf.isGenerateLegend(), conf.isGenerateTooltips(), conf.isGenerateUrls());
 
                 setPlotAndNumberAxisParameters(chart, conf);
                 break;
 	    case "XYBarChart":
+                XYDataset = window(XYDataset, conf);
                 chart = ChartFactory.createXYBarChart(
 			conf.getTitle(), conf.getDomainAxisLabel(), true,
 			//conf.getRangeAxisLabel(), new XYBarDataset(XYDataset, conf.getBarWidth()),
-			conf.getRangeAxisLabel(), (IntervalXYDataset) XYDataset,
+			conf.getRangeAxisLabel(), XYDataset instanceof IntervalXYDataset
+			    ? (IntervalXYDataset) XYDataset : new XYBarDataset(XYDataset, conf.getBarWidth()),
                         conf.getOrientation(), conf.isGenerateLegend(), conf.isGenerateTooltips(), conf.isGenerateUrls());
 
                 setPlotAndNumberAxisParameters(chart, conf);
                 break;
             case "XYLineChart":
                 chart = ChartFactory.createXYLineChart(
-                        conf.getTitle(), conf.getDomainAxisLabel(), conf.getRangeAxisLabel(), XYDataset,
+                        conf.getTitle(), conf.getDomainAxisLabel(), conf.getRangeAxisLabel(), decimate(XYDataset, conf),
+                        conf.getOrientation(), conf.isGenerateLegend(), conf.isGenerateTooltips(), conf.isGenerateUrls());
+
+                setPlotAndNumberAxisParameters(chart, conf);
+                setBulkRenderer(chart, conf, true);
+                break;
+            case "TimeSeriesChart":
+                chart = ChartFactory.createTimeSeriesChart(
+                        conf.getTitle(), getTimeAxisLabel(conf), conf.getRangeAxisLabel(),
+                        decimate(XYDataset, conf, conf.getImageWidth()),
+                        conf.isGenerateLegend(), conf.isGenerateTooltips(), conf.isGenerateUrls());
+
+                setPlotAndNumberAxisParameters(chart, conf);
+                setBulkRenderer(chart, conf, true);
+                break;
+            case "TimeSeriesScatterPlot":
+                chart = ChartFactory.createTimeSeriesChart(
+                        conf.getTitle(), getTimeAxisLabel(conf), conf.getRangeAxisLabel(), window(XYDataset, conf),
+                        conf.isGenerateLegend(), conf.isGenerateTooltips(), conf.isGenerateUrls());
+                XYLineAndShapeRenderer shapeRenderer = (XYLineAndShapeRenderer) ((XYPlot) chart.getPlot()).getRenderer();
+                shapeRenderer.setBaseLinesVisible(false);
+                shapeRenderer.setBaseShapesVisible(true);
+
+                setPlotAndNumberAxisParameters(chart, conf);
+                setBulkRenderer(chart, conf, false);
+                break;
+            case "Histogram":
+                chart = ChartFactory.createHistogram(
+                        conf.getTitle(), conf.getDomainAxisLabel(), conf.getRangeAxisLabel(),
+                        distributionDataset == null ? null : distributionDataset.createHistogramDataset(conf.getHistogramBins()),
                         conf.getOrientation(), conf.isGenerateLegend(), conf.isGenerateTooltips(), conf.isGenerateUrls());
 
                 setPlotAndNumberAxisParameters(chart, conf);
                 break;
+            case "BoxAndWhisker":
+                chart = ChartFactory.createBoxAndWhiskerChart(
+                        conf.getTitle(), conf.getCategoryAxisLabel(), conf.getValueAxisLabel(),
+                        distributionDataset == null ? null : distributionDataset.createBoxAndWhiskerDataset(""),
+                        conf.isGenerateLegend());
+                CategoryPlot boxPlot = (CategoryPlot) chart.getPlot();
+                OutlierBoxAndWhiskerRenderer boxRenderer = new OutlierBoxAndWhiskerRenderer();
+                boxRenderer.setBaseToolTipGenerator(boxPlot.getRenderer().getBaseToolTipGenerator());
+                boxPlot.setRenderer(boxRenderer);
+
+                setCategoryChartParameters(chart, conf);
+                break;
+            case "CandlestickChart":
+                chart = ChartFactory.createCandlestickChart(
+                        conf.getTitle(), getTimeAxisLabel(conf), conf.getRangeAxisLabel(), ohlcDataset,
+                        conf.isGenerateLegend());
+
+                setPlotAndNumberAxisParameters(chart, conf);
+                setOHLCParameters(chart, conf);
+                break;
+            case "HighLowChart":
+                chart = ChartFactory.createHighLowChart(
+                        conf.getTitle(), getTimeAxisLabel(conf), conf.getRangeAxisLabel(), ohlcDataset,
+                        conf.isGenerateLegend());
+
+                setPlotAndNumberAxisParameters(chart, conf);
+                setOHLCParameters(chart, conf);
+                break;
+            case "HeatMap":
+                chart = createHeatMap(XYZDataset, conf);
+
+                setPlotAndNumberAxisParameters(chart, conf);
+                setHeatMapParameters(chart, conf);
+                break;
             case "BubbleChart":
                 chart = ChartFactory.createBubbleChart(
                         conf.getTitle(), conf.getDomainAxisLabel(), conf.getRangeAxisLabel(), XYZDataset,
@@ -311,20 +619,211 @@ public class JFreeChartFactory {
                         + "RingChart SpiderWebChart StackedAreaChart StackedBarChart "
                         + "StackedBarChart3D WaterfallChart. "
                         + "XYDataset: ScatterPlot XYAreaChart XYBarChart XYLineChart. "
-                        + "XYZDataset: BubbleChart.");
+                        + "Time series: TimeSeriesChart TimeSeriesScatterPlot. "
+                        + "Distributions: BoxAndWhisker Histogram. "
+                        + "OHLC: CandlestickChart HighLowChart. "
+                        + "XYZDataset: BubbleChart HeatMap.");
 
         }
 
         setCommonParameters( chart, conf );
+        setParallelRenderer( chart, conf );
 
         return chart;
     }
     
     
+    /**
+     *  The label of the time axis of a time series chart, the domain axis
+     * label unless configured.
+     */
+    private static String getTimeAxisLabel(Configuration config) {
+        return config.getTimeAxisLabel() != null ? config.getTimeAxisLabel() : config.getDomainAxisLabel();
+    }
+
+    /**
+     *  Downsample the series of a line or area chart according to the
+     * decimation parameter: LTTB to a budget of two points per pixel along the
+     * domain axis, which is vertical in the horizontal orientation, or M4 to
+     * at most four points per pixel. M4 of a resident dataset reads the points
+     * from its index.
+     */
+    private static XYDataset decimate(XYDataset dataset, Configuration config) {
+        return decimate(dataset, config, config.getOrientation() == PlotOrientation.HORIZONTAL
+                ? config.getImageHeight() : config.getImageWidth());
+    }
+
+    /**
+     *  Downsample the series of a chart with a domain axis of the given
+     * length in pixels, like time series charts, which are always vertical.
+     */
+    private static XYDataset decimate(XYDataset dataset, Configuration config, int pixels) {
+        if (dataset == null || dataset instanceof XYSummaryDataset) {
+            // nothing to downsample, the items of streamed data are not held
+            return dataset;
+        }
+        if (dataset instanceof IndexedXYDataset && Configuration.DECIMATION_M4.equals(config.getDecimation())) {
+            Range window = getDomainWindow((IndexedXYDataset) dataset, config);
+            return window == null ? dataset
+                    : ((IndexedXYDataset) dataset).window(window.getLowerBound(), window.getUpperBound(), pixels);
+        }
+        dataset = window(dataset, config);
+        switch (config.getDecimation()) {
+            case Configuration.DECIMATION_LTTB:
+                return XYDecimator.lttb(dataset, 2 * pixels);
+            case Configuration.DECIMATION_M4:
+                return XYDecimator.m4(dataset, pixels,
+                        config.getDomainLowerBound(), config.getDomainUpperBound());
+            default:
+                return dataset;
+        }
+    }
+
+    /**
+     *  Restrict a resident dataset to the items within the domain bounds, found
+     * in its index. Other datasets are returned as they are.
+     */
+    private static XYDataset window(XYDataset dataset, Configuration config) {
+        if (!(dataset instanceof IndexedXYDataset)
+                || (config.getDomainLowerBound() == null && config.getDomainUpperBound() == null)) {
+            return dataset;
+        }
+        Range window = getDomainWindow((IndexedXYDataset) dataset, config);
+        return window == null ? dataset
+                : ((IndexedXYDataset) dataset).window(window.getLowerBound(), window.getUpperBound());
+    }
+
+    /**
+     *  The domain bounds of the configuration, the bounds of the data where
+     * not configured.
+     */
+    private static Range getDomainWindow(IndexedXYDataset dataset, Configuration config) {
+        Range bounds = dataset.getDomainBounds(false);
+        if (bounds == null) {
+            return null;
+        }
+        double lower = config.getDomainLowerBound() != null ? config.getDomainLowerBound() : bounds.getLowerBound();
+        double upper = config.getDomainUpperBound() != null ? config.getDomainUpperBound() : bounds.getUpperBound();
+        return upper >= lower ? new Range(lower, upper) : null;
+    }
+
+    /**
+     *  Replace the renderer of an XY plot by a bulk renderer, taking over the
+     * series appearance from the configured renderer.
+     */
+    private static void setBulkRenderer(JFreeChart chart, BulkXYRenderer renderer) {
+        XYPlot plot = (XYPlot) chart.getPlot();
+        XYItemRenderer configured = plot.getRenderer();
+        int seriesCount = plot.getDataset().getSeriesCount();
+        // series without a configured paint get theirs on first lookup: from the
+        // legend if there is one, otherwise in the rendering order of the plot
+        boolean reverse = chart.getLegend() == null
+                && plot.getSeriesRenderingOrder() == SeriesRenderingOrder.REVERSE;
+        for (int i = 0; i < seriesCount; i++) {
+            int series = reverse ? seriesCount - 1 - i : i;
+            renderer.setSeriesPaint(series, configured.getItemPaint(series, 0));
+            renderer.setSeriesStroke(series, configured.getItemStroke(series, 0));
+            if (configured instanceof XYDotRenderer) {
+                XYDotRenderer dotRenderer = (XYDotRenderer) configured;
+                renderer.setSeriesShape(series, new Rectangle2D.Double(
+                        -(dotRenderer.getDotWidth() - 1) / 2.0, -(dotRenderer.getDotHeight() - 1) / 2.0,
+                        dotRenderer.getDotWidth(), dotRenderer.getDotHeight()));
+            } else if (configured instanceof XYLineAndShapeRenderer && isOutlinedInPaint((XYLineAndShapeRenderer) configured, series)) {
+                // the shape as filled and outlined in the same paint
+                Area shape = new Area(configured.getItemShape(series, 0));
+                shape.add(new Area(configured.getItemOutlineStroke(series, 0).createStrokedShape(shape)));
+                renderer.setSeriesShape(series, shape.isRectangular() ? shape.getBounds2D() : shape);
+            } else {
+                renderer.setSeriesShape(series, configured.getItemShape(series, 0));
+            }
+        }
+        plot.setRenderer(renderer);
+    }
+
+    private static boolean isOutlinedInPaint(XYLineAndShapeRenderer renderer, int series) {
+        return renderer.getItemShapeFilled(series, 0) && renderer.getDrawOutlines()
+                && !renderer.getUseOutlinePaint() && !renderer.getUseFillPaint();
+    }
+
+    /**
+     *  Draw a line chart or scatter plot with the bulk renderer, a line chart
+     * with the path renderer, or a scatter plot with the raster renderer,
+     * when configured. The raster renderer draws vector images (SVG) as the
+     * bulk renderer. Streamed charts have their own renderer.
+     */
+    private static void setBulkRenderer(JFreeChart chart, Configuration config, boolean lines) {
+        if (((XYPlot) chart.getPlot()).getDataset() instanceof XYSummaryDataset) {
+            return;
+        }
+        String renderer = config.getRenderer();
+        if (Configuration.RENDERER_BULK.equals(renderer)) {
+            setBulkRenderer(chart, new BulkLineRenderer(lines));
+        } else if (Configuration.RENDERER_PATH.equals(renderer) && lines) {
+            setBulkRenderer(chart, new PathXYLineRenderer());
+        } else if (Configuration.RENDERER_RASTER.equals(renderer) && !lines) {
+            boolean vector = config.getImageType().toUpperCase().startsWith("SVG");
+            setBulkRenderer(chart, vector ? new BulkLineRenderer(false) : new RasterScatterRenderer());
+        }
+    }
+
+    /**
+     *  Draw the lines of a category line chart as one path per series when
+     * configured, before the series appearance is set.
+     */
+    private static void setPathRenderer(JFreeChart chart, Configuration config) {
+        if (!Configuration.RENDERER_PATH.equals(config.getRenderer())) {
+            return;
+        }
+        CategoryPlot plot = (CategoryPlot) chart.getPlot();
+        LineAndShapeRenderer configured = (LineAndShapeRenderer) plot.getRenderer();
+        PathLineAndShapeRenderer renderer = new PathLineAndShapeRenderer(
+                configured.getBaseLinesVisible(), configured.getBaseShapesVisible());
+        renderer.setBaseToolTipGenerator(configured.getBaseToolTipGenerator());
+        renderer.setBaseItemURLGenerator(configured.getBaseItemURLGenerator());
+        plot.setRenderer(renderer);
+    }
+
+    /**
+     *  Draw the series of an XY chart in parallel raster layers when
+     * configured, after the series appearance is set. Only line, shape and
+     * dot renderers are drawn in parallel, as they keep the state of a
+     * drawing in the renderer state, not in the renderer; others, e.g. the
+     * candlestick renderer, are drawn serially. Bulk renderers draw the
+     * whole dataset at once already, vector images (SVG) are drawn serially.
+     */
+    private static void setParallelRenderer(JFreeChart chart, Configuration config) {
+        if (!config.isParallelLayers() || !(chart.getPlot() instanceof XYPlot)
+                || config.getImageType().toUpperCase().startsWith("SVG")) {
+            return;
+        }
+        XYPlot plot = (XYPlot) chart.getPlot();
+        // exact classes: subclasses may keep drawing state in fields
+        Class<?> rendererClass = plot.getRenderer() == null ? null : plot.getRenderer().getClass();
+        if (rendererClass == XYLineAndShapeRenderer.class || rendererClass == XYDotRenderer.class) {
+            plot.setRenderer(new ParallelLayerRenderer((AbstractXYItemRenderer) plot.getRenderer(),
+                    ForkJoinPool.getCommonPoolParallelism()));
+        }
+    }
+
+    /**
+     *  Draw the points of a scatter plot as a density, according to the
+     * density parameter.
+     */
+    private static void setDensityRenderer(JFreeChart chart, Configuration config) throws XPathException {
+        if (Configuration.DENSITY_NONE.equals(config.getDensity())
+                || ((XYPlot) chart.getPlot()).getDataset() instanceof XYSummaryDataset) {
+            return;
+        }
+        boolean hexagonal = Configuration.DENSITY_HEXBIN.equals(config.getDensity());
+        ((XYPlot) chart.getPlot()).setRenderer(
+                new DensityRenderer(hexagonal, config.getDensityBinSize(), config.getColorRamp()));
+    }
+
     private static void setCategoryChartParameters(JFreeChart chart, Configuration config) throws XPathException {
 	       setPlotAndNumberAxisParameters(chart, config);
         setCategoryRange(chart, config);
         setCategoryItemLabelGenerator(chart, config);
+        setCategoryLabelThinning(chart, config);
         setCategoryLabelPositions(chart, config);
         setSeriesColors(chart, config);
         setAxisColors(chart, config);
@@ -418,6 +917,10 @@ public class JFreeChartFactory {
 		domainAxis.setAutoRangeIncludesZero(config.isDomainAutoRangeIncludesZero());
 	    }
 
+	    if (XYPlot.getDomainAxis() instanceof DateAxis) {
+		setTimeAxisParameters((DateAxis) XYPlot.getDomainAxis(), config);
+	    }
+
 	    if (XYPlot.getRangeAxis() instanceof NumberAxis) {
 		NumberAxis rangeAxis = (NumberAxis) XYPlot.getRangeAxis();
 		Double rangeLowerBound = config.getRangeLowerBound();
@@ -464,6 +967,116 @@ public class JFreeChartFactory {
         }
     }
 
+    /**
+     *  Set the bounds and margins of the domain and the colour of the time
+     * axis of a time series chart. The bounds are in milliseconds since the
+     * epoch.
+     */
+    private static void setTimeAxisParameters(DateAxis timeAxis, Configuration config) {
+        Double domainLowerBound = config.getDomainLowerBound();
+        Double domainUpperBound = config.getDomainUpperBound();
+        Double domainLowerMargin = config.getDomainLowerMargin();
+        Double domainUpperMargin = config.getDomainUpperMargin();
+
+        if (domainUpperBound != null) {
+            timeAxis.setUpperBound(domainUpperBound);
+        }
+        if (domainLowerBound != null) {
+            timeAxis.setLowerBound(domainLowerBound);
+        }
+
+        if (domainLowerMargin != null) {
+            timeAxis.setLowerMargin(domainLowerMargin);
+        }
+        if (domainUpperMargin != null) {
+            timeAxis.setUpperMargin(domainUpperMargin);
+        }
+
+        if (config.getTimeAxisColor() != null) {
+            timeAxis.setLabelPaint(config.getTimeAxisColor());
+        }
+    }
+
+    /**
+     *  Create a heat map of the cells of an XYZ dataset or a matrix, with the
+     * colour ramp spanning the configured bounds or the z values. The legend
+     * is a colour bar on the right, shown unless the legend is turned off, and
+     * x runs horizontally unless an orientation is configured.
+     */
+    private static JFreeChart createHeatMap(XYZDataset dataset, Configuration config) throws XPathException {
+        Range zBounds = null;
+        if (dataset instanceof MatrixDataset) {
+            zBounds = ((MatrixDataset) dataset).getZBounds();
+        } else if (dataset instanceof ArrayXYZDataset) {
+            zBounds = ((ArrayXYZDataset) dataset).getZBounds();
+        } else if (dataset != null) {
+            zBounds = DatasetUtilities.findZBounds(dataset, false);
+        }
+        double lower = config.getPaintScaleLowerBound() != null ? config.getPaintScaleLowerBound()
+                : zBounds != null ? zBounds.getLowerBound() : 0.0;
+        double upper = config.getPaintScaleUpperBound() != null ? config.getPaintScaleUpperBound()
+                : zBounds != null ? zBounds.getUpperBound() : 1.0;
+        ColourRampPaintScale scale = new ColourRampPaintScale(config.getColorRamp(), lower, Math.max(lower, upper));
+
+        NumberAxis xAxis = new NumberAxis(config.getDomainAxisLabel());
+        NumberAxis yAxis = new NumberAxis(config.getRangeAxisLabel());
+        xAxis.setLowerMargin(0.0);
+        xAxis.setUpperMargin(0.0);
+        yAxis.setLowerMargin(0.0);
+        yAxis.setUpperMargin(0.0);
+        HeatMapRenderer renderer = dataset == null ? new HeatMapRenderer(scale, 1.0, 1.0)
+                : new HeatMapRenderer(scale, HeatMapRenderer.findCellSize(dataset, true),
+                        HeatMapRenderer.findCellSize(dataset, false));
+        XYPlot plot = new XYPlot(dataset, xAxis, yAxis, renderer);
+        if (config.getParameters().containsKey("orientation")) {
+            plot.setOrientation(config.getOrientation());
+        }
+        plot.setDomainGridlinesVisible(false);
+        plot.setRangeGridlinesVisible(false);
+        JFreeChart chart = new JFreeChart(config.getTitle(), JFreeChart.DEFAULT_TITLE_FONT, plot, false);
+
+        if (config.isGenerateLegend() || !config.getParameters().containsKey("legend")) {
+            NumberAxis scaleAxis = new NumberAxis();
+            scaleAxis.setRange(scale.getLowerBound(), scale.getUpperBound() > scale.getLowerBound()
+                    ? scale.getUpperBound() : scale.getLowerBound() + 1.0);
+            PaintScaleLegend legend = new PaintScaleLegend(scale, scaleAxis);
+            legend.setPosition(RectangleEdge.RIGHT);
+            legend.setMargin(new RectangleInsets(4, 4, 4, 4));
+            legend.setSubdivisionCount(128);
+            chart.addSubtitle(legend);
+        }
+        return chart;
+    }
+
+    /**
+     *  Leave zero out of the axes of a heat map unless configured, as the
+     * cells span the data only.
+     */
+    private static void setHeatMapParameters(JFreeChart chart, Configuration config) {
+        XYPlot plot = (XYPlot) chart.getPlot();
+        excludeZero(plot.getDomainAxis(), config, "domainAutoRangeIncludesZero");
+        excludeZero(plot.getRangeAxis(), config, "rangeAutoRangeIncludesZero");
+    }
+
+    private static void excludeZero(ValueAxis axis, Configuration config, String parameter) {
+        if (!config.getParameters().containsKey(parameter) && axis instanceof NumberAxis) {
+            ((NumberAxis) axis).setAutoRangeIncludesZero(false);
+        }
+    }
+
+    /**
+     *  Leave zero out of the range of OHLC bars, as prices rarely come near
+     * it, unless configured, and draw volumes only when the ticks had any.
+     */
+    private static void setOHLCParameters(JFreeChart chart, Configuration config) {
+        XYPlot plot = (XYPlot) chart.getPlot();
+        excludeZero(plot.getRangeAxis(), config, "rangeAutoRangeIncludesZero");
+        if (plot.getRenderer() instanceof CandlestickRenderer) {
+            ((CandlestickRenderer) plot.getRenderer()).setDrawVolume(
+                    plot.getDataset() instanceof ArrayOHLCDataset && ((ArrayOHLCDataset) plot.getDataset()).hasVolume());
+        }
+    }
+
     private static void setRenderer(JFreeChart chart, Configuration config) {
         if (chart.getPlot() instanceof CategoryPlot && config.isOnlyShape()) {
             CategoryItemRenderer renderer = new LineAndShapeRenderer(false, true);
@@ -554,6 +1167,19 @@ public class JFreeChartFactory {
         }
     }
     
+    /**
+     *  Replace the category axis by one labelling every k-th category only,
+     * keeping its settings. 3D and sub-category axes are left as they are.
+     */
+    private static void setCategoryLabelThinning(JFreeChart chart, Configuration config) {
+        if (config.isCategoryLabelThinning() && chart.getPlot() instanceof CategoryPlot) {
+            CategoryPlot plot = (CategoryPlot) chart.getPlot();
+            if (plot.getDomainAxis() != null && plot.getDomainAxis().getClass() == CategoryAxis.class) {
+                plot.setDomainAxis(new ThinningCategoryAxis(plot.getDomainAxis()));
+            }
+        }
+    }
+
     private static void setCategoryLabelPositions(JFreeChart chart, Configuration config) {
         CategoryLabelPositions positions = config.getCategoryLabelPositions();
         if (chart.getPlot() instanceof CategoryPlot) {
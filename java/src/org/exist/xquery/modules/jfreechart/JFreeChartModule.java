@@ -21,6 +21,8 @@
  */
 package org.exist.xquery.modules.jfreechart;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import org.exist.dom.QName;
@@ -44,18 +46,66 @@ public class JFreeChartModule extends AbstractInternalModule {
     public final static FunctionDef[] functions = {
         new FunctionDef(JFreeCharting.signatures[0], JFreeCharting.class),
         new FunctionDef(JFreeCharting.signatures[1], JFreeCharting.class),
+        new FunctionDef(DatasetFunctions.signatures[0], DatasetFunctions.class),
+        new FunctionDef(DatasetFunctions.signatures[1], DatasetFunctions.class),
+        new FunctionDef(DatasetFunctions.signatures[2], DatasetFunctions.class),
+        new FunctionDef(DatasetFunctions.signatures[3], DatasetFunctions.class),
+        new FunctionDef(TileFunctions.signatures[0], TileFunctions.class),
+        new FunctionDef(AggregateFunction.signatures[0], AggregateFunction.class),
+        new FunctionDef(AggregateFunction.signatures[1], AggregateFunction.class),
     };
 
+    /**
+     * Module parameter holding the directory of the data files, e.g. of
+     * jfreechart:mapped-dataset. Defaults to a directory in java.io.tmpdir.
+     */
+    public final static String DATA_DIRECTORY_PARAM = "data-directory";
+
     public final static QName EXCEPTION_QNAME =
             new QName("exception", JFreeChartModule.NAMESPACE_URI, JFreeChartModule.PREFIX);
     
     public final static QName EXCEPTION_MESSAGE_QNAME =
             new QName("exception-message", JFreeChartModule.NAMESPACE_URI, JFreeChartModule.PREFIX);
 
+    private final Path dataDirectory;
+
     public JFreeChartModule(Map<String, List<? extends Object>> parameters) throws XPathException {
         super(functions, parameters);
         declareVariable(EXCEPTION_QNAME, null);
         declareVariable(EXCEPTION_MESSAGE_QNAME, null);
+
+        List<? extends Object> directory = getParameter(DATA_DIRECTORY_PARAM);
+        if (directory != null && !directory.isEmpty()) {
+            dataDirectory = Paths.get(directory.get(0).toString()).toAbsolutePath().normalize();
+        } else {
+            dataDirectory = Paths.get(System.getProperty("java.io.tmpdir"), PREFIX);
+        }
+    }
+
+    /**
+     * Get the directory of the data files.
+     *
+     * @return The data directory.
+     */
+    public Path getDataDirectory() {
+        return dataDirectory;
+    }
+
+    /**
+     * Resolve the name of a data file against the data directory. Only plain
+     * file names are accepted, so queries cannot read outside the directory.
+     *
+     * @param name The file name.
+     * @return The path of the file, or null when the name is not a plain
+     * file name.
+     */
+    public Path getDataFile(String name) {
+        if (name.isEmpty() || name.startsWith(".")
+                || name.indexOf('/') >= 0 || name.indexOf('\\') >= 0) {
+            return null;
+        }
+        Path file = dataDirectory.resolve(name).normalize();
+        return dataDirectory.equals(file.getParent()) ? file : null;
     }
 
     @Override
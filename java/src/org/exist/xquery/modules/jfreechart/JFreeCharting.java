@@ -20,10 +20,16 @@
  */
 package org.exist.xquery.modules.jfreechart;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
@@ -33,23 +39,33 @@ import org.exist.storage.serializers.Serializer;
 import org.exist.validation.internal.node.NodeInputStream;
 import org.exist.xquery.BasicFunction;
 import org.exist.xquery.Cardinality;
+import org.exist.xquery.Expression;
 import org.exist.xquery.FunctionSignature;
 import org.exist.xquery.Variable;
 import org.exist.xquery.XPathException;
 import org.exist.xquery.XQueryContext;
+import org.exist.xquery.functions.map.AbstractMapType;
 import org.exist.xquery.functions.response.ResponseModule;
+import org.exist.xquery.modules.jfreechart.data.DelimitedDatasetReader;
+import org.exist.xquery.modules.jfreechart.data.MapDatasetReader;
+import org.exist.xquery.modules.jfreechart.data.PackedDatasetReader;
+import org.exist.xquery.modules.jfreechart.data.XYItemSource;
 import org.exist.xquery.modules.jfreechart.render.Renderer;
 import org.exist.xquery.modules.jfreechart.render.RendererFactory;
 import org.exist.xquery.value.Base64BinaryValueType;
+import org.exist.xquery.value.BinaryValue;
 import org.exist.xquery.value.BinaryValueFromInputStream;
 import org.exist.xquery.value.FunctionParameterSequenceType;
 import org.exist.xquery.value.FunctionReturnSequenceType;
+import org.exist.xquery.value.Item;
 import org.exist.xquery.value.JavaObjectValue;
 import org.exist.xquery.value.NodeValue;
 import org.exist.xquery.value.Sequence;
 import org.exist.xquery.value.SequenceType;
 import org.exist.xquery.value.Type;
 import org.jfree.chart.JFreeChart;
+import org.jfree.data.general.Dataset;
+import org.jfree.data.xml.ArrayDatasetReader;
 
 
 
@@ -81,21 +97,52 @@ public class JFreeCharting extends BasicFunction {
 	"RingChart SpiderWebChart StackedAreaChart StackedBarChart " +
 	"StackedBarChart3D WaterfallChart. " +
 	"XYDataset: ScatterPlot XYAreaChart XYBarChart XYLineChart. " +
-	"XYZDataset: BubbleChart. ";
+	"Time series: TimeSeriesChart TimeSeriesScatterPlot. " +
+	"Distributions: BoxAndWhisker Histogram. " +
+	"OHLC: CandlestickChart HighLowChart. " +
+	"XYZDataset: BubbleChart HeatMap. ";
     // see wiki? /ljo
     private static final String parametersText="The configuration for the chart.  The " +
             "configuration should be supplied as follows: <configuration>"+
-            "<param1>Value1</param1><param2>Value2</param2>/<configuration>.  " +
+            "<param1>Value1</param1><param2>Value2</param2>/<configuration>, or as a map: " +
+            "map { \"param1\": \"Value1\", \"param2\": \"Value2\" }.  " +
             "Supported parameters: width height title categoryAxisLabel timeAxisLabel " +
             "valueAxisLabel domainAxisLabel rangeAxisLabel pieSectionLabel pieSectionNumberFormat pieSectionPercentFormat orientation " +
             "titleColor chartBackgroundColor plotBackgroundColor rangeLowerBound rangeUpperBound categoryItemLabelGeneratorClass seriesColors sectionColors sectionColorsDelimiter " +
-	    "categoryAxisColor valueAxisColor timeAxisColor " +
+	    "categoryAxisColor valueAxisColor timeAxisColor categoryLabelThinning " +
 	    "order legend tooltips urls " +
 	    "domainLowerMargin domainUpperMargin foregroundAlpha dotHeight dotWidth " +
 	    "useDomainSymbolAxis useDomainNumberAxis domainGridbandsVisible useRangeSymbolAxis rangeGridbandsVisible lineWidth " +
 	    "outlineVisible pieSectionOutlineVisible domainGridlinesVisible rangeGridlinesVisible lineWidth " +
 	    "onlyShape rangeAutoRangeIncludesZero domainAutoRangeIncludesZero " +
-	    "rangeZeroBaselineVisible domainZeroBaselineVisible rangeIntegerTickUnits domainIntegerTickUnits ";
+	    "rangeZeroBaselineVisible domainZeroBaselineVisible rangeIntegerTickUnits domainIntegerTickUnits " +
+	    "csvDelimiter csvHeader csvSeriesColumn csvValueColumns decimation density densityBinSize colorRamp paintScaleLowerBound paintScaleUpperBound histogramBins ohlcPeriod topN topNMinShare otherLabel transforms streaming renderer parallelLayers staticLayerCache ";
+
+    private static final String dataText="The chart data: the CategoryDataset, PieDataset, XYDataset " +
+            "or XYZDataset supplied as JFreechart XML, or delimited text (CSV, TSV) supplied " +
+            "as xs:string or binary. Delimited text is read according to the csv* parameters " +
+            "of the configuration. XYDataset and XYZDataset can also be supplied as binary " +
+            "holding packed little-endian double or float columns, starting with the 'JFCB' header, " +
+            "or as a dataset handle, e.g. from jfreechart:mapped-dataset or jfreechart:register-dataset, " +
+            "or a CategoryDataset handle from jfreechart:aggregate, which pie charts read by its first row. " +
+            "Finally the data can be " +
+            "supplied as a map: map { key: value } for PieDataset, map { row: map { column: value } } " +
+            "for CategoryDataset and map { series: [ x-values, y-values (, z-values) ] } for XYDataset " +
+            "and XYZDataset. A HeatMap can also be supplied as a matrix, map { series: [ [ row-values ], ... ] }, " +
+            "with the column index as x-value and the row index as y-value. Map entries are read in key order; an array of maps keeps the array order. " +
+            "Time series are read as XYDataset with points in time as x-values: xs:dateTime or xs:date " +
+            "values, or milliseconds since the epoch; packed binary holds the milliseconds. " +
+            "Distributions are read from raw values: the values of the items of CategoryDataset XML, " +
+            "value columns of delimited text or map { series: values }, sketched while they are read. " +
+            "OHLC charts are read from ticks, as time series with an optional volume column " +
+            "(map { series: [ times, values, volumes ] }), bucketed into bars of ohlcPeriod while they are read. " +
+            "With topN or topNMinShare only the largest pie sections, series, or categories of a single " +
+            "series are kept, the rest folded into one entry named otherLabel ('Other'). " +
+            "The transforms parameter runs a pipeline over the series of XY and time series data, " +
+            "e.g. 'resample(PT1M) movingAverage(5)', with the steps movingAverage(n), movingMedian(n), " +
+            "cumulativeSum, rate or rate(unit) and resample(width); units and widths are numbers or durations. " +
+            "With the streaming parameter and no transforms, XML and delimited text for XYLineChart and ScatterPlot are " +
+            "read twice, for the axes and while drawing, without holding the items.";
 
     // barWidth useYInterval (no effect with current datasets) /ljo
 
@@ -106,9 +153,8 @@ public class JFreeCharting extends BasicFunction {
             function1Txt,
             new SequenceType[]{
                 new FunctionParameterSequenceType("chart-type", Type.STRING, Cardinality.EXACTLY_ONE, chartText),
-                new FunctionParameterSequenceType("configuration", Type.NODE, Cardinality.EXACTLY_ONE, parametersText),
-                new FunctionParameterSequenceType("data", Type.NODE, Cardinality.EXACTLY_ONE,
-                        "The CategoryDataset or PieDataset, supplied as JFreechart XML.")
+                new FunctionParameterSequenceType("configuration", Type.ITEM, Cardinality.EXACTLY_ONE, parametersText),
+                new FunctionParameterSequenceType("data", Type.ITEM, Cardinality.EXACTLY_ONE, dataText)
             },
             new FunctionReturnSequenceType(Type.BASE64_BINARY, Cardinality.ZERO_OR_ONE, "the generated PNG image file")
         ),
@@ -118,9 +164,8 @@ public class JFreeCharting extends BasicFunction {
             function2Txt,
             new SequenceType[]{
                 new FunctionParameterSequenceType("chart-type", Type.STRING, Cardinality.EXACTLY_ONE, chartText),
-                new FunctionParameterSequenceType("configuration", Type.NODE, Cardinality.EXACTLY_ONE, parametersText),
-                new FunctionParameterSequenceType("data", Type.NODE, Cardinality.EXACTLY_ONE,
-                        "The CategoryDataset or PieDataset, supplied as JFreechart XML.")
+                new FunctionParameterSequenceType("configuration", Type.ITEM, Cardinality.EXACTLY_ONE, parametersText),
+                new FunctionParameterSequenceType("data", Type.ITEM, Cardinality.EXACTLY_ONE, dataText)
             },
             new SequenceType(Type.EMPTY, Cardinality.EMPTY)
         )
@@ -143,19 +188,21 @@ public class JFreeCharting extends BasicFunction {
             String chartType = args[0].getStringValue();
             
             // Get configuration
-            Configuration config = new Configuration();
-            config.parse(((NodeValue)args[1].itemAt(0)).getNode());
+            Configuration config = readConfiguration(this, args[1].itemAt(0));
 
-            // Get datastream
-            Serializer serializer=context.getBroker().getSerializer();
+            // Get dataset, or stream the data when rendering; transforms and
+            // folding into Other need the items
+            XYItemSource source = config.isStreaming() && config.getTransforms().isEmpty()
+                    && config.getTopN() == 0 && config.getTopNMinShare() == 0
+                    ? getItemSource(config, args[2].itemAt(0)) : null;
+            Dataset dataset = source == null ? readDataset(context, this, chartType, config, args[2].itemAt(0)) : null;
 
-            NodeValue node = (NodeValue) args[2].itemAt(0);
-            InputStream is = new NodeInputStream(serializer, node);
-            
             // get chart
             JFreeChart chart = null;
             try {
-                chart = JFreeChartFactory.createJFreeChart(chartType, config, is);
+                chart = source == null
+                        ? JFreeChartFactory.createJFreeChart(chartType, config, dataset)
+                        : JFreeChartFactory.createStreamingChart(chartType, config, source);
 
             } catch (IllegalArgumentException ex){
                 throw new XPathException(this, ex.getMessage());
@@ -186,11 +233,138 @@ public class JFreeCharting extends BasicFunction {
         } catch (IOException ex) {
             LOG.error(ex);
             throw new XPathException(this, ex.getMessage());
+
+        } catch (UncheckedIOException ex) {
+            // streamed data failing while the chart is drawn
+            LOG.error(ex);
+            throw new XPathException(this, ex.getCause().getMessage());
         }
 
         return Sequence.EMPTY_SEQUENCE;
     }
 
+    /**
+     *  Read the configuration argument, either a configuration element or a map.
+     *
+     * @throws XPathException Thrown when the configuration has an unsupported type
+     * or an invalid value.
+     */
+    static Configuration readConfiguration(Expression expression, Item configuration) throws XPathException {
+        Configuration config = new Configuration();
+        if (configuration.getType() == Type.MAP) {
+            config.parse((AbstractMapType) configuration);
+
+        } else if (Type.subTypeOf(configuration.getType(), Type.NODE)) {
+            config.parse(((NodeValue) configuration).getNode());
+
+        } else {
+            throw new XPathException(expression, "Unsupported type of chart configuration: " + Type.getTypeName(configuration.getType()));
+        }
+        return config;
+    }
+
+    /**
+     *  Read the dataset from the data argument, either JFreeChart XML,
+     * packed binary columns, delimited text, maps and arrays or a dataset handle.
+     *
+     * @throws XPathException Thrown when the data item has an unsupported type.
+     * @throws IOException Thrown when the data cannot be read.
+     */
+    static Dataset readDataset(XQueryContext context, Expression expression, String chartType,
+            Configuration config, Item data) throws XPathException, IOException {
+
+        if (Type.subTypeOf(data.getType(), Type.NODE)) {
+            Serializer serializer = context.getBroker().getSerializer();
+            InputStream is = new NodeInputStream(serializer, (NodeValue) data);
+            return JFreeChartFactory.readXMLDataset(chartType, config, is);
+        }
+
+        if (data.getType() == Type.MAP || data.getType() == Type.ARRAY) {
+            return new MapDatasetReader(config.getOhlcPeriod()).read(DatasetType.forChartType(chartType), data);
+        }
+
+        if (data.getType() == Type.JAVA_OBJECT
+                && ((JavaObjectValue) data).getObject() instanceof Dataset) {
+            return (Dataset) ((JavaObjectValue) data).getObject();
+        }
+
+        Reader reader;
+        if (data instanceof BinaryValue) {
+            InputStream is = new BufferedInputStream(((BinaryValue) data).getInputStream());
+            if (PackedDatasetReader.isPacked(is)) {
+                DatasetType datasetType = DatasetType.forChartType(chartType);
+                if (datasetType != DatasetType.XY && datasetType != DatasetType.TIME_SERIES
+                        && datasetType != DatasetType.XYZ) {
+                    IOUtils.closeQuietly(is);
+                    throw new XPathException(expression, "Packed binary data is only supported for XYDataset, time series and XYZDataset chart types");
+                }
+                try {
+                    return PackedDatasetReader.read(is);
+                } finally {
+                    IOUtils.closeQuietly(is);
+                }
+            }
+            reader = new InputStreamReader(is, StandardCharsets.UTF_8);
+        } else if (Type.subTypeOf(data.getType(), Type.STRING)) {
+            reader = new StringReader(data.getStringValue());
+        } else {
+            throw new XPathException(expression, "Unsupported type of chart data: " + Type.getTypeName(data.getType()));
+        }
+
+        DelimitedDatasetReader delimitedReader = new DelimitedDatasetReader(config.getCsvDelimiter(),
+                config.isCsvHeader(), config.getCsvSeriesColumn(), config.getCsvValueColumns(), config.getOhlcPeriod());
+        try {
+            return delimitedReader.read(DatasetType.forChartType(chartType), reader);
+        } finally {
+            IOUtils.closeQuietly(reader);
+        }
+    }
+
+    /**
+     *  Get the data argument as XY items streamed anew on every pass, for
+     * JFreeChart XML and delimited text. Other data, like packed binary
+     * columns, is not streamed.
+     *
+     * @return The source, or null when the data is not streamed.
+     * @throws XPathException Thrown when the string value cannot be read.
+     * @throws IOException Thrown when binary data cannot be read.
+     */
+    private XYItemSource getItemSource(Configuration config, Item data) throws XPathException, IOException {
+
+        if (Type.subTypeOf(data.getType(), Type.NODE)) {
+            Serializer serializer = context.getBroker().getSerializer();
+            return sink -> {
+                try (InputStream is = new NodeInputStream(serializer, (NodeValue) data)) {
+                    ArrayDatasetReader.streamXYDatasetFromXML(is, sink);
+                }
+            };
+        }
+
+        DelimitedDatasetReader delimitedReader = new DelimitedDatasetReader(config.getCsvDelimiter(),
+                config.isCsvHeader(), config.getCsvSeriesColumn(), config.getCsvValueColumns());
+
+        if (data instanceof BinaryValue) {
+            BinaryValue binary = (BinaryValue) data;
+            try (InputStream is = new BufferedInputStream(binary.getInputStream())) {
+                if (PackedDatasetReader.isPacked(is)) {
+                    return null;
+                }
+            }
+            return sink -> {
+                try (Reader reader = new InputStreamReader(binary.getInputStream(), StandardCharsets.UTF_8)) {
+                    delimitedReader.streamXY(reader, sink);
+                }
+            };
+        }
+
+        if (Type.subTypeOf(data.getType(), Type.STRING)) {
+            String text = data.getStringValue();
+            return sink -> delimitedReader.streamXY(new StringReader(text), sink);
+        }
+
+        return null;
+    }
+
     /**
      *  Get HTTP response wrapper which provides access to the servlet
      * outputstream.
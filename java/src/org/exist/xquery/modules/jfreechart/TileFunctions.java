@@ -0,0 +1,121 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.exist.dom.QName;
+import org.exist.xquery.BasicFunction;
+import org.exist.xquery.Cardinality;
+import org.exist.xquery.FunctionSignature;
+import org.exist.xquery.XPathException;
+import org.exist.xquery.XQueryContext;
+import org.exist.xquery.modules.jfreechart.data.IndexedXYDataset;
+import org.exist.xquery.modules.jfreechart.data.ResidentDatasets;
+import org.exist.xquery.modules.jfreechart.render.Renderer;
+import org.exist.xquery.modules.jfreechart.render.RendererFactory;
+import org.exist.xquery.modules.jfreechart.render.TileCache;
+import org.exist.xquery.value.Base64BinaryValueType;
+import org.exist.xquery.value.BinaryValueFromInputStream;
+import org.exist.xquery.value.FunctionParameterSequenceType;
+import org.exist.xquery.value.FunctionReturnSequenceType;
+import org.exist.xquery.value.IntegerValue;
+import org.exist.xquery.value.Sequence;
+import org.exist.xquery.value.SequenceType;
+import org.exist.xquery.value.Type;
+import org.jfree.chart.JFreeChart;
+
+/**
+ * Renders tiles of XY charts of resident datasets, for zooming and panning
+ * like a map. Rendered tiles are cached.
+ */
+public class TileFunctions extends BasicFunction {
+
+    protected static final Logger logger = LogManager.getLogger(TileFunctions.class);
+
+    private static final TileCache cache = new TileCache(TileCache.DEFAULT_CAPACITY);
+
+    public final static FunctionSignature signatures[] = {
+
+        new FunctionSignature(
+            new QName("render-tile", JFreeChartModule.NAMESPACE_URI, JFreeChartModule.PREFIX),
+            "Render a tile of an XY chart of a dataset kept resident by register-dataset. At zoom " +
+            "level z the domain of the dataset is split into 2^z tiles of the configured width and " +
+            "height. All tiles share the range of the whole dataset, unless rangeLowerBound and " +
+            "rangeUpperBound are configured, and show only the data area, so neighbouring tiles " +
+            "join up. The most recently used tiles are cached.",
+            new SequenceType[]{
+                new FunctionParameterSequenceType("chart-type", Type.STRING, Cardinality.EXACTLY_ONE,
+                        "The type of chart: ScatterPlot XYAreaChart XYBarChart XYLineChart."),
+                new FunctionParameterSequenceType("configuration", Type.ITEM, Cardinality.EXACTLY_ONE,
+                        "The configuration for the chart, as for render."),
+                new FunctionParameterSequenceType("name", Type.STRING, Cardinality.EXACTLY_ONE,
+                        "The name of the resident dataset."),
+                new FunctionParameterSequenceType("zoom", Type.INTEGER, Cardinality.EXACTLY_ONE,
+                        "The zoom level, 0 to 30."),
+                new FunctionParameterSequenceType("tile", Type.INTEGER, Cardinality.EXACTLY_ONE,
+                        "The index of the tile along the domain, 0 to 2^zoom - 1.")
+            },
+            new FunctionReturnSequenceType(Type.BASE64_BINARY, Cardinality.EXACTLY_ONE, "the tile image")
+        )
+    };
+
+    public TileFunctions(XQueryContext context, FunctionSignature signature) {
+        super(context, signature);
+    }
+
+    @Override
+    public Sequence eval(Sequence[] args, Sequence contextSequence) throws XPathException {
+        String chartType = args[0].getStringValue();
+        Configuration config = JFreeCharting.readConfiguration(this, args[1].itemAt(0));
+        String name = args[2].getStringValue();
+        long zoom = ((IntegerValue) args[3].itemAt(0)).getLong();
+        long tile = ((IntegerValue) args[4].itemAt(0)).getLong();
+
+        IndexedXYDataset dataset = ResidentDatasets.get(name);
+        if (dataset == null) {
+            throw new XPathException(this, "No resident dataset: " + name);
+        }
+        if (zoom < 0 || zoom > 30) {
+            throw new XPathException(this, "Zoom level out of range: " + zoom);
+        }
+
+        String key = chartType + '\u0000' + name + '\u0000' + zoom + '\u0000' + tile
+                + '\u0000' + config.getParameters();
+        byte[] image = cache.get(key, dataset);
+        if (image == null) {
+            JFreeChart chart = JFreeChartFactory.createTileChart(chartType, config, dataset, (int) zoom, tile);
+            Renderer renderer = RendererFactory.getRenderer(config.getImageType());
+            try {
+                image = renderer.render(chart, config);
+
+            } catch (IOException ex) {
+                logger.error(ex);
+                throw new XPathException(this, ex.getMessage());
+            }
+            cache.put(key, dataset, image);
+        }
+
+        return BinaryValueFromInputStream.getInstance(context, new Base64BinaryValueType(), new ByteArrayInputStream(image));
+    }
+}
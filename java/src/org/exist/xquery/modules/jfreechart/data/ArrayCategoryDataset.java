@@ -0,0 +1,182 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.general.AbstractDataset;
+
+/**
+ * A category dataset which keeps the values of each row in a primitive
+ * double array, with hashed key-to-index maps for rows and columns. Missing
+ * values are stored as NaN.
+ */
+public class ArrayCategoryDataset extends AbstractDataset implements CategoryDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private final List<Comparable> rowKeys = new ArrayList<>();
+    private final Map<Comparable, Integer> rowIndexes = new HashMap<>();
+    private final List<Comparable> columnKeys = new ArrayList<>();
+    private final Map<Comparable, Integer> columnIndexes = new HashMap<>();
+    private final List<DoubleList> rows = new ArrayList<>();
+
+    /**
+     * Get the index of a row, adding the row when the key is new.
+     *
+     * @param rowKey The row key.
+     * @return The row index.
+     */
+    public int addRowKey(Comparable rowKey) {
+        if (rowKey == null) {
+            throw new IllegalArgumentException("Null 'rowKey' argument.");
+        }
+        Integer index = rowIndexes.get(rowKey);
+        if (index == null) {
+            index = rowKeys.size();
+            rowIndexes.put(rowKey, index);
+            rowKeys.add(rowKey);
+            rows.add(new DoubleList());
+        }
+        return index;
+    }
+
+    /**
+     * Get the index of a column, adding the column when the key is new.
+     *
+     * @param columnKey The column key.
+     * @return The column index.
+     */
+    public int addColumnKey(Comparable columnKey) {
+        if (columnKey == null) {
+            throw new IllegalArgumentException("Null 'columnKey' argument.");
+        }
+        Integer index = columnIndexes.get(columnKey);
+        if (index == null) {
+            index = columnKeys.size();
+            columnIndexes.put(columnKey, index);
+            columnKeys.add(columnKey);
+        }
+        return index;
+    }
+
+    /**
+     * Set a value by row and column index. No change event is sent, as the
+     * dataset is filled before it is handed to a plot.
+     *
+     * @param row The row index, see {@link #addRowKey(Comparable)}.
+     * @param column The column index, see {@link #addColumnKey(Comparable)}.
+     * @param value The value, NaN when missing.
+     */
+    public void setValue(int row, int column, double value) {
+        rows.get(row).set(column, value);
+    }
+
+    /**
+     * Set a value by row and column key, adding keys that are new.
+     *
+     * @param value The value, NaN when missing.
+     * @param rowKey The row key.
+     * @param columnKey The column key.
+     */
+    public void setValue(double value, Comparable rowKey, Comparable columnKey) {
+        setValue(addRowKey(rowKey), addColumnKey(columnKey), value);
+    }
+
+    /**
+     * Get a value as a primitive.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @return The value, NaN when missing.
+     */
+    public double getDoubleValue(int row, int column) {
+        DoubleList values = rows.get(row);
+        return column < values.size() ? values.get(column) : Double.NaN;
+    }
+
+    @Override
+    public Comparable getRowKey(int row) {
+        return rowKeys.get(row);
+    }
+
+    @Override
+    public int getRowIndex(Comparable key) {
+        Integer index = rowIndexes.get(key);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public List getRowKeys() {
+        return Collections.unmodifiableList(rowKeys);
+    }
+
+    @Override
+    public Comparable getColumnKey(int column) {
+        return columnKeys.get(column);
+    }
+
+    @Override
+    public int getColumnIndex(Comparable key) {
+        Integer index = columnIndexes.get(key);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public List getColumnKeys() {
+        return Collections.unmodifiableList(columnKeys);
+    }
+
+    @Override
+    public Number getValue(Comparable rowKey, Comparable columnKey) {
+        Integer row = rowIndexes.get(rowKey);
+        if (row == null) {
+            throw new UnknownKeyException("Row key (" + rowKey + ") not recognised.");
+        }
+        Integer column = columnIndexes.get(columnKey);
+        if (column == null) {
+            throw new UnknownKeyException("Column key (" + columnKey + ") not recognised.");
+        }
+        return getValue(row.intValue(), column.intValue());
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowKeys.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnKeys.size();
+    }
+
+    @Override
+    public Number getValue(int row, int column) {
+        double value = getDoubleValue(row, column);
+        return Double.isNaN(value) ? null : value;
+    }
+}
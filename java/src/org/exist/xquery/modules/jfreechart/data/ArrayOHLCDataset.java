@@ -0,0 +1,175 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.OHLCDataset;
+
+/**
+ * An OHLC dataset backed by primitive arrays: per series the points in time
+ * of the bars, as milliseconds since the epoch, and their open, high, low,
+ * close and volume values, instead of an OHLCDataItem per bar. The Y value
+ * of a bar is its close value. The bars of a series are in ascending order
+ * of time.
+ */
+public class ArrayOHLCDataset extends AbstractXYDataset implements OHLCDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private static final int X = 0;
+    private static final int OPEN = 1;
+    private static final int HIGH = 2;
+    private static final int LOW = 3;
+    private static final int CLOSE = 4;
+    private static final int VOLUME = 5;
+
+    private final List<Comparable> seriesKeys = new ArrayList<>();
+    private final List<double[][]> series = new ArrayList<>();
+    private boolean volume;
+
+    /**
+     * Add a series to the dataset. The arrays are not copied.
+     *
+     * @param seriesKey The series key.
+     * @param millis The points in time of the bars, ascending.
+     * @param open The open values.
+     * @param high The high values.
+     * @param low The low values.
+     * @param close The close values.
+     * @param volume The volumes, or null when the series has none.
+     */
+    public void addSeries(Comparable seriesKey, double[] millis, double[] open, double[] high,
+            double[] low, double[] close, double[] volume) {
+        if (seriesKey == null) {
+            throw new IllegalArgumentException("Null 'seriesKey' argument.");
+        }
+        if (open.length != millis.length || high.length != millis.length || low.length != millis.length
+                || close.length != millis.length || volume != null && volume.length != millis.length) {
+            throw new IllegalArgumentException("The arrays of series '" + seriesKey + "' differ in length.");
+        }
+        seriesKeys.add(seriesKey);
+        series.add(new double[][] {millis, open, high, low, close,
+            volume != null ? volume : new double[millis.length]});
+        this.volume |= volume != null;
+        fireDatasetChanged();
+    }
+
+    /**
+     * @return Whether any series has volumes.
+     */
+    public boolean hasVolume() {
+        return volume;
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return seriesKeys.size();
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return seriesKeys.get(series);
+    }
+
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return this.series.get(series)[X].length;
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return this.series.get(series)[X][item];
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return getXValue(series, item);
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return getCloseValue(series, item);
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        return getClose(series, item);
+    }
+
+    @Override
+    public double getOpenValue(int series, int item) {
+        return this.series.get(series)[OPEN][item];
+    }
+
+    @Override
+    public Number getOpen(int series, int item) {
+        return getOpenValue(series, item);
+    }
+
+    @Override
+    public double getHighValue(int series, int item) {
+        return this.series.get(series)[HIGH][item];
+    }
+
+    @Override
+    public Number getHigh(int series, int item) {
+        return getHighValue(series, item);
+    }
+
+    @Override
+    public double getLowValue(int series, int item) {
+        return this.series.get(series)[LOW][item];
+    }
+
+    @Override
+    public Number getLow(int series, int item) {
+        return getLowValue(series, item);
+    }
+
+    @Override
+    public double getCloseValue(int series, int item) {
+        return this.series.get(series)[CLOSE][item];
+    }
+
+    @Override
+    public Number getClose(int series, int item) {
+        return getCloseValue(series, item);
+    }
+
+    @Override
+    public double getVolumeValue(int series, int item) {
+        return this.series.get(series)[VOLUME][item];
+    }
+
+    @Override
+    public Number getVolume(int series, int item) {
+        return getVolumeValue(series, item);
+    }
+}
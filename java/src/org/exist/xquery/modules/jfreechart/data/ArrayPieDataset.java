@@ -0,0 +1,112 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.general.AbstractDataset;
+import org.jfree.data.general.PieDataset;
+
+/**
+ * A pie dataset which keeps its values in a primitive double array, with a
+ * hashed key-to-index map. Missing values are stored as NaN.
+ */
+public class ArrayPieDataset extends AbstractDataset implements PieDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private final List<Comparable> keys = new ArrayList<>();
+    private final Map<Comparable, Integer> indexes = new HashMap<>();
+    private final DoubleList values = new DoubleList();
+
+    /**
+     * Set the value of a section, adding the section when the key is new.
+     * No change event is sent, as the dataset is filled before it is
+     * handed to a plot.
+     *
+     * @param key The section key.
+     * @param value The value, NaN when missing.
+     */
+    public void setValue(Comparable key, double value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        Integer index = indexes.get(key);
+        if (index == null) {
+            indexes.put(key, keys.size());
+            keys.add(key);
+            values.add(value);
+        } else {
+            values.set(index, value);
+        }
+    }
+
+    /**
+     * Get the value of a section as a primitive.
+     *
+     * @param item The section index.
+     * @return The value, NaN when missing.
+     */
+    public double getDoubleValue(int item) {
+        return values.get(item);
+    }
+
+    @Override
+    public Comparable getKey(int index) {
+        return keys.get(index);
+    }
+
+    @Override
+    public int getIndex(Comparable key) {
+        Integer index = indexes.get(key);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public List getKeys() {
+        return Collections.unmodifiableList(keys);
+    }
+
+    @Override
+    public Number getValue(Comparable key) {
+        Integer index = indexes.get(key);
+        if (index == null) {
+            throw new UnknownKeyException("Key not recognised: " + key);
+        }
+        return getValue(index.intValue());
+    }
+
+    @Override
+    public int getItemCount() {
+        return keys.size();
+    }
+
+    @Override
+    public Number getValue(int item) {
+        double value = values.get(item);
+        return Double.isNaN(value) ? null : value;
+    }
+}
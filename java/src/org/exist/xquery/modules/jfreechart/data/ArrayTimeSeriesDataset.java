@@ -0,0 +1,272 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+/**
+ * A time series dataset backed by primitive arrays: per series the points
+ * in time as milliseconds since the epoch in a long[] and the values in a
+ * double[], instead of a RegularTimePeriod and a Number per item. As an
+ * XYDataset the X values are the milliseconds, as expected by a DateAxis.
+ *
+ * The items of a series are kept in ascending order of time, so the items
+ * of a time window are found by binary search. Missing values are NaN.
+ */
+public class ArrayTimeSeriesDataset extends AbstractXYDataset
+        implements DomainInfo, RangeInfo, XYDomainInfo, XYRangeInfo {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private final List<Comparable> seriesKeys = new ArrayList<>();
+    private final List<long[]> millis = new ArrayList<>();
+    private final List<double[]> values = new ArrayList<>();
+    private final List<SeriesBounds> bounds = new ArrayList<>();
+
+    /**
+     * Add a series to the dataset. The arrays are not copied; when the
+     * points in time are not in ascending order both arrays are sorted in
+     * place, items at the same time keeping their order.
+     *
+     * @param seriesKey The series key.
+     * @param millis The points in time, in milliseconds since the epoch.
+     * @param values The values, same length as the points in time.
+     */
+    public void addSeries(Comparable seriesKey, long[] millis, double[] values) {
+        if (seriesKey == null) {
+            throw new IllegalArgumentException("Null 'seriesKey' argument.");
+        }
+        if (millis.length != values.length) {
+            throw new IllegalArgumentException("Series '" + seriesKey + "' has "
+                    + millis.length + " points in time but " + values.length + " values.");
+        }
+        sort(millis, values);
+        seriesKeys.add(seriesKey);
+        this.millis.add(millis);
+        this.values.add(values);
+        bounds.add(new SeriesBounds(millis, values));
+        fireDatasetChanged();
+    }
+
+    /**
+     * Add a series of points in time read as numbers, dropping the items
+     * without a point in time (NaN).
+     *
+     * @param seriesKey The series key.
+     * @param millis The points in time, in milliseconds since the epoch.
+     * @param values The values, same length as the points in time.
+     */
+    public void addSeries(Comparable seriesKey, double[] millis, double[] values) {
+        if (millis.length != values.length) {
+            throw new IllegalArgumentException("Series '" + seriesKey + "' has "
+                    + millis.length + " points in time but " + values.length + " values.");
+        }
+        int count = 0;
+        for (double time : millis) {
+            if (!Double.isNaN(time)) {
+                count++;
+            }
+        }
+        long[] times = new long[count];
+        double[] timedValues = count == values.length ? values : new double[count];
+        for (int i = 0, j = 0; i < millis.length; i++) {
+            if (!Double.isNaN(millis[i])) {
+                times[j] = (long) millis[i];
+                timedValues[j++] = values[i];
+            }
+        }
+        addSeries(seriesKey, times, timedValues);
+    }
+
+    /**
+     * Stable sort of the items of a series by time.
+     */
+    private static void sort(long[] millis, double[] values) {
+        boolean sorted = true;
+        for (int i = 1; i < millis.length && sorted; i++) {
+            sorted = millis[i - 1] <= millis[i];
+        }
+        if (sorted) {
+            return;
+        }
+        Integer[] items = new Integer[millis.length];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        Arrays.sort(items, (a, b) -> Long.compare(millis[a], millis[b]));
+        long[] ms = millis.clone();
+        double[] vs = values.clone();
+        for (int i = 0; i < items.length; i++) {
+            millis[i] = ms[items[i]];
+            values[i] = vs[items[i]];
+        }
+    }
+
+    /**
+     * Get the points in time of a series. The returned array is the one
+     * backing the dataset and must not be modified.
+     *
+     * @param series The series index.
+     * @return The milliseconds since the epoch, in ascending order.
+     */
+    public long[] getMillis(int series) {
+        return millis.get(series);
+    }
+
+    /**
+     * Get the values of a series. The returned array is the one backing
+     * the dataset and must not be modified.
+     *
+     * @param series The series index.
+     * @return The values.
+     */
+    public double[] getValues(int series) {
+        return values.get(series);
+    }
+
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return seriesKeys.size();
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return seriesKeys.get(series);
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return millis.get(series).length;
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return millis.get(series)[item];
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return values.get(series)[item];
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return millis.get(series)[item];
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        double y = values.get(series)[item];
+        return Double.isNaN(y) ? null : y;
+    }
+
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        return getDomainBounds(null, includeInterval);
+    }
+
+    @Override
+    public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+        return SeriesBounds.domain(bounds, seriesKeys, visibleSeriesKeys);
+    }
+
+    @Override
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    @Override
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        return getRangeBounds(null, null, includeInterval);
+    }
+
+    /**
+     * The bounds of the values of the visible series within a time window,
+     * found by binary search for series reaching beyond the window.
+     */
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+        return SeriesBounds.range(bounds, seriesKeys, visibleSeriesKeys, xRange, (series, window) -> {
+            long[] x = millis.get(series);
+            double[] y = values.get(series);
+            double lower = Double.POSITIVE_INFINITY;
+            double upper = Double.NEGATIVE_INFINITY;
+            for (int i = firstItem(x, window.getLowerBound()); i < x.length && x[i] <= window.getUpperBound(); i++) {
+                if (!Double.isNaN(y[i])) {
+                    lower = Math.min(lower, y[i]);
+                    upper = Math.max(upper, y[i]);
+                }
+            }
+            return lower <= upper ? new Range(lower, upper) : null;
+        });
+    }
+
+    /**
+     * The index of the first item at or after a point in time.
+     */
+    private static int firstItem(long[] millis, double time) {
+        int low = 0;
+        int high = millis.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (millis[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.AbstractIntervalXYDataset;
+import org.jfree.data.xy.IntervalXYDelegate;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+/**
+ * An XY dataset which keeps the values of each series in primitive double
+ * arrays. Missing Y values are stored as NaN. The dataset is an
+ * IntervalXYDataset, the interval width being calculated from the X values
+ * as for XYSeriesCollection.
+ *
+ * The bounds of each series are computed when it is added, so auto-ranging
+ * the axes takes time proportional to the number of series, not of items.
+ */
+public class ArrayXYDataset extends AbstractIntervalXYDataset
+        implements DomainInfo, RangeInfo, XYDomainInfo, XYRangeInfo {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private final List<Comparable> seriesKeys = new ArrayList<>();
+    private final List<double[]> xValues = new ArrayList<>();
+    private final List<double[]> yValues = new ArrayList<>();
+    private final List<SeriesBounds> bounds = new ArrayList<>();
+
+    private final IntervalXYDelegate intervalDelegate;
+
+    public ArrayXYDataset() {
+        this.intervalDelegate = new IntervalXYDelegate(this, false);
+        addChangeListener(this.intervalDelegate);
+    }
+
+    /**
+     * Add a series to the dataset. The arrays are not copied.
+     *
+     * @param seriesKey The series key.
+     * @param x The X values.
+     * @param y The Y values, same length as the X values.
+     */
+    public void addSeries(Comparable seriesKey, double[] x, double[] y) {
+        if (seriesKey == null) {
+            throw new IllegalArgumentException("Null 'seriesKey' argument.");
+        }
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Series '" + seriesKey + "' has "
+                    + x.length + " X values but " + y.length + " Y values.");
+        }
+        seriesKeys.add(seriesKey);
+        xValues.add(x);
+        yValues.add(y);
+        bounds.add(new SeriesBounds(x, y));
+        fireDatasetChanged();
+    }
+
+    /**
+     * Get the X values of a series. The returned array is the one backing
+     * the dataset and must not be modified.
+     *
+     * @param series The series index.
+     * @return The X values.
+     */
+    public double[] getXValues(int series) {
+        return xValues.get(series);
+    }
+
+    /**
+     * Get the Y values of a series. The returned array is the one backing
+     * the dataset and must not be modified.
+     *
+     * @param series The series index.
+     * @return The Y values.
+     */
+    public double[] getYValues(int series) {
+        return yValues.get(series);
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return seriesKeys.size();
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return seriesKeys.get(series);
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return xValues.get(series).length;
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return xValues.get(series)[item];
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return yValues.get(series)[item];
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return xValues.get(series)[item];
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        double y = yValues.get(series)[item];
+        return Double.isNaN(y) ? null : y;
+    }
+
+    @Override
+    public Number getStartX(int series, int item) {
+        return intervalDelegate.getStartX(series, item);
+    }
+
+    @Override
+    public Number getEndX(int series, int item) {
+        return intervalDelegate.getEndX(series, item);
+    }
+
+    @Override
+    public double getStartXValue(int series, int item) {
+        return intervalDelegate.getStartXValue(series, item);
+    }
+
+    @Override
+    public double getEndXValue(int series, int item) {
+        return intervalDelegate.getEndXValue(series, item);
+    }
+
+    @Override
+    public Number getStartY(int series, int item) {
+        return getY(series, item);
+    }
+
+    @Override
+    public Number getEndY(int series, int item) {
+        return getY(series, item);
+    }
+
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        return getDomainBounds(null, includeInterval);
+    }
+
+    /**
+     * The x bounds of the visible series, widened by the interval width as
+     * for {@link IntervalXYDelegate} when intervals are included.
+     */
+    @Override
+    public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+        Range range = SeriesBounds.domain(bounds, seriesKeys, visibleSeriesKeys);
+        if (range != null && includeInterval) {
+            double width = intervalDelegate.getIntervalWidth();
+            double factor = intervalDelegate.getIntervalPositionFactor();
+            range = new Range(range.getLowerBound() - width * factor,
+                    range.getUpperBound() + width * (1.0 - factor));
+        }
+        return range;
+    }
+
+    @Override
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    @Override
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        return getRangeBounds(null, null, includeInterval);
+    }
+
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+        return SeriesBounds.range(bounds, seriesKeys, visibleSeriesKeys, xRange, xValues, yValues);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.AbstractXYZDataset;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+/**
+ * An XYZ dataset which keeps the values of each series in primitive double
+ * arrays. Missing values are stored as NaN.
+ *
+ * The bounds of the X, Y and Z values of each series are computed when it
+ * is added, so auto-ranging the axes takes time proportional to the number
+ * of series, not of items.
+ */
+public class ArrayXYZDataset extends AbstractXYZDataset
+        implements DomainInfo, RangeInfo, XYDomainInfo, XYRangeInfo {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private final List<Comparable> seriesKeys = new ArrayList<>();
+    private final List<double[]> xValues = new ArrayList<>();
+    private final List<double[]> yValues = new ArrayList<>();
+    private final List<double[]> zValues = new ArrayList<>();
+    private final List<SeriesBounds> bounds = new ArrayList<>();
+
+    /**
+     * Add a series to the dataset. The arrays are not copied.
+     *
+     * @param seriesKey The series key.
+     * @param x The X values.
+     * @param y The Y values, same length as the X values.
+     * @param z The Z values, same length as the X values.
+     */
+    public void addSeries(Comparable seriesKey, double[] x, double[] y, double[] z) {
+        if (seriesKey == null) {
+            throw new IllegalArgumentException("Null 'seriesKey' argument.");
+        }
+        if (x.length != y.length || x.length != z.length) {
+            throw new IllegalArgumentException("Series '" + seriesKey + "' has "
+                    + x.length + " X values, " + y.length + " Y values and " + z.length + " Z values.");
+        }
+        seriesKeys.add(seriesKey);
+        xValues.add(x);
+        yValues.add(y);
+        zValues.add(z);
+        bounds.add(new SeriesBounds(x, y, z));
+        fireDatasetChanged();
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return seriesKeys.size();
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return seriesKeys.get(series);
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return xValues.get(series).length;
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return xValues.get(series)[item];
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return yValues.get(series)[item];
+    }
+
+    @Override
+    public double getZValue(int series, int item) {
+        return zValues.get(series)[item];
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return xValues.get(series)[item];
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        double y = yValues.get(series)[item];
+        return Double.isNaN(y) ? null : y;
+    }
+
+    @Override
+    public Number getZ(int series, int item) {
+        double z = zValues.get(series)[item];
+        return Double.isNaN(z) ? null : z;
+    }
+
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        return getDomainBounds(null, includeInterval);
+    }
+
+    @Override
+    public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+        return SeriesBounds.domain(bounds, seriesKeys, visibleSeriesKeys);
+    }
+
+    @Override
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    @Override
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        return getRangeBounds(null, null, includeInterval);
+    }
+
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+        return SeriesBounds.range(bounds, seriesKeys, visibleSeriesKeys, xRange, xValues, yValues);
+    }
+
+    /**
+     * Get the bounds of the Z values of all series.
+     *
+     * @return The bounds, null when there are no Z values.
+     */
+    public Range getZBounds() {
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (SeriesBounds b : bounds) {
+            lower = Math.min(lower, b.minZ);
+            upper = Math.max(upper, b.maxZ);
+        }
+        return lower <= upper ? new Range(lower, upper) : null;
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import org.exist.xquery.modules.jfreechart.DatasetType;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.general.Dataset;
+import org.jfree.data.general.PieDataset;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYZDataset;
+
+/**
+ * Reads datasets from delimited text (CSV, TSV) in a single streaming pass,
+ * filling primitive double arrays.
+ *
+ * Columns are referenced by their 1-based position or, when the text has a
+ * header row, by name. The series column holds the series key of a record;
+ * the value columns are read as numbers, empty or non-numeric fields being
+ * missing values. When no value columns are given, all columns except the
+ * series column are value columns.
+ * <ul>
+ * <li>PieDataset: the series column (default the first column) is the
+ * section key, the first value column the section value.</li>
+ * <li>CategoryDataset: the series column (default the first column) is the
+ * row key, the names of the value columns are the column keys.</li>
+ * <li>XYDataset, XYZDataset: with a series column the first two (three)
+ * value columns are X and Y (and Z) of the series named in the record.
+ * Without one, the first value column is X and each following one (pair of
+ * columns) is a series named after its (first) column.</li>
+ * <li>TimeSeries: as XYDataset, X being the point in time, an xs:dateTime,
+ * xs:date or number of milliseconds since the epoch.</li>
+ * <li>Distribution: with a series column the first value column holds the
+ * raw values of the series named in the record, without one each value
+ * column is a series. The values are sketched while they are read.</li>
+ * <li>OHLC: ticks of a point in time, a value and optionally a volume, in
+ * the first two (three) value columns, of the series named in the record or
+ * else of a single series named after the value column. The ticks are
+ * bucketed into bars while they are read.</li>
+ * </ul>
+ */
+public class DelimitedDatasetReader {
+
+    private final char delimiter;
+    private final boolean header;
+    private final String seriesColumn;
+    private final String valueColumns;
+    private final long ohlcPeriod;
+
+    /**
+     * @param delimiter The field delimiter.
+     * @param header Whether the first record is a header row.
+     * @param seriesColumn Reference to the series column, or null.
+     * @param valueColumns Comma separated references to the value columns,
+     * or null for all columns except the series column.
+     */
+    public DelimitedDatasetReader(char delimiter, boolean header, String seriesColumn, String valueColumns) {
+        this(delimiter, header, seriesColumn, valueColumns, OHLCBars.DEFAULT_PERIOD);
+    }
+
+    /**
+     * @param delimiter The field delimiter.
+     * @param header Whether the first record is a header row.
+     * @param seriesColumn Reference to the series column, or null.
+     * @param valueColumns Comma separated references to the value columns,
+     * or null for all columns except the series column.
+     * @param ohlcPeriod The period of OHLC bars, in milliseconds.
+     */
+    public DelimitedDatasetReader(char delimiter, boolean header, String seriesColumn, String valueColumns,
+            long ohlcPeriod) {
+        this.delimiter = delimiter;
+        this.header = header;
+        this.seriesColumn = seriesColumn;
+        this.valueColumns = valueColumns;
+        this.ohlcPeriod = ohlcPeriod;
+    }
+
+    /**
+     * Read the dataset needed for a dataset type.
+     *
+     * @param type The dataset type.
+     * @param reader The delimited text.
+     * @return The dataset.
+     * @throws IOException Thrown when the text cannot be read or does not
+     * match the column configuration.
+     */
+    public Dataset read(DatasetType type, Reader reader) throws IOException {
+        switch (type) {
+            case PIE:
+                return readPieDataset(reader);
+            case XY:
+                return readXYDataset(reader);
+            case XYZ:
+                return readXYZDataset(reader);
+            case TIME_SERIES:
+                return readTimeSeriesDataset(reader);
+            case DISTRIBUTION:
+                return readDistributionDataset(reader);
+            case OHLC:
+                return readOHLCDataset(reader);
+            default:
+                return readCategoryDataset(reader);
+        }
+    }
+
+    public PieDataset readPieDataset(Reader reader) throws IOException {
+        final ArrayPieDataset dataset = new ArrayPieDataset();
+        readRecords(reader, "1", 1, false, (columns, key, values) -> {
+            if (!Double.isNaN(values[0])) {
+                dataset.setValue(key, values[0]);
+            }
+        });
+        return dataset;
+    }
+
+    public CategoryDataset readCategoryDataset(Reader reader) throws IOException {
+        final ArrayCategoryDataset dataset = new ArrayCategoryDataset();
+        readRecords(reader, "1", 1, false, (columns, key, values) -> {
+            int row = dataset.addRowKey(key);
+            for (int i = 0; i < values.length; i++) {
+                if (!Double.isNaN(values[i])) {
+                    dataset.setValue(row, dataset.addColumnKey(columns.getValueName(i)), values[i]);
+                }
+            }
+        });
+        return dataset;
+    }
+
+    public XYDataset readXYDataset(Reader reader) throws IOException {
+        final SeriesValues series = new SeriesValues(2);
+        readRecords(reader, null, 2, false, series);
+
+        ArrayXYDataset dataset = new ArrayXYDataset();
+        for (int i = 0; i < series.keys.size(); i++) {
+            DoubleList[] values = series.values.get(i);
+            dataset.addSeries(series.keys.get(i), values[0].toArray(), values[1].toArray());
+        }
+        return dataset;
+    }
+
+    /**
+     * Stream the XY series of delimited text into a sink, without holding
+     * the values.
+     *
+     * @param reader The delimited text.
+     * @param sink The sink.
+     * @throws IOException Thrown when the text cannot be read or does not
+     * match the column configuration.
+     */
+    public void streamXY(Reader reader, XYItemSink sink) throws IOException {
+        readRecords(reader, null, 2, false, new SeriesSink(sink));
+    }
+
+    public XYDataset readTimeSeriesDataset(Reader reader) throws IOException {
+        final SeriesValues series = new SeriesValues(2);
+        readRecords(reader, null, 2, true, series);
+
+        ArrayTimeSeriesDataset dataset = new ArrayTimeSeriesDataset();
+        for (int i = 0; i < series.keys.size(); i++) {
+            DoubleList[] values = series.values.get(i);
+            dataset.addSeries(series.keys.get(i), values[0].toArray(), values[1].toArray());
+        }
+        return dataset;
+    }
+
+    public DistributionDataset readDistributionDataset(Reader reader) throws IOException {
+        final DistributionDataset dataset = new DistributionDataset();
+        readRecords(reader, null, 1, false, new RecordHandler() {
+
+            private int[] columnSeries;
+
+            @Override
+            public void handle(Columns columns, String seriesKey, double[] values) {
+                if (seriesKey != null) {
+                    dataset.add(dataset.addSeries(seriesKey), values[0]);
+                    return;
+                }
+                if (columnSeries == null) {
+                    columnSeries = new int[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        columnSeries[i] = dataset.addSeries(columns.getValueName(i));
+                    }
+                }
+                for (int i = 0; i < values.length; i++) {
+                    dataset.add(columnSeries[i], values[i]);
+                }
+            }
+        });
+        return dataset;
+    }
+
+    public OHLCDataset readOHLCDataset(Reader reader) throws IOException {
+        final OHLCBars bars = new OHLCBars(ohlcPeriod);
+        readRecords(reader, null, 2, true, new RecordHandler() {
+
+            private int columnSeries = -1;
+
+            @Override
+            public void handle(Columns columns, String seriesKey, double[] values) {
+                int series;
+                if (seriesKey != null) {
+                    series = bars.addSeries(seriesKey);
+                } else {
+                    if (columnSeries < 0) {
+                        columnSeries = bars.addSeries(columns.getValueName(1));
+                    }
+                    series = columnSeries;
+                }
+                bars.addTick(series, values[0], values[1], values.length > 2 ? values[2] : Double.NaN);
+            }
+        });
+        return bars.getDataset();
+    }
+
+    public XYZDataset readXYZDataset(Reader reader) throws IOException {
+        final SeriesValues series = new SeriesValues(3);
+        readRecords(reader, null, 3, false, series);
+
+        ArrayXYZDataset dataset = new ArrayXYZDataset();
+        for (int i = 0; i < series.keys.size(); i++) {
+            DoubleList[] values = series.values.get(i);
+            dataset.addSeries(series.keys.get(i), values[0].toArray(), values[1].toArray(), values[2].toArray());
+        }
+        return dataset;
+    }
+
+    /**
+     * Tokenize all records, handing the series key and the values of the
+     * value columns of each record to the handler. With time, the first value
+     * column is read as points in time.
+     */
+    private void readRecords(Reader reader, String defaultSeriesColumn, int minimumValueColumns,
+            boolean time, RecordHandler handler) throws IOException {
+
+        DelimitedTokenizer tokenizer = new DelimitedTokenizer(reader, delimiter);
+
+        List<String> names = null;
+        if (header && tokenizer.nextRecord()) {
+            names = new ArrayList<>();
+            while (tokenizer.nextField()) {
+                names.add(tokenizer.getString());
+            }
+        }
+
+        String seriesReference = seriesColumn != null ? seriesColumn : defaultSeriesColumn;
+        int seriesIndex = seriesReference == null ? -1 : resolve(seriesReference, names);
+
+        Columns columns = null;
+        DoubleList row = new DoubleList();
+        double[] values = null;
+
+        while (tokenizer.nextRecord()) {
+            String key = null;
+            row.clear();
+            int column = 0;
+            while (tokenizer.nextField()) {
+                if (column == seriesIndex) {
+                    key = tokenizer.getString();
+                } else if (columns == null || columns.isValueColumn(column)) {
+                    // the value columns are known from the second record on
+                    boolean timeColumn = time && (columns == null || column == columns.valueIndexes[0]);
+                    row.set(column, timeColumn ? tokenizer.getMillis() : tokenizer.getDouble());
+                }
+                column++;
+            }
+
+            if (columns == null) {
+                columns = new Columns(names, names == null ? column : names.size(), seriesIndex);
+                if (columns.valueIndexes.length < minimumValueColumns) {
+                    throw new IOException("Expected at least " + minimumValueColumns
+                            + " value columns, found " + columns.valueIndexes.length);
+                }
+                values = new double[columns.valueIndexes.length];
+            }
+
+            if (seriesIndex >= 0 && (key == null || key.isEmpty())) {
+                continue;
+            }
+            for (int i = 0; i < values.length; i++) {
+                int index = columns.valueIndexes[i];
+                values[i] = index < row.size() ? row.get(index) : Double.NaN;
+            }
+            handler.handle(columns, key, values);
+        }
+    }
+
+    /**
+     * Get the 0-based index of a column from its 1-based position or name.
+     */
+    private static int resolve(String reference, List<String> names) throws IOException {
+        String trimmed = reference.trim();
+        try {
+            int position = Integer.parseInt(trimmed);
+            if (position < 1) {
+                throw new IOException("Column positions start at 1, found " + position);
+            }
+            return position - 1;
+
+        } catch (NumberFormatException ex) {
+            int index = names == null ? -1 : names.indexOf(trimmed);
+            if (index < 0) {
+                throw new IOException("Unknown column '" + trimmed + "'"
+                        + (names == null ? ", names require a header row" : ""));
+            }
+            return index;
+        }
+    }
+
+    private interface RecordHandler {
+        void handle(Columns columns, String seriesKey, double[] values) throws IOException;
+    }
+
+    /**
+     * The resolved value columns.
+     */
+    private class Columns {
+
+        private final int[] valueIndexes;
+        private final String[] valueNames;
+        private final boolean[] valueColumn;
+
+        Columns(List<String> names, int columnCount, int seriesIndex) throws IOException {
+            if (valueColumns == null) {
+                valueIndexes = new int[seriesIndex >= 0 && seriesIndex < columnCount ? columnCount - 1 : columnCount];
+                for (int column = 0, i = 0; column < columnCount; column++) {
+                    if (column != seriesIndex) {
+                        valueIndexes[i++] = column;
+                    }
+                }
+            } else {
+                StringTokenizer st = new StringTokenizer(valueColumns, ",");
+                valueIndexes = new int[st.countTokens()];
+                for (int i = 0; i < valueIndexes.length; i++) {
+                    valueIndexes[i] = resolve(st.nextToken(), names);
+                }
+            }
+
+            valueNames = new String[valueIndexes.length];
+            int maxIndex = columnCount;
+            for (int i = 0; i < valueIndexes.length; i++) {
+                int index = valueIndexes[i];
+                valueNames[i] = names != null && index < names.size() ? names.get(index) : String.valueOf(index + 1);
+                maxIndex = Math.max(maxIndex, index + 1);
+            }
+
+            valueColumn = new boolean[maxIndex];
+            for (int index : valueIndexes) {
+                valueColumn[index] = true;
+            }
+        }
+
+        boolean isValueColumn(int column) {
+            return column < valueColumn.length && valueColumn[column];
+        }
+
+        String getValueName(int i) {
+            return valueNames[i];
+        }
+    }
+
+    /**
+     * Collects the values of XY and XYZ series, either keyed by the series
+     * column or one series per group of value columns.
+     */
+    private class SeriesValues implements RecordHandler {
+
+        private final int dimensions;
+        private final List<Comparable> keys = new ArrayList<>();
+        private final List<DoubleList[]> values = new ArrayList<>();
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        SeriesValues(int dimensions) {
+            this.dimensions = dimensions;
+        }
+
+        @Override
+        public void handle(Columns columns, String seriesKey, double[] record) throws IOException {
+            if (seriesKey != null) {
+                Integer index = indexes.get(seriesKey);
+                if (index == null) {
+                    index = add(seriesKey);
+                    indexes.put(seriesKey, index);
+                }
+                DoubleList[] series = values.get(index);
+                for (int d = 0; d < dimensions; d++) {
+                    series[d].add(record[d]);
+                }
+
+            } else {
+                int count = (record.length - 1) / (dimensions - 1);
+                if (keys.isEmpty()) {
+                    for (int s = 0; s < count; s++) {
+                        add(columns.getValueName(1 + s * (dimensions - 1)));
+                    }
+                }
+                for (int s = 0; s < count; s++) {
+                    DoubleList[] series = values.get(s);
+                    series[0].add(record[0]);
+                    for (int d = 1; d < dimensions; d++) {
+                        series[d].add(record[1 + s * (dimensions - 1) + d - 1]);
+                    }
+                }
+            }
+        }
+
+        private int add(String key) {
+            DoubleList[] series = new DoubleList[dimensions];
+            for (int d = 0; d < dimensions; d++) {
+                series[d] = new DoubleList();
+            }
+            keys.add(key);
+            values.add(series);
+            return keys.size() - 1;
+        }
+    }
+
+    /**
+     * Streams the records of XY series into a sink, either keyed by the
+     * series column or one series per value column after the first.
+     */
+    private class SeriesSink implements RecordHandler {
+
+        private final XYItemSink sink;
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int[] columnSeries;
+
+        SeriesSink(XYItemSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void handle(Columns columns, String seriesKey, double[] record) throws IOException {
+            if (seriesKey != null) {
+                Integer index = indexes.get(seriesKey);
+                if (index == null) {
+                    index = sink.addSeries(seriesKey);
+                    indexes.put(seriesKey, index);
+                }
+                sink.addItem(index, record[0], record[1]);
+
+            } else {
+                if (columnSeries == null) {
+                    columnSeries = new int[record.length - 1];
+                    for (int s = 0; s < columnSeries.length; s++) {
+                        columnSeries[s] = sink.addSeries(columns.getValueName(1 + s));
+                    }
+                }
+                for (int s = 0; s < columnSeries.length; s++) {
+                    sink.addItem(columnSeries[s], record[0], record[1 + s]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming tokenizer for delimited text (CSV, TSV). Fields are read into a
+ * reused character buffer; numbers are converted without creating a String
+ * when they are plain decimals. Quoted fields with "" escapes are supported.
+ *
+ * Usage:
+ * <pre>
+ * while (tokenizer.nextRecord()) {
+ *     while (tokenizer.nextField()) {
+ *         double value = tokenizer.getDouble();
+ *     }
+ * }
+ * </pre>
+ */
+public class DelimitedTokenizer {
+
+    private static final int EOF = -1;
+
+    // Exactly representable powers of ten, see getDouble()
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader reader;
+    private final char delimiter;
+
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    private char[] field = new char[64];
+    private int fieldLength;
+
+    private boolean endOfRecord = true;
+    private int line;
+
+    public DelimitedTokenizer(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Move to the next non-empty record, skipping any unread fields of the
+     * current one.
+     *
+     * @return false when the end of the input is reached.
+     * @throws IOException Thrown when the input cannot be read.
+     */
+    public boolean nextRecord() throws IOException {
+        while (!endOfRecord) {
+            nextField();
+        }
+        int c;
+        while ((c = peek()) == '\r' || c == '\n') {
+            if (c == '\n') {
+                line++;
+            }
+            position++;
+        }
+        if (c == EOF) {
+            return false;
+        }
+        line++;
+        endOfRecord = false;
+        return true;
+    }
+
+    /**
+     * Read the next field of the current record.
+     *
+     * @return false when there are no more fields in the record.
+     * @throws IOException Thrown when the input cannot be read.
+     */
+    public boolean nextField() throws IOException {
+        if (endOfRecord) {
+            return false;
+        }
+        fieldLength = 0;
+        int c = read();
+        if (c == '"') {
+            readQuoted();
+            c = read();
+            // ignore anything between the closing quote and the delimiter
+            while (c != delimiter && c != '\n' && c != '\r' && c != EOF) {
+                c = read();
+            }
+        } else {
+            while (c != delimiter && c != '\n' && c != '\r' && c != EOF) {
+                append((char) c);
+                c = read();
+            }
+        }
+        if (c != delimiter) {
+            if (c == '\r' && peek() == '\n') {
+                position++;
+            }
+            endOfRecord = true;
+        }
+        return true;
+    }
+
+    private void readQuoted() throws IOException {
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == '"') {
+                if (peek() != '"') {
+                    return;
+                }
+                position++;
+            } else if (c == '\n') {
+                line++;
+            }
+            append((char) c);
+        }
+        throw new IOException("Unterminated quoted field at line " + line);
+    }
+
+    /**
+     * Get the current field as a String, leading and trailing white space
+     * removed.
+     *
+     * @return The field value.
+     */
+    public String getString() {
+        int start = 0;
+        int end = fieldLength;
+        while (start < end && field[start] <= ' ') {
+            start++;
+        }
+        while (end > start && field[end - 1] <= ' ') {
+            end--;
+        }
+        return new String(field, start, end - start);
+    }
+
+    /**
+     * Get the current field as a number. Empty fields and fields which are
+     * not numbers give NaN, i.e. a missing value.
+     *
+     * @return The field value.
+     */
+    public double getDouble() {
+        int i = 0;
+        int end = fieldLength;
+        while (i < end && field[i] <= ' ') {
+            i++;
+        }
+        while (end > i && field[end - 1] <= ' ') {
+            end--;
+        }
+        if (i == end) {
+            return Double.NaN;
+        }
+
+        // Fast path: a decimal with at most 18 significant digits whose
+        // mantissa and power of ten are both exact doubles is correctly
+        // rounded by a single multiplication or division.
+        boolean negative = false;
+        if (field[i] == '-' || field[i] == '+') {
+            negative = field[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenDigit = false;
+        boolean exact = true;
+        while (i < end && field[i] >= '0' && field[i] <= '9') {
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (field[i] - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exact = false;
+            }
+            seenDigit = true;
+            i++;
+        }
+        if (i < end && field[i] == '.') {
+            i++;
+            while (i < end && field[i] >= '0' && field[i] <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (field[i] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else if (field[i] != '0') {
+                    exact = false;
+                }
+                seenDigit = true;
+                i++;
+            }
+        }
+        if (seenDigit && i < end && (field[i] == 'e' || field[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (field[i] == '-' || field[i] == '+')) {
+                negativeExponent = field[i] == '-';
+                i++;
+            }
+            int value = 0;
+            boolean seenExponentDigit = false;
+            while (i < end && field[i] >= '0' && field[i] <= '9' && value < 10000) {
+                value = value * 10 + (field[i] - '0');
+                seenExponentDigit = true;
+                i++;
+            }
+            exact &= seenExponentDigit;
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (exact && seenDigit && i == end && mantissa <= (1L << 53)
+                && exponent >= -22 && exponent <= 22) {
+            double value = mantissa;
+            value = exponent < 0 ? value / POWERS_OF_TEN[-exponent] : value * POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+
+        try {
+            return Double.parseDouble(getString());
+        } catch (NumberFormatException ex) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Get the current field as a point in time: a date, a date and time or a
+     * number of milliseconds since the epoch, see {@link EpochMillis}. Empty
+     * fields and fields which are neither give NaN.
+     *
+     * @return The milliseconds since the epoch.
+     */
+    public double getMillis() {
+        int i = 0;
+        int end = fieldLength;
+        while (i < end && field[i] <= ' ') {
+            i++;
+        }
+        while (end > i && field[end - 1] <= ' ') {
+            end--;
+        }
+        long millis = EpochMillis.parseDateTime(field, i, end);
+        return millis != EpochMillis.NOT_A_DATE_TIME ? millis : getDouble();
+    }
+
+    /**
+     * Get the current line number, for error messages.
+     *
+     * @return The line number, starting at 1.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    private void append(char c) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, fieldLength << 1);
+        }
+        field[fieldLength++] = c;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int count = reader.read(buffer, 0, buffer.length);
+        while (count == 0) {
+            count = reader.read(buffer, 0, buffer.length);
+        }
+        position = 0;
+        limit = Math.max(count, 0);
+        return count > 0;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.jfree.data.general.AbstractSeriesDataset;
+import org.jfree.data.statistics.BoxAndWhiskerCategoryDataset;
+import org.jfree.data.statistics.BoxAndWhiskerItem;
+import org.jfree.data.statistics.DefaultBoxAndWhiskerCategoryDataset;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.data.xy.XYIntervalSeries;
+import org.jfree.data.xy.XYIntervalSeriesCollection;
+
+/**
+ * The distributions of the raw values of series, held as {@link TDigest}
+ * sketches instead of the values, so memory stays constant however many
+ * values are added. The histogram and box-and-whisker datasets of the
+ * charts are derived from the sketches.
+ */
+public class DistributionDataset extends AbstractSeriesDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    /** The maximum number of histogram bins. */
+    public static final int MAX_BINS = 1000;
+
+    // values sketched by one task
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final List<Comparable> keys = new ArrayList<>();
+    private final Map<Comparable, Integer> indexes = new HashMap<>();
+    private final List<TDigest> sketches = new ArrayList<>();
+
+    /**
+     * Get the index of a series, adding the series when the key is new.
+     * No change event is sent, as the dataset is filled before it is
+     * handed to a plot.
+     *
+     * @param key The series key.
+     * @return The series index.
+     */
+    public int addSeries(Comparable key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        Integer index = indexes.get(key);
+        if (index == null) {
+            index = keys.size();
+            indexes.put(key, index);
+            keys.add(key);
+            sketches.add(new TDigest());
+        }
+        return index;
+    }
+
+    /**
+     * Add a value to a series.
+     *
+     * @param series The series index.
+     * @param value The value, NaN (missing) being ignored.
+     */
+    public void add(int series, double value) {
+        sketches.get(series).add(value);
+    }
+
+    /**
+     * Add values held in memory to a series, sketching chunks of them in
+     * parallel and merging the sketches.
+     *
+     * @param key The series key.
+     * @param values The values, NaN (missing) being ignored.
+     */
+    public void addSeries(Comparable key, double[] values) {
+        int series = addSeries(key);
+        int chunks = (values.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    TDigest sketch = new TDigest();
+                    int end = Math.min((chunk + 1) * CHUNK_SIZE, values.length);
+                    for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                        sketch.add(values[i]);
+                    }
+                    return sketch;
+                })
+                .reduce((a, b) -> {
+                    a.add(b);
+                    return a;
+                })
+                .ifPresent(sketch -> sketches.get(series).add(sketch));
+    }
+
+    /**
+     * Get the sketch of a series.
+     *
+     * @param series The series index.
+     * @return The sketch.
+     */
+    public TDigest getSketch(int series) {
+        return sketches.get(series);
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return keys.size();
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return keys.get(series);
+    }
+
+    /**
+     * Create the histogram of the series, with bins of equal width shared
+     * by all series between the smallest and the largest value. The number
+     * of values in a bin is estimated from the sketch.
+     *
+     * @param bins The number of bins, or 0 or less for the number given by
+     * the Freedman-Diaconis rule on the values of all series, Sturges' rule
+     * when their interquartile range is 0.
+     * @return The histogram, one series per series, x being the middle of
+     * a bin and y the number of values in it.
+     */
+    public IntervalXYDataset createHistogramDataset(int bins) {
+        TDigest all = new TDigest();
+        for (TDigest sketch : sketches) {
+            all.add(sketch);
+        }
+
+        XYIntervalSeriesCollection dataset = new XYIntervalSeriesCollection();
+        double min = all.getMin();
+        double max = all.getMax();
+        if (all.getCount() == 0) {
+            for (Comparable key : keys) {
+                dataset.addSeries(new XYIntervalSeries(key, false, true));
+            }
+            return dataset;
+        }
+        if (bins <= 0) {
+            bins = getBinCount(all);
+        }
+        bins = Math.min(bins, MAX_BINS);
+        if (max == min) {
+            bins = 1;
+            min -= 0.5;
+            max += 0.5;
+        }
+
+        double width = (max - min) / bins;
+        double[] edges = new double[bins + 1];
+        for (int bin = 0; bin <= bins; bin++) {
+            edges[bin] = min + bin * width;
+        }
+        edges[bins] = max;
+
+        for (int series = 0; series < keys.size(); series++) {
+            TDigest sketch = sketches.get(series);
+            XYIntervalSeries histogram = new XYIntervalSeries(keys.get(series), false, true);
+            double below = 0;
+            for (int bin = 0; bin < bins; bin++) {
+                double upTo = sketch.getCount() == 0 || bin == bins - 1
+                        ? sketch.getCount() : sketch.cdf(edges[bin + 1]) * sketch.getCount();
+                double count = Math.max(Math.round(upTo) - Math.round(below), 0);
+                histogram.add((edges[bin] + edges[bin + 1]) / 2, edges[bin], edges[bin + 1], count, count, count);
+                below = upTo;
+            }
+            dataset.addSeries(histogram);
+        }
+        return dataset;
+    }
+
+    private static int getBinCount(TDigest sketch) {
+        double iqr = sketch.quantile(0.75) - sketch.quantile(0.25);
+        long count = sketch.getCount();
+        if (iqr > 0) {
+            double width = 2 * iqr / Math.cbrt(count);
+            double bins = Math.ceil((sketch.getMax() - sketch.getMin()) / width);
+            return (int) Math.max(Math.min(bins, MAX_BINS), 1);
+        }
+        return (int) Math.ceil(Math.log(count) / Math.log(2)) + 1;
+    }
+
+    /**
+     * Create the box-and-whisker items of the series, estimated from the
+     * sketches: the whiskers end at the Tukey fences, 1.5 times the
+     * interquartile range beyond the quartiles, or at the smallest and
+     * largest value when these are within the fences; these values are
+     * the outliers otherwise.
+     *
+     * @param columnKey The column key of the items.
+     * @return The dataset, one row per series.
+     */
+    public BoxAndWhiskerCategoryDataset createBoxAndWhiskerDataset(Comparable columnKey) {
+        DefaultBoxAndWhiskerCategoryDataset dataset = new DefaultBoxAndWhiskerCategoryDataset();
+        for (int series = 0; series < keys.size(); series++) {
+            TDigest sketch = sketches.get(series);
+            if (sketch.getCount() == 0) {
+                continue;
+            }
+            double min = sketch.getMin();
+            double max = sketch.getMax();
+            double q1 = sketch.quantile(0.25);
+            double q3 = sketch.quantile(0.75);
+            double fence = 1.5 * (q3 - q1);
+            double minRegular = Math.max(min, q1 - fence);
+            double maxRegular = Math.min(max, q3 + fence);
+            List<Double> outliers = new ArrayList<>(2);
+            if (min < minRegular) {
+                outliers.add(min);
+            }
+            if (max > maxRegular) {
+                outliers.add(max);
+            }
+            dataset.add(new BoxAndWhiskerItem(sketch.getMean(), sketch.quantile(0.5), q1, q3,
+                    minRegular, maxRegular, min, max, outliers), keys.get(series), columnKey);
+        }
+        return dataset;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive doubles, used while datasets are read.
+ */
+public class DoubleList {
+
+    private double[] values;
+    private int size;
+
+    public DoubleList() {
+        this(16);
+    }
+
+    public DoubleList(int capacity) {
+        this.values = new double[Math.max(capacity, 1)];
+    }
+
+    public void add(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Set a value, growing the list with NaN (missing) values when the index
+     * is beyond the current size.
+     *
+     * @param index The index of the value.
+     * @param value The value.
+     */
+    public void set(int index, double value) {
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(index + 1, values.length << 1));
+        }
+        if (index >= size) {
+            Arrays.fill(values, size, index, Double.NaN);
+            size = index + 1;
+        }
+        values[index] = value;
+    }
+
+    public double get(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Get a copy of the values, trimmed to the size of the list.
+     *
+     * @return The values.
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
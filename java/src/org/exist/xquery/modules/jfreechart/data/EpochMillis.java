@@ -0,0 +1,195 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+/**
+ * Parses points in time into milliseconds since the epoch, without
+ * creating calendar or date objects.
+ *
+ * Accepted are the lexical forms of xs:dateTime and xs:date, e.g.
+ * 2015-03-01T12:30:00.250+01:00 and 2015-03-01, also with a space instead
+ * of the T or without seconds, and plain numbers of milliseconds. Times without a timezone
+ * are taken as UTC.
+ */
+public final class EpochMillis {
+
+    /** Returned when text is not a date or date and time. */
+    public static final long NOT_A_DATE_TIME = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    private EpochMillis() {
+    }
+
+    /**
+     * Parse a point in time, either a date and time or a number of
+     * milliseconds.
+     *
+     * @param text The text, leading and trailing white space is ignored.
+     * @return The milliseconds since the epoch, NaN when the text is
+     * neither.
+     */
+    public static double parse(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        char[] chars = new char[end - start];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = text.charAt(start + i);
+        }
+        long millis = parseDateTime(chars, 0, chars.length);
+        if (millis != NOT_A_DATE_TIME) {
+            return millis;
+        }
+        try {
+            return Double.parseDouble(new String(chars));
+        } catch (NumberFormatException ex) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Parse a date or a date and time.
+     *
+     * @param chars The characters.
+     * @param start The index of the first character.
+     * @param end The index after the last character.
+     * @return The milliseconds since the epoch, or {@link #NOT_A_DATE_TIME}
+     * when the characters are not a date or a date and time.
+     */
+    public static long parseDateTime(char[] chars, int start, int end) {
+        int i = start;
+        boolean negativeYear = i < end && chars[i] == '-';
+        if (negativeYear) {
+            i++;
+        }
+        int yearStart = i;
+        long year = 0;
+        while (i < end && isDigit(chars[i]) && i - yearStart < 9) {
+            year = year * 10 + (chars[i++] - '0');
+        }
+        if (i - yearStart < 4 || i >= end || chars[i] != '-') {
+            return NOT_A_DATE_TIME;
+        }
+        if (negativeYear) {
+            year = -year;
+        }
+        int month = twoDigits(chars, i + 1, end);
+        if (month < 1 || month > 12 || i + 3 >= end || chars[i + 3] != '-') {
+            return NOT_A_DATE_TIME;
+        }
+        int day = twoDigits(chars, i + 4, end);
+        if (day < 1 || day > daysInMonth(year, month)) {
+            return NOT_A_DATE_TIME;
+        }
+        i += 6;
+
+        long millis = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+
+        if (i < end && (chars[i] == 'T' || chars[i] == ' ')) {
+            int hour = twoDigits(chars, i + 1, end);
+            int minute = i + 3 < end && chars[i + 3] == ':' ? twoDigits(chars, i + 4, end) : -1;
+            i += 6;
+            int second = 0;
+            boolean seconds = i < end && chars[i] == ':';
+            if (seconds) {
+                second = twoDigits(chars, i + 1, end);
+                i += 3;
+            }
+            if (hour < 0 || hour > 24 || minute < 0 || minute > 59 || second < 0 || second > 59
+                    || hour == 24 && (minute != 0 || second != 0)) {
+                return NOT_A_DATE_TIME;
+            }
+            millis += ((hour * 60L + minute) * 60L + second) * 1000L;
+
+            if (seconds && i < end && chars[i] == '.') {
+                i++;
+                int fractionStart = i;
+                int fraction = 0;
+                while (i < end && isDigit(chars[i])) {
+                    if (i - fractionStart < 3) {
+                        fraction = fraction * 10 + (chars[i] - '0');
+                    }
+                    i++;
+                }
+                if (i == fractionStart) {
+                    return NOT_A_DATE_TIME;
+                }
+                for (int digits = i - fractionStart; digits < 3; digits++) {
+                    fraction *= 10;
+                }
+                millis += fraction;
+            }
+        }
+
+        if (i < end && chars[i] == 'Z') {
+            i++;
+        } else if (i < end && (chars[i] == '+' || chars[i] == '-')) {
+            int hours = twoDigits(chars, i + 1, end);
+            int minutes = i + 3 < end && chars[i + 3] == ':' ? twoDigits(chars, i + 4, end) : -1;
+            if (hours < 0 || hours > 14 || minutes < 0 || minutes > 59) {
+                return NOT_A_DATE_TIME;
+            }
+            long offset = (hours * 60L + minutes) * 60000L;
+            millis += chars[i] == '+' ? -offset : offset;
+            i += 6;
+        }
+
+        return i == end ? millis : NOT_A_DATE_TIME;
+    }
+
+    private static int daysInMonth(long year, int month) {
+        if (month == 2) {
+            boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * The number of days from 1970-01-01 to a date of the proleptic
+     * Gregorian calendar, after Howard Hinnant's days_from_civil.
+     */
+    static long daysFromCivil(long year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int twoDigits(char[] chars, int i, int end) {
+        if (i + 1 >= end || !isDigit(chars[i]) || !isDigit(chars[i + 1])) {
+            return -1;
+        }
+        return (chars[i] - '0') * 10 + chars[i + 1] - '0';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
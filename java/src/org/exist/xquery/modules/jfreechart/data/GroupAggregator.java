@@ -0,0 +1,230 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Groups values by a row and a column key and aggregates each group into a
+ * category dataset, as a group by of a FLWOR expression would. The keys are
+ * numbered as they are added, in order of first appearance, which is the
+ * order of the rows and columns of the dataset. The groups are aggregated
+ * in partitions of records, in parallel for large inputs, each partition
+ * accumulating counts, sums and extremes in primitive arrays indexed
+ * through its own hash map of cells; the partitions are then merged.
+ */
+public class GroupAggregator {
+
+    /**
+     * The aggregation of the values of a group.
+     */
+    public enum Aggregation {
+        SUM, COUNT, AVG, MIN, MAX;
+
+        /**
+         * Get an aggregation by name, ignoring case.
+         *
+         * @param name The name: sum, count, avg, min or max.
+         * @return The aggregation, null when the name is unknown.
+         */
+        public static Aggregation forName(String name) {
+            for (Aggregation aggregation : values()) {
+                if (aggregation.name().equalsIgnoreCase(name)) {
+                    return aggregation;
+                }
+            }
+            return null;
+        }
+    }
+
+    // records aggregated by one task
+    private static final int PARTITION_SIZE = 1 << 16;
+
+    private final Aggregation aggregation;
+    private final ArrayCategoryDataset keys = new ArrayCategoryDataset();
+    private int[] rows = new int[1024];
+    private int[] columns = new int[1024];
+    private final DoubleList values = new DoubleList(1024);
+
+    public GroupAggregator(Aggregation aggregation) {
+        this.aggregation = aggregation;
+    }
+
+    /**
+     * Add a record.
+     *
+     * @param rowKey The row key.
+     * @param columnKey The column key.
+     * @param value The value, NaN when missing, which is counted but left
+     * out of the other aggregations.
+     */
+    public void add(Comparable rowKey, Comparable columnKey, double value) {
+        int size = values.size();
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size * 2);
+            columns = Arrays.copyOf(columns, size * 2);
+        }
+        rows[size] = keys.addRowKey(rowKey);
+        columns[size] = keys.addColumnKey(columnKey);
+        values.add(value);
+    }
+
+    /**
+     * Get the number of records.
+     */
+    public int getRecordCount() {
+        return values.size();
+    }
+
+    /**
+     * Aggregate the groups.
+     *
+     * @return The dataset holding the aggregate of each group, with NaN for
+     * the cells without records and for groups without values to aggregate.
+     */
+    public ArrayCategoryDataset getDataset() {
+        int count = values.size();
+        int columnCount = keys.getColumnCount();
+        double[] recordValues = values.toArray();
+        int partitions = (count + PARTITION_SIZE - 1) / PARTITION_SIZE;
+
+        IntStream tasks = IntStream.range(0, partitions);
+        if (partitions > 1) {
+            tasks = tasks.parallel();
+        }
+        Accumulators total = tasks
+                .mapToObj(partition -> {
+                    Accumulators accumulators = new Accumulators();
+                    int end = Math.min((partition + 1) * PARTITION_SIZE, count);
+                    for (int i = partition * PARTITION_SIZE; i < end; i++) {
+                        accumulators.add(accumulators.slot((long) rows[i] * columnCount + columns[i]),
+                                recordValues[i]);
+                    }
+                    return accumulators;
+                })
+                .reduce(Accumulators::merge)
+                .orElseGet(Accumulators::new);
+
+        ArrayCategoryDataset dataset = new ArrayCategoryDataset();
+        for (int row = 0; row < keys.getRowCount(); row++) {
+            dataset.addRowKey(keys.getRowKey(row));
+        }
+        for (int column = 0; column < columnCount; column++) {
+            dataset.addColumnKey(keys.getColumnKey(column));
+        }
+        for (int slot = 0; slot < total.size; slot++) {
+            long cell = total.cells[slot];
+            dataset.setValue((int) (cell / columnCount), (int) (cell % columnCount), total.get(slot, aggregation));
+        }
+        return dataset;
+    }
+
+    /**
+     * The counts, sums and extremes of the cells of a partition, in slots
+     * numbered as the cells are met.
+     */
+    private static class Accumulators {
+
+        private final Map<Long, Integer> slots = new HashMap<>();
+        private long[] cells = new long[16];
+        private long[] records = new long[16];
+        private long[] counts = new long[16];
+        private double[] sums = new double[16];
+        private double[] mins = new double[16];
+        private double[] maxs = new double[16];
+        private int size;
+
+        // the slot of the last cell, as records of a cell often come together
+        private long lastCell = -1;
+        private int lastSlot;
+
+        int slot(long cell) {
+            if (cell == lastCell) {
+                return lastSlot;
+            }
+            Integer slot = slots.get(cell);
+            if (slot == null) {
+                slot = size++;
+                if (slot == cells.length) {
+                    int capacity = slot * 2;
+                    cells = Arrays.copyOf(cells, capacity);
+                    records = Arrays.copyOf(records, capacity);
+                    counts = Arrays.copyOf(counts, capacity);
+                    sums = Arrays.copyOf(sums, capacity);
+                    mins = Arrays.copyOf(mins, capacity);
+                    maxs = Arrays.copyOf(maxs, capacity);
+                }
+                cells[slot] = cell;
+                mins[slot] = Double.POSITIVE_INFINITY;
+                maxs[slot] = Double.NEGATIVE_INFINITY;
+                slots.put(cell, slot);
+            }
+            lastCell = cell;
+            lastSlot = slot;
+            return slot;
+        }
+
+        void add(int slot, double value) {
+            records[slot]++;
+            if (!Double.isNaN(value)) {
+                counts[slot]++;
+                sums[slot] += value;
+                if (value < mins[slot]) {
+                    mins[slot] = value;
+                }
+                if (value > maxs[slot]) {
+                    maxs[slot] = value;
+                }
+            }
+        }
+
+        Accumulators merge(Accumulators other) {
+            for (int from = 0; from < other.size; from++) {
+                int to = slot(other.cells[from]);
+                records[to] += other.records[from];
+                counts[to] += other.counts[from];
+                sums[to] += other.sums[from];
+                mins[to] = Math.min(mins[to], other.mins[from]);
+                maxs[to] = Math.max(maxs[to], other.maxs[from]);
+            }
+            return this;
+        }
+
+        double get(int slot, Aggregation aggregation) {
+            switch (aggregation) {
+                case COUNT:
+                    return records[slot];
+                case SUM:
+                    return counts[slot] > 0 ? sums[slot] : Double.NaN;
+                case AVG:
+                    return counts[slot] > 0 ? sums[slot] / counts[slot] : Double.NaN;
+                case MIN:
+                    return counts[slot] > 0 ? mins[slot] : Double.NaN;
+                case MAX:
+                default:
+                    return counts[slot] > 0 ? maxs[slot] : Double.NaN;
+            }
+        }
+    }
+}
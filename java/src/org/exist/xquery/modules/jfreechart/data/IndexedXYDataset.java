@@ -0,0 +1,571 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.Arrays;
+import java.util.List;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+/**
+ * An immutable XY dataset indexed for windows of the domain: the items of
+ * each series are sorted by x, and a pyramid of the minimum and maximum y
+ * per block of items, doubling the block size per level, answers the y
+ * bounds of any item range in logarithmic time. A window of the domain is
+ * found by binary search and reduced to the points drawn per pixel column
+ * without touching the items in between.
+ *
+ * Items with a missing x value are dropped, missing y values are kept as
+ * NaN.
+ */
+public class IndexedXYDataset extends AbstractXYDataset
+        implements DomainInfo, RangeInfo, XYDomainInfo, XYRangeInfo {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    // items per block of the lowest pyramid level
+    private static final int BLOCK_SIZE = 64;
+
+    private final Comparable[] keys;
+    private final Series[] series;
+
+    /**
+     * Index the series of a dataset. The values are copied.
+     *
+     * @param dataset The dataset, in any item order.
+     */
+    public IndexedXYDataset(XYDataset dataset) {
+        int seriesCount = dataset.getSeriesCount();
+        this.keys = new Comparable[seriesCount];
+        this.series = new Series[seriesCount];
+        for (int s = 0; s < seriesCount; s++) {
+            keys[s] = dataset.getSeriesKey(s);
+            series[s] = new Series(dataset, s);
+        }
+    }
+
+    @Override
+    public void addChangeListener(DatasetChangeListener listener) {
+        // immutable, no events are ever sent
+    }
+
+    @Override
+    public void removeChangeListener(DatasetChangeListener listener) {
+        // immutable, no events are ever sent
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return keys.length;
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return keys[series];
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return this.series[series].x.length;
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return this.series[series].x[item];
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return this.series[series].y[item];
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return this.series[series].x[item];
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        double y = this.series[series].y[item];
+        return Double.isNaN(y) ? null : y;
+    }
+
+    /**
+     * Get the index of the first item of a series with an x value not
+     * below a value.
+     *
+     * @param series The series index.
+     * @param x The value.
+     * @return The item index, the item count when all x values are below.
+     */
+    public int indexOf(int series, double x) {
+        return this.series[series].lowerIndex(x);
+    }
+
+    /**
+     * Get the items within a window of the domain, with the items next to
+     * the window so lines run on to the edges of the plot. The bounds of the
+     * window are those of the whole dataset.
+     *
+     * @param lower The lower bound of the window.
+     * @param upper The upper bound of the window.
+     * @return The items, in a new dataset.
+     */
+    public ArrayXYDataset window(double lower, double upper) {
+        ArrayXYDataset result = new Window();
+        for (int s = 0; s < series.length; s++) {
+            Series data = series[s];
+            int from = Math.max(data.lowerIndex(lower) - 1, 0);
+            int to = Math.min(data.upperIndex(upper) + 1, data.x.length);
+            result.addSeries(keys[s], Arrays.copyOfRange(data.x, from, Math.max(from, to)),
+                    Arrays.copyOfRange(data.y, from, Math.max(from, to)));
+        }
+        return result;
+    }
+
+    /**
+     * Get a window of the domain reduced with M4: of each pixel column the
+     * first, last, minimum and maximum point are kept, and the first
+     * missing value as a gap. The minimum and maximum are found in the
+     * pyramid, so the time taken depends on the number of columns, not of
+     * items. Series of at most four items per column are copied as they
+     * are. The bounds of the window are those of the whole dataset.
+     *
+     * @param lower The lower bound of the window.
+     * @param upper The upper bound of the window.
+     * @param columns The number of pixel columns along the domain axis.
+     * @return The points, in a new dataset.
+     */
+    public ArrayXYDataset window(double lower, double upper, int columns) {
+        if (!(upper > lower) || columns < 1) {
+            return window(lower, upper);
+        }
+        ArrayXYDataset result = new Window();
+        DoubleList x = new DoubleList(4 * columns + 8);
+        DoubleList y = new DoubleList(4 * columns + 8);
+        Extremes extremes = new Extremes();
+        int[] selected = new int[5];
+        for (int s = 0; s < series.length; s++) {
+            Series data = series[s];
+            int from = data.lowerIndex(lower);
+            int to = data.upperIndex(upper);
+            if (to - from <= 4 * columns) {
+                from = Math.max(from - 1, 0);
+                to = Math.min(to + 1, data.x.length);
+                result.addSeries(keys[s], Arrays.copyOfRange(data.x, from, Math.max(from, to)),
+                        Arrays.copyOfRange(data.y, from, Math.max(from, to)));
+                continue;
+            }
+
+            x.clear();
+            y.clear();
+            if (from > 0) {
+                x.add(data.x[from - 1]);
+                y.add(data.y[from - 1]);
+            }
+            double width = (upper - lower) / columns;
+            int start = from;
+            for (int c = 0; c < columns; c++) {
+                int end = c == columns - 1 ? to : Math.max(data.lowerIndex(lower + (c + 1) * width), start);
+                if (end > start) {
+                    data.extremes(start, end, extremes);
+                    int count = 0;
+                    selected[count++] = start;
+                    selected[count++] = end - 1;
+                    if (extremes.min >= 0) {
+                        selected[count++] = extremes.min;
+                        selected[count++] = extremes.max;
+                    }
+                    if (extremes.gap >= 0) {
+                        selected[count++] = extremes.gap;
+                    }
+                    Arrays.sort(selected, 0, count);
+                    for (int k = 0; k < count; k++) {
+                        if (k == 0 || selected[k] != selected[k - 1]) {
+                            x.add(data.x[selected[k]]);
+                            y.add(data.y[selected[k]]);
+                        }
+                    }
+                }
+                start = end;
+            }
+            if (to < data.x.length) {
+                x.add(data.x[to]);
+                y.add(data.y[to]);
+            }
+            result.addSeries(keys[s], x.toArray(), y.toArray());
+        }
+        return result;
+    }
+
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        return getDomainBounds(null, includeInterval);
+    }
+
+    @Override
+    public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (int s = 0; s < series.length; s++) {
+            if (series[s].x.length > 0 && (visibleSeriesKeys == null || visibleSeriesKeys.contains(keys[s]))) {
+                lower = Math.min(lower, series[s].x[0]);
+                upper = Math.max(upper, series[s].x[series[s].x.length - 1]);
+            }
+        }
+        return lower <= upper ? new Range(lower, upper) : null;
+    }
+
+    @Override
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    @Override
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        return getRangeBounds(null, null, includeInterval);
+    }
+
+    /**
+     * The y bounds of the visible series within an x range, from the
+     * pyramid.
+     */
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        Extremes extremes = new Extremes();
+        for (int s = 0; s < series.length; s++) {
+            if (visibleSeriesKeys != null && !visibleSeriesKeys.contains(keys[s])) {
+                continue;
+            }
+            Series data = series[s];
+            int from = xRange == null ? 0 : data.lowerIndex(xRange.getLowerBound());
+            int to = xRange == null ? data.x.length : data.upperIndex(xRange.getUpperBound());
+            if (to > from) {
+                data.extremes(from, to, extremes);
+                if (extremes.min >= 0) {
+                    lower = Math.min(lower, data.y[extremes.min]);
+                    upper = Math.max(upper, data.y[extremes.max]);
+                }
+            }
+        }
+        return lower <= upper ? new Range(lower, upper) : null;
+    }
+
+    /**
+     * The items of a window, with the bounds of the whole dataset, so the
+     * axes of a chart of the window come out as for the whole dataset with
+     * the same domain bounds.
+     */
+    private class Window extends ArrayXYDataset implements DomainInfo, RangeInfo, XYDomainInfo, XYRangeInfo {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public double getDomainLowerBound(boolean includeInterval) {
+            return IndexedXYDataset.this.getDomainLowerBound(includeInterval);
+        }
+
+        @Override
+        public double getDomainUpperBound(boolean includeInterval) {
+            return IndexedXYDataset.this.getDomainUpperBound(includeInterval);
+        }
+
+        @Override
+        public Range getDomainBounds(boolean includeInterval) {
+            return IndexedXYDataset.this.getDomainBounds(includeInterval);
+        }
+
+        @Override
+        public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+            return IndexedXYDataset.this.getDomainBounds(visibleSeriesKeys, includeInterval);
+        }
+
+        @Override
+        public double getRangeLowerBound(boolean includeInterval) {
+            return IndexedXYDataset.this.getRangeLowerBound(includeInterval);
+        }
+
+        @Override
+        public double getRangeUpperBound(boolean includeInterval) {
+            return IndexedXYDataset.this.getRangeUpperBound(includeInterval);
+        }
+
+        @Override
+        public Range getRangeBounds(boolean includeInterval) {
+            return IndexedXYDataset.this.getRangeBounds(includeInterval);
+        }
+
+        @Override
+        public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+            return IndexedXYDataset.this.getRangeBounds(visibleSeriesKeys, xRange, includeInterval);
+        }
+    }
+
+    /**
+     * The item indexes of the minimum, maximum and first missing y value of
+     * an item range, -1 when there is none.
+     */
+    private static class Extremes {
+
+        private int min;
+        private int max;
+        private int gap;
+
+        void reset() {
+            min = -1;
+            max = -1;
+            gap = -1;
+        }
+
+        void add(double[] y, int minIndex, int maxIndex, int gapIndex) {
+            if (minIndex >= 0) {
+                if (min < 0 || y[minIndex] < y[min]) {
+                    min = minIndex;
+                }
+                if (max < 0 || y[maxIndex] > y[max]) {
+                    max = maxIndex;
+                }
+            }
+            if (gapIndex >= 0 && (gap < 0 || gapIndex < gap)) {
+                gap = gapIndex;
+            }
+        }
+    }
+
+    /**
+     * The sorted values of a series and their pyramid. Level 0 holds the
+     * item indexes of the minimum, maximum and first missing y value of
+     * every block of BLOCK_SIZE items, each higher level those of pairs of
+     * blocks of the level below.
+     */
+    private static class Series {
+
+        private final double[] x;
+        private final double[] y;
+        private final int[][] min;
+        private final int[][] max;
+        private final int[][] gap;
+
+        Series(XYDataset dataset, int series) {
+            int n = dataset.getItemCount(series);
+            int[] order = new int[n];
+            double[] xs = new double[n];
+            int count = 0;
+            boolean sorted = true;
+            for (int i = 0; i < n; i++) {
+                double xi = dataset.getXValue(series, i);
+                if (Double.isNaN(xi)) {
+                    continue;
+                }
+                sorted &= count == 0 || xs[count - 1] <= xi;
+                order[count] = i;
+                xs[count++] = xi;
+            }
+            x = new double[count];
+            y = new double[count];
+            if (sorted) {
+                for (int i = 0; i < count; i++) {
+                    x[i] = xs[i];
+                    y[i] = dataset.getYValue(series, order[i]);
+                }
+            } else {
+                // stable sort of the item indexes by x
+                Integer[] items = new Integer[count];
+                for (int i = 0; i < count; i++) {
+                    items[i] = i;
+                }
+                Arrays.sort(items, (a, b) -> Double.compare(xs[a], xs[b]));
+                for (int i = 0; i < count; i++) {
+                    x[i] = xs[items[i]];
+                    y[i] = dataset.getYValue(series, order[items[i]]);
+                }
+            }
+
+            int levels = 1;
+            for (long blocks = (count + BLOCK_SIZE - 1) / BLOCK_SIZE; blocks > 1; blocks = (blocks + 1) / 2) {
+                levels++;
+            }
+            min = new int[levels][];
+            max = new int[levels][];
+            gap = new int[levels][];
+            build();
+        }
+
+        private void build() {
+            int blocks = (x.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            min[0] = new int[blocks];
+            max[0] = new int[blocks];
+            gap[0] = new int[blocks];
+            for (int b = 0; b < blocks; b++) {
+                int lo = -1;
+                int hi = -1;
+                int missing = -1;
+                for (int i = b * BLOCK_SIZE, end = Math.min(i + BLOCK_SIZE, y.length); i < end; i++) {
+                    if (Double.isNaN(y[i])) {
+                        if (missing < 0) {
+                            missing = i;
+                        }
+                    } else {
+                        if (lo < 0 || y[i] < y[lo]) {
+                            lo = i;
+                        }
+                        if (hi < 0 || y[i] > y[hi]) {
+                            hi = i;
+                        }
+                    }
+                }
+                min[0][b] = lo;
+                max[0][b] = hi;
+                gap[0][b] = missing;
+            }
+
+            for (int level = 1; level < min.length; level++) {
+                int[] lowerMin = min[level - 1];
+                int[] lowerMax = max[level - 1];
+                int[] lowerGap = gap[level - 1];
+                blocks = (lowerMin.length + 1) / 2;
+                min[level] = new int[blocks];
+                max[level] = new int[blocks];
+                gap[level] = new int[blocks];
+                for (int b = 0; b < blocks; b++) {
+                    int left = 2 * b;
+                    int right = Math.min(left + 1, lowerMin.length - 1);
+                    min[level][b] = pick(lowerMin[left], lowerMin[right], true);
+                    max[level][b] = pick(lowerMax[left], lowerMax[right], false);
+                    gap[level][b] = lowerGap[left] >= 0 ? lowerGap[left] : lowerGap[right];
+                }
+            }
+        }
+
+        private int pick(int a, int b, boolean lowest) {
+            if (a < 0) {
+                return b;
+            }
+            if (b < 0) {
+                return a;
+            }
+            return (lowest ? y[b] < y[a] : y[b] > y[a]) ? b : a;
+        }
+
+        /**
+         * The index of the first item with x not below a value.
+         */
+        int lowerIndex(double value) {
+            int lo = 0;
+            int hi = x.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (x[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * The index of the first item with x above a value.
+         */
+        int upperIndex(double value) {
+            int lo = 0;
+            int hi = x.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (x[mid] <= value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Find the extremes of the items from (inclusive) to (exclusive):
+         * the partial blocks at both ends item by item, the whole blocks in
+         * between with at most two pyramid entries per level.
+         */
+        void extremes(int from, int to, Extremes result) {
+            result.reset();
+            int firstBlock = (from + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            int lastBlock = to / BLOCK_SIZE;
+            if (firstBlock >= lastBlock) {
+                scan(from, to, result);
+                return;
+            }
+            scan(from, firstBlock * BLOCK_SIZE, result);
+            scan(lastBlock * BLOCK_SIZE, to, result);
+
+            for (int level = 0; firstBlock < lastBlock; level++) {
+                if ((firstBlock & 1) != 0) {
+                    result.add(y, min[level][firstBlock], max[level][firstBlock], gap[level][firstBlock]);
+                    firstBlock++;
+                }
+                if ((lastBlock & 1) != 0) {
+                    lastBlock--;
+                    result.add(y, min[level][lastBlock], max[level][lastBlock], gap[level][lastBlock]);
+                }
+                firstBlock >>= 1;
+                lastBlock >>= 1;
+            }
+        }
+
+        private void scan(int from, int to, Extremes result) {
+            for (int i = from; i < to; i++) {
+                if (Double.isNaN(y[i])) {
+                    result.add(y, -1, -1, i);
+                } else {
+                    result.add(y, i, i, -1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.exist.xquery.XPathException;
+import org.exist.xquery.functions.array.ArrayType;
+import org.exist.xquery.functions.map.AbstractMapType;
+import org.exist.xquery.modules.jfreechart.DatasetType;
+import org.exist.xquery.value.AtomicValue;
+import org.exist.xquery.value.Item;
+import org.exist.xquery.value.NumericValue;
+import org.exist.xquery.value.Sequence;
+import org.exist.xquery.value.SequenceIterator;
+import org.exist.xquery.value.Type;
+import org.jfree.data.general.Dataset;
+import org.jfree.data.xy.XYZDataset;
+
+/**
+ * Reads datasets from XQuery 3.1 maps and arrays, directly into double[]
+ * backed datasets without constructing nodes.
+ *
+ * The layouts:
+ * <pre>
+ * PieDataset       map { key: value }
+ * CategoryDataset  map { rowKey: map { columnKey: value } }
+ * XYDataset        map { seriesKey: [ x-values, y-values ] }
+ * XYZDataset       map { seriesKey: [ x-values, y-values, z-values ] }
+ * Matrix           map { seriesKey: [ [ row-values ], [ row-values ], ... ] }
+ * TimeSeries       map { seriesKey: [ points-in-time, values ] }
+ * Distribution     map { seriesKey: raw-values }
+ * OHLC             map { seriesKey: [ points-in-time, values (, volumes) ] }
+ * </pre>
+ *
+ * Points in time are xs:dateTime or xs:date values, or strings in their
+ * lexical form, or numbers of milliseconds since the epoch. The raw values
+ * of a distribution are a sequence or an array of numbers. A matrix is read
+ * as an XYZDataset of a single series, with the column index as x value and
+ * the row index as y value; its rows are arrays of equal size. The ticks of OHLC
+ * series are bucketed into bars of the period given to the reader.
+ *
+ * Entries of a map are read in the order of their keys. To keep a given
+ * order, an array of maps can be supplied instead of a map, e.g.
+ * [ map { "Jan": 1 }, map { "Feb": 2 } ]; the entries are then read in array
+ * order.
+ */
+public class MapDatasetReader {
+
+    private final long ohlcPeriod;
+
+    public MapDatasetReader() {
+        this(OHLCBars.DEFAULT_PERIOD);
+    }
+
+    /**
+     * @param ohlcPeriod The period of OHLC bars, in milliseconds.
+     */
+    public MapDatasetReader(long ohlcPeriod) {
+        this.ohlcPeriod = ohlcPeriod;
+    }
+
+    /**
+     * Read a dataset.
+     *
+     * @param type The type of the dataset.
+     * @param data The map or array holding the data.
+     * @return The dataset.
+     * @throws XPathException Thrown when the data does not have the layout of
+     * the dataset type.
+     */
+    public Dataset read(DatasetType type, Item data) throws XPathException {
+        List<Entry> entries = getEntries(data);
+        switch (type) {
+            case PIE:
+                return readPie(entries);
+            case CATEGORY:
+                return readCategory(entries);
+            case XYZ:
+                return readXYZ(entries);
+            case TIME_SERIES:
+                return readTimeSeries(entries);
+            case DISTRIBUTION:
+                return readDistribution(entries);
+            case OHLC:
+                return readOHLC(entries);
+            case XY:
+            default:
+                return readXY(entries);
+        }
+    }
+
+    private ArrayPieDataset readPie(List<Entry> entries) throws XPathException {
+        ArrayPieDataset dataset = new ArrayPieDataset();
+        for (Entry entry : entries) {
+            dataset.setValue(entry.key, toDouble(entry.key, entry.value));
+        }
+        return dataset;
+    }
+
+    private ArrayCategoryDataset readCategory(List<Entry> entries) throws XPathException {
+        ArrayCategoryDataset dataset = new ArrayCategoryDataset();
+        for (Entry row : entries) {
+            if (!row.value.hasOne()) {
+                throw new XPathException(MessageFormat.format("Row \"{0}\" must be a map of column keys to values", row.key));
+            }
+            int rowIndex = dataset.addRowKey(row.key);
+            for (Entry column : getEntries(row.value.itemAt(0))) {
+                int columnIndex = dataset.addColumnKey(column.key);
+                dataset.setValue(rowIndex, columnIndex, toDouble(column.key, column.value));
+            }
+        }
+        return dataset;
+    }
+
+    private ArrayXYDataset readXY(List<Entry> entries) throws XPathException {
+        ArrayXYDataset dataset = new ArrayXYDataset();
+        for (Entry series : entries) {
+            double[][] columns = getColumns(series, 2, false);
+            dataset.addSeries(series.key, columns[0], columns[1]);
+        }
+        return dataset;
+    }
+
+    private XYZDataset readXYZ(List<Entry> entries) throws XPathException {
+        if (entries.size() == 1 && isMatrix(entries.get(0))) {
+            return readMatrix(entries.get(0));
+        }
+        ArrayXYZDataset dataset = new ArrayXYZDataset();
+        for (Entry series : entries) {
+            double[][] columns = getColumns(series, 3, false);
+            dataset.addSeries(series.key, columns[0], columns[1], columns[2]);
+        }
+        return dataset;
+    }
+
+    /**
+     * Whether a series is an array of arrays, the rows of a matrix.
+     */
+    private boolean isMatrix(Entry series) {
+        if (!series.value.hasOne() || series.value.getItemType() != Type.ARRAY) {
+            return false;
+        }
+        ArrayType array = (ArrayType) series.value.itemAt(0);
+        return array.getSize() > 0 && array.get(0).hasOne() && array.get(0).getItemType() == Type.ARRAY;
+    }
+
+    private MatrixDataset readMatrix(Entry series) throws XPathException {
+        ArrayType rows = (ArrayType) series.value.itemAt(0);
+        int columns = -1;
+        DoubleList values = new DoubleList(rows.getSize());
+        for (int r = 0; r < rows.getSize(); r++) {
+            Sequence row = rows.get(r);
+            if (!row.hasOne() || row.getItemType() != Type.ARRAY
+                    || columns >= 0 && ((ArrayType) row.itemAt(0)).getSize() != columns) {
+                throw new XPathException(MessageFormat.format("The rows of matrix \"{0}\" must be arrays of equal size",
+                        series.key));
+            }
+            ArrayType cells = (ArrayType) row.itemAt(0);
+            columns = cells.getSize();
+            for (int c = 0; c < columns; c++) {
+                Sequence cell = cells.get(c);
+                values.add(cell.isEmpty() ? Double.NaN : toDouble(series.key, cell));
+            }
+        }
+        return new MatrixDataset(series.key, values.toArray(), columns);
+    }
+
+    private ArrayTimeSeriesDataset readTimeSeries(List<Entry> entries) throws XPathException {
+        ArrayTimeSeriesDataset dataset = new ArrayTimeSeriesDataset();
+        for (Entry series : entries) {
+            double[][] columns = getColumns(series, 2, true);
+            dataset.addSeries(series.key, columns[0], columns[1]);
+        }
+        return dataset;
+    }
+
+    private DistributionDataset readDistribution(List<Entry> entries) throws XPathException {
+        DistributionDataset dataset = new DistributionDataset();
+        for (Entry series : entries) {
+            if (series.value.hasOne() && series.value.getItemType() == Type.ARRAY) {
+                ArrayType array = (ArrayType) series.value.itemAt(0);
+                DoubleList values = new DoubleList(array.getSize());
+                for (int i = 0; i < array.getSize(); i++) {
+                    for (double value : toDoubles(array.get(i))) {
+                        values.add(value);
+                    }
+                }
+                dataset.addSeries(series.key, values.toArray());
+            } else {
+                dataset.addSeries(series.key, toDoubles(series.value));
+            }
+        }
+        return dataset;
+    }
+
+    private ArrayOHLCDataset readOHLC(List<Entry> entries) throws XPathException {
+        OHLCBars bars = new OHLCBars(ohlcPeriod);
+        for (Entry series : entries) {
+            boolean volumes = series.value.hasOne() && series.value.getItemType() == Type.ARRAY
+                    && ((ArrayType) series.value.itemAt(0)).getSize() == 3;
+            double[][] columns = getColumns(series, volumes ? 3 : 2, true);
+            int index = bars.addSeries(series.key);
+            for (int i = 0; i < columns[0].length; i++) {
+                bars.addTick(index, columns[0][i], columns[1][i], volumes ? columns[2][i] : Double.NaN);
+            }
+        }
+        return bars.getDataset();
+    }
+
+    /**
+     * Get the columns of a series, an array holding a sequence of values
+     * per dimension. With time, the first sequence holds points in time.
+     */
+    private double[][] getColumns(Entry series, int dimensions, boolean time) throws XPathException {
+        if (!series.value.hasOne() || series.value.getItemType() != Type.ARRAY
+                || ((ArrayType) series.value.itemAt(0)).getSize() != dimensions) {
+            throw new XPathException(MessageFormat.format("Series \"{0}\" must be an array of {1} sequences of values",
+                    series.key, dimensions));
+        }
+        ArrayType array = (ArrayType) series.value.itemAt(0);
+
+        double[][] columns = new double[dimensions][];
+        for (int d = 0; d < dimensions; d++) {
+            columns[d] = time && d == 0 ? toMillis(array.get(d)) : toDoubles(array.get(d));
+            if (columns[d].length != columns[0].length) {
+                throw new XPathException(MessageFormat.format("The sequences of series \"{0}\" differ in length", series.key));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Get the entries of a map, ordered by key, or of an array of maps, in
+     * array order.
+     */
+    private List<Entry> getEntries(Item data) throws XPathException {
+        List<Entry> entries = new ArrayList<>();
+        if (data.getType() == Type.MAP) {
+            addEntries((AbstractMapType) data, entries);
+
+        } else if (data.getType() == Type.ARRAY) {
+            ArrayType array = (ArrayType) data;
+            for (int i = 0; i < array.getSize(); i++) {
+                Sequence member = array.get(i);
+                if (!member.hasOne() || member.getItemType() != Type.MAP) {
+                    throw new XPathException("Chart data arrays must hold maps");
+                }
+                addEntries((AbstractMapType) member.itemAt(0), entries);
+            }
+
+        } else {
+            throw new XPathException("Chart data must be a map or an array of maps, found "
+                    + Type.getTypeName(data.getType()));
+        }
+        return entries;
+    }
+
+    private void addEntries(AbstractMapType map, List<Entry> entries) throws XPathException {
+        List<AtomicValue> keys = new ArrayList<>(map.size());
+        for (SequenceIterator i = map.keys().iterate(); i.hasNext(); ) {
+            keys.add((AtomicValue) i.nextItem());
+        }
+        Collections.sort(keys, KEY_ORDER);
+
+        for (AtomicValue key : keys) {
+            entries.add(new Entry(key.getStringValue(), map.get(key)));
+        }
+    }
+
+    private double toDouble(String key, Sequence value) throws XPathException {
+        if (!value.hasOne()) {
+            throw new XPathException(MessageFormat.format("Value of \"{0}\" must be a single number", key));
+        }
+        return toDouble(value.itemAt(0));
+    }
+
+    private double[] toDoubles(Sequence values) throws XPathException {
+        double[] result = new double[values.getItemCount()];
+        int index = 0;
+        for (SequenceIterator i = values.iterate(); i.hasNext(); ) {
+            result[index++] = toDouble(i.nextItem());
+        }
+        return result;
+    }
+
+    /**
+     * Convert points in time to milliseconds since the epoch, NaN for items
+     * which are not a point in time.
+     */
+    private double[] toMillis(Sequence values) throws XPathException {
+        double[] result = new double[values.getItemCount()];
+        int index = 0;
+        for (SequenceIterator i = values.iterate(); i.hasNext(); ) {
+            Item item = i.nextItem();
+            result[index++] = item instanceof NumericValue
+                    ? ((NumericValue) item).getDouble() : EpochMillis.parse(item.getStringValue());
+        }
+        return result;
+    }
+
+    private double toDouble(Item item) throws XPathException {
+        if (item instanceof NumericValue) {
+            return ((NumericValue) item).getDouble();
+        }
+        return ((NumericValue) item.convertTo(Type.DOUBLE)).getDouble();
+    }
+
+    /**
+     * Numeric keys in numeric order, before the other keys in string order.
+     */
+    private static final Comparator<AtomicValue> KEY_ORDER = (a, b) -> {
+        boolean numericA = a instanceof NumericValue;
+        boolean numericB = b instanceof NumericValue;
+        if (numericA != numericB) {
+            return numericA ? -1 : 1;
+        }
+        return numericA ? Double.compare(doubleKey(a), doubleKey(b)) : stringKey(a).compareTo(stringKey(b));
+    };
+
+    private static double doubleKey(AtomicValue key) {
+        try {
+            return ((NumericValue) key).getDouble();
+        } catch (XPathException ex) {
+            return Double.NaN;
+        }
+    }
+
+    private static String stringKey(AtomicValue key) {
+        try {
+            return key.getStringValue();
+        } catch (XPathException ex) {
+            return "";
+        }
+    }
+
+    private static class Entry {
+
+        private final String key;
+        private final Sequence value;
+
+        Entry(String key, Sequence value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
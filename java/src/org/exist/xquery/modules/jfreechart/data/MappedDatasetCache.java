@@ -0,0 +1,129 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Cache of datasets backed by memory mapped files in the packed binary
+ * format, see {@link PackedDatasetReader}. The values stay off-heap; a file
+ * is mapped once and the dataset is shared by all renders until the file
+ * changes. The least recently used files are evicted beyond the capacity,
+ * and files found deleted are evicted at once; a mapping is released when
+ * its dataset is no longer referenced by a chart.
+ */
+public class MappedDatasetCache {
+
+    private final static Logger logger = LogManager.getLogger(MappedDatasetCache.class);
+
+    /** The number of files kept mapped. */
+    public static final int CAPACITY = 64;
+
+    private static final Map<Path, Entry> cache = new LinkedHashMap<Path, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, MappedDatasetCache.Entry> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    /**
+     * Get the dataset of a packed binary file, mapping the file when it is
+     * not cached yet or was modified since it was mapped.
+     *
+     * @param file The file.
+     * @return The dataset.
+     * @throws IOException Thrown when the file cannot be mapped or does not
+     * hold packed data.
+     */
+    public static PackedXYDataset getDataset(Path file) throws IOException {
+        final Path path = file.toAbsolutePath().normalize();
+        final long size;
+        final long lastModified;
+        try {
+            size = Files.size(path);
+            lastModified = Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException ex) {
+            remove(path);
+            throw ex;
+        }
+
+        synchronized (cache) {
+            Entry entry = cache.get(path);
+            if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+                return entry.dataset;
+            }
+        }
+
+        // mapped outside the lock, a concurrent mapping of the same file is
+        // only wasted work
+        Entry entry = new Entry(map(path, size), size, lastModified);
+        synchronized (cache) {
+            cache.put(path, entry);
+        }
+        return entry.dataset;
+    }
+
+    /**
+     * Remove a file from the cache. The mapping is released when the
+     * dataset is no longer referenced by a chart.
+     *
+     * @param file The file.
+     */
+    public static void remove(Path file) {
+        synchronized (cache) {
+            cache.remove(file.toAbsolutePath().normalize());
+        }
+    }
+
+    private static PackedXYDataset map(Path path, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Packed data file is larger than 2GB: " + path);
+        }
+        logger.debug("Mapping " + path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return PackedDatasetReader.read(buffer);
+        }
+    }
+
+    private static class Entry {
+
+        private final PackedXYDataset dataset;
+        private final long size;
+        private final long lastModified;
+
+        Entry(PackedXYDataset dataset, long size, long lastModified) {
+            this.dataset = dataset;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.AbstractXYZDataset;
+
+/**
+ * A dense matrix of values as an XYZ dataset of a single series: the item
+ * of row r and column c has X value c, Y value r and the value as Z. The
+ * values are held row by row in one double[] instead of three values per
+ * item. Missing values are NaN.
+ */
+public class MatrixDataset extends AbstractXYZDataset implements DomainInfo, RangeInfo {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private final Comparable seriesKey;
+    private final double[] values;
+    private final int columns;
+    private final int rows;
+    private final Range zBounds;
+
+    /**
+     * @param seriesKey The series key.
+     * @param values The values, row by row; not copied.
+     * @param columns The number of columns.
+     */
+    public MatrixDataset(Comparable seriesKey, double[] values, int columns) {
+        if (seriesKey == null) {
+            throw new IllegalArgumentException("Null 'seriesKey' argument.");
+        }
+        if (columns <= 0 && values.length > 0 || columns > 0 && values.length % columns != 0) {
+            throw new IllegalArgumentException("A matrix of " + values.length
+                    + " values cannot have " + columns + " columns.");
+        }
+        this.seriesKey = seriesKey;
+        this.values = values;
+        this.columns = columns;
+        this.rows = columns > 0 ? values.length / columns : 0;
+
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            if (value < lower) {
+                lower = value;
+            }
+            if (value > upper) {
+                upper = value;
+            }
+        }
+        this.zBounds = lower <= upper ? new Range(lower, upper) : null;
+    }
+
+    public int getColumnCount() {
+        return columns;
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Get the value of a cell.
+     *
+     * @param row The row.
+     * @param column The column.
+     * @return The value, NaN when missing.
+     */
+    public double getValue(int row, int column) {
+        return values[row * columns + column];
+    }
+
+    /**
+     * Get the bounds of the values.
+     *
+     * @return The bounds, null when all values are missing.
+     */
+    public Range getZBounds() {
+        return zBounds;
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return 1;
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        if (series != 0) {
+            throw new IllegalArgumentException("Invalid series index: " + series);
+        }
+        return seriesKey;
+    }
+
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.NONE;
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return values.length;
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return item % columns;
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return item / columns;
+    }
+
+    @Override
+    public double getZValue(int series, int item) {
+        return values[item];
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return getXValue(series, item);
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        return getYValue(series, item);
+    }
+
+    @Override
+    public Number getZ(int series, int item) {
+        double z = values[item];
+        return Double.isNaN(z) ? null : z;
+    }
+
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        return columns > 0 ? 0 : Double.NaN;
+    }
+
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        return columns > 0 ? columns - 1 : Double.NaN;
+    }
+
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        return values.length > 0 ? new Range(0, columns - 1) : null;
+    }
+
+    @Override
+    public double getRangeLowerBound(boolean includeInterval) {
+        return rows > 0 ? 0 : Double.NaN;
+    }
+
+    @Override
+    public double getRangeUpperBound(boolean includeInterval) {
+        return rows > 0 ? rows - 1 : Double.NaN;
+    }
+
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        return rows > 0 ? new Range(0, rows - 1) : null;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buckets ticks, values at points in time, into OHLC bars of a fixed period
+ * while they are streamed: each tick updates the open, high, low, close and
+ * volume of the bar of its period, the ticks themselves are not held.
+ * Periods are aligned to the epoch (UTC). Ticks need not be in order: the
+ * open and close values are those of the earliest and latest tick of a bar.
+ */
+public class OHLCBars implements XYItemSink {
+
+    /** One day, in milliseconds. */
+    public static final long DEFAULT_PERIOD = 24 * 60 * 60 * 1000L;
+
+    private final long period;
+    private final List<Comparable> keys = new ArrayList<>();
+    private final Map<Comparable, Integer> indexes = new HashMap<>();
+    private final List<Bars> bars = new ArrayList<>();
+
+    /**
+     * @param period The period of a bar, in milliseconds.
+     */
+    public OHLCBars(long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("The period of OHLC bars must be positive, found " + period);
+        }
+        this.period = period;
+    }
+
+    /**
+     * Get the index of a series, adding the series when the key is new.
+     *
+     * @param key The series key.
+     * @return The series index.
+     */
+    @Override
+    public int addSeries(Comparable key) {
+        Integer index = indexes.get(key);
+        if (index == null) {
+            index = keys.size();
+            indexes.put(key, index);
+            keys.add(key);
+            bars.add(new Bars());
+        }
+        return index;
+    }
+
+    /**
+     * Add a tick without volume.
+     *
+     * @param series The series index.
+     * @param millis The point in time, in milliseconds since the epoch,
+     * NaN when missing.
+     * @param value The value, NaN when missing.
+     */
+    @Override
+    public void addItem(int series, double millis, double value) {
+        addTick(series, millis, value, Double.NaN);
+    }
+
+    /**
+     * Add a tick. Ticks without a point in time or value are ignored.
+     *
+     * @param series The series index.
+     * @param millis The point in time, in milliseconds since the epoch,
+     * NaN when missing.
+     * @param value The value, NaN when missing.
+     * @param volume The volume, NaN when missing.
+     */
+    public void addTick(int series, double millis, double value, double volume) {
+        if (Double.isNaN(millis) || Double.isNaN(value)) {
+            return;
+        }
+        bars.get(series).add((long) millis, value, volume);
+    }
+
+    /**
+     * Get the bars as a dataset, the point in time of a bar being the middle
+     * of its period.
+     *
+     * @return The dataset.
+     */
+    public ArrayOHLCDataset getDataset() {
+        ArrayOHLCDataset dataset = new ArrayOHLCDataset();
+        for (int series = 0; series < keys.size(); series++) {
+            bars.get(series).addTo(dataset, keys.get(series));
+        }
+        return dataset;
+    }
+
+    /**
+     * The bars of a series, in the order of their first tick.
+     */
+    private class Bars {
+
+        private final Map<Long, Integer> indexes = new HashMap<>();
+        private long[] buckets = new long[16];
+        private long[] openTimes = new long[16];
+        private long[] closeTimes = new long[16];
+        private double[] open = new double[16];
+        private double[] high = new double[16];
+        private double[] low = new double[16];
+        private double[] close = new double[16];
+        private double[] volume = new double[16];
+        private int size;
+        private boolean hasVolume;
+
+        // the bar of the previous tick, most ticks being in order
+        private long lastBucket;
+        private int lastBar = -1;
+
+        void add(long millis, double value, double tickVolume) {
+            long bucket = Math.floorDiv(millis, period);
+            int bar;
+            if (bucket == lastBucket && lastBar >= 0) {
+                bar = lastBar;
+            } else {
+                Integer index = indexes.get(bucket);
+                if (index == null) {
+                    bar = create(bucket, millis, value);
+                    indexes.put(bucket, bar);
+                } else {
+                    bar = index;
+                }
+                lastBucket = bucket;
+                lastBar = bar;
+            }
+
+            if (millis < openTimes[bar]) {
+                openTimes[bar] = millis;
+                open[bar] = value;
+            }
+            if (millis >= closeTimes[bar]) {
+                closeTimes[bar] = millis;
+                close[bar] = value;
+            }
+            if (value > high[bar]) {
+                high[bar] = value;
+            }
+            if (value < low[bar]) {
+                low[bar] = value;
+            }
+            if (!Double.isNaN(tickVolume)) {
+                volume[bar] += tickVolume;
+                hasVolume = true;
+            }
+        }
+
+        private int create(long bucket, long millis, double value) {
+            if (size == buckets.length) {
+                int capacity = size << 1;
+                buckets = Arrays.copyOf(buckets, capacity);
+                openTimes = Arrays.copyOf(openTimes, capacity);
+                closeTimes = Arrays.copyOf(closeTimes, capacity);
+                open = Arrays.copyOf(open, capacity);
+                high = Arrays.copyOf(high, capacity);
+                low = Arrays.copyOf(low, capacity);
+                close = Arrays.copyOf(close, capacity);
+                volume = Arrays.copyOf(volume, capacity);
+            }
+            buckets[size] = bucket;
+            openTimes[size] = millis;
+            closeTimes[size] = millis;
+            open[size] = value;
+            high[size] = value;
+            low[size] = value;
+            close[size] = value;
+            volume[size] = 0;
+            return size++;
+        }
+
+        void addTo(ArrayOHLCDataset dataset, Comparable key) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(buckets[a], buckets[b]));
+
+            double[] millis = new double[size];
+            double[] sortedOpen = new double[size];
+            double[] sortedHigh = new double[size];
+            double[] sortedLow = new double[size];
+            double[] sortedClose = new double[size];
+            double[] sortedVolume = hasVolume ? new double[size] : null;
+            for (int i = 0; i < size; i++) {
+                int bar = order[i];
+                millis[i] = buckets[bar] * (double) period + period / 2.0;
+                sortedOpen[i] = open[bar];
+                sortedHigh[i] = high[bar];
+                sortedLow[i] = low[bar];
+                sortedClose[i] = close[bar];
+                if (hasVolume) {
+                    sortedVolume[i] = volume[bar];
+                }
+            }
+            dataset.addSeries(key, millis, sortedOpen, sortedHigh, sortedLow, sortedClose, sortedVolume);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Reads XY and XYZ datasets from packed binary numeric columns. The values
+ * are not parsed: the returned dataset reads them from the buffer.
+ *
+ * The format, all numbers little-endian:
+ * <pre>
+ * magic        4 bytes  "JFCB"
+ * version      1 byte   1
+ * value size   1 byte   8 (double) or 4 (float)
+ * dimensions   1 byte   2 (XY) or 3 (XYZ)
+ * reserved     1 byte   0
+ * series count int32
+ * per series:  int32 item count, int32 key length, key (UTF-8 bytes)
+ * padding      to a multiple of 8 bytes
+ * per series:  the X, Y (and Z) columns, each item count values
+ * </pre>
+ */
+public class PackedDatasetReader {
+
+    public static final byte[] MAGIC = {'J', 'F', 'C', 'B'};
+    public static final int VERSION = 1;
+
+    /**
+     * Check whether a stream starts with the packed format magic. The stream
+     * must support mark and reset; it is reset afterwards.
+     *
+     * @param is The stream.
+     * @return True when the stream holds packed data.
+     * @throws IOException Thrown when the stream cannot be read.
+     */
+    public static boolean isPacked(InputStream is) throws IOException {
+        is.mark(MAGIC.length);
+        try {
+            byte[] start = new byte[MAGIC.length];
+            int read = IOUtils.read(is, start);
+            if (read < MAGIC.length) {
+                return false;
+            }
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (start[i] != MAGIC[i]) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            is.reset();
+        }
+    }
+
+    /**
+     * Read a dataset from a stream, which is read completely into memory.
+     *
+     * @param is The stream.
+     * @return A {@link PackedXYDataset}, or a {@link PackedXYZDataset} when
+     * the data has three dimensions.
+     * @throws IOException Thrown when the stream cannot be read or does not
+     * hold packed data.
+     */
+    public static PackedXYDataset read(InputStream is) throws IOException {
+        return read(ByteBuffer.wrap(IOUtils.toByteArray(is)));
+    }
+
+    /**
+     * Read a dataset from a buffer, for instance a memory mapped file.
+     *
+     * @param buffer The buffer, starting with the header.
+     * @return A {@link PackedXYDataset}, or a {@link PackedXYZDataset} when
+     * the data has three dimensions.
+     * @throws IOException Thrown when the buffer does not hold packed data.
+     */
+    public static PackedXYDataset read(ByteBuffer buffer) throws IOException {
+        ByteBuffer header = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int base = header.position();
+        try {
+            for (byte b : MAGIC) {
+                if (header.get() != b) {
+                    throw new IOException("Not packed binary chart data");
+                }
+            }
+            int version = header.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported packed data version " + version);
+            }
+            int valueSize = header.get();
+            if (valueSize != 8 && valueSize != 4) {
+                throw new IOException("Unsupported packed value size " + valueSize);
+            }
+            int dimensions = header.get();
+            if (dimensions != 2 && dimensions != 3) {
+                throw new IOException("Unsupported packed dimensions " + dimensions);
+            }
+            header.get();
+
+            int seriesCount = header.getInt();
+            if (seriesCount < 0) {
+                throw new IOException("Invalid packed series count " + seriesCount);
+            }
+            Comparable[] keys = new Comparable[seriesCount];
+            int[] itemCounts = new int[seriesCount];
+            for (int s = 0; s < seriesCount; s++) {
+                itemCounts[s] = header.getInt();
+                if (itemCounts[s] < 0) {
+                    throw new IOException("Invalid packed item count " + itemCounts[s]);
+                }
+                byte[] key = new byte[header.getInt()];
+                header.get(key);
+                keys[s] = new String(key, StandardCharsets.UTF_8);
+            }
+
+            // columns start 8-byte aligned
+            long offset = base + ((header.position() - base + 7) & ~7);
+            int[][] offsets = new int[seriesCount][dimensions];
+            for (int s = 0; s < seriesCount; s++) {
+                for (int d = 0; d < dimensions; d++) {
+                    offsets[s][d] = (int) offset;
+                    offset += (long) itemCounts[s] * valueSize;
+                }
+            }
+            if (offset > header.limit()) {
+                throw new IOException("Packed data is truncated, expected " + (offset - base) + " bytes");
+            }
+
+            return dimensions == 3
+                    ? new PackedXYZDataset(buffer, valueSize == 4, keys, itemCounts, offsets)
+                    : new PackedXYDataset(buffer, valueSize == 4, keys, itemCounts, offsets);
+
+        } catch (RuntimeException ex) {
+            // BufferUnderflowException, NegativeArraySizeException
+            throw new IOException("Invalid packed data header: " + ex.getMessage(), ex);
+        }
+    }
+}
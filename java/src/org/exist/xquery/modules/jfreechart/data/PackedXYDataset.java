@@ -0,0 +1,115 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.xy.AbstractXYDataset;
+
+/**
+ * An XY dataset reading its values directly from a buffer holding packed
+ * little-endian double or float columns, see {@link PackedDatasetReader}.
+ * Values are never copied or parsed.
+ *
+ * The dataset never changes, so change listeners are not registered. This
+ * lets one instance, e.g. of a memory mapped file, be shared by concurrent
+ * charts without the plots accumulating as listeners.
+ */
+public class PackedXYDataset extends AbstractXYDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private final ByteBuffer buffer;
+    private final boolean singlePrecision;
+    private final Comparable[] seriesKeys;
+    private final int[] itemCounts;
+
+    // byte offset of each column (x, y[, z]) of each series
+    private final int[][] offsets;
+
+    PackedXYDataset(ByteBuffer buffer, boolean singlePrecision, Comparable[] seriesKeys,
+            int[] itemCounts, int[][] offsets) {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.singlePrecision = singlePrecision;
+        this.seriesKeys = seriesKeys;
+        this.itemCounts = itemCounts;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Read a value using an absolute get, so concurrent readers do not
+     * interfere.
+     */
+    protected final double getValue(int series, int dimension, int item) {
+        int offset = offsets[series][dimension];
+        return singlePrecision
+                ? buffer.getFloat(offset + (item << 2))
+                : buffer.getDouble(offset + (item << 3));
+    }
+
+    @Override
+    public void addChangeListener(DatasetChangeListener listener) {
+        // immutable, no events are ever sent
+    }
+
+    @Override
+    public void removeChangeListener(DatasetChangeListener listener) {
+        // immutable, no events are ever sent
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return seriesKeys.length;
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return seriesKeys[series];
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return itemCounts[series];
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return getValue(series, 0, item);
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return getValue(series, 1, item);
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return getXValue(series, item);
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        double y = getYValue(series, item);
+        return Double.isNaN(y) ? null : y;
+    }
+}
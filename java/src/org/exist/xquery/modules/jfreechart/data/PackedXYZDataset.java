@@ -0,0 +1,50 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.nio.ByteBuffer;
+import org.jfree.data.xy.XYZDataset;
+
+/**
+ * An XYZ dataset reading its values directly from a buffer holding packed
+ * little-endian double or float columns, see {@link PackedDatasetReader}.
+ */
+public class PackedXYZDataset extends PackedXYDataset implements XYZDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    PackedXYZDataset(ByteBuffer buffer, boolean singlePrecision, Comparable[] seriesKeys,
+            int[] itemCounts, int[][] offsets) {
+        super(buffer, singlePrecision, seriesKeys, itemCounts, offsets);
+    }
+
+    @Override
+    public double getZValue(int series, int item) {
+        return getValue(series, 2, item);
+    }
+
+    @Override
+    public Number getZ(int series, int item) {
+        double z = getZValue(series, item);
+        return Double.isNaN(z) ? null : z;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Registry of parsed XY datasets kept resident between queries, by name.
+ * The datasets are indexed on registration, see {@link IndexedXYDataset},
+ * so renders of windows of the domain do not scan the items.
+ */
+public class ResidentDatasets {
+
+    private final static Logger logger = LogManager.getLogger(ResidentDatasets.class);
+
+    private static final ConcurrentMap<String, IndexedXYDataset> datasets = new ConcurrentHashMap<>();
+
+    /**
+     * Index a dataset and register it, replacing a dataset of the same
+     * name.
+     *
+     * @param name The name.
+     * @param dataset The dataset, copied into the index.
+     * @return The indexed dataset.
+     */
+    public static IndexedXYDataset register(String name, XYDataset dataset) {
+        logger.debug("Indexing resident dataset " + name);
+        IndexedXYDataset indexed = new IndexedXYDataset(dataset);
+        datasets.put(name, indexed);
+        return indexed;
+    }
+
+    /**
+     * Get a registered dataset.
+     *
+     * @param name The name.
+     * @return The dataset, or null when no dataset has the name.
+     */
+    public static IndexedXYDataset get(String name) {
+        return datasets.get(name);
+    }
+
+    /**
+     * Remove a registered dataset. Charts holding it keep it until they
+     * are released.
+     *
+     * @param name The name.
+     * @return True when a dataset had the name.
+     */
+    public static boolean remove(String name) {
+        return datasets.remove(name) != null;
+    }
+
+    /**
+     * Get the names of the registered datasets.
+     *
+     * @return The names, sorted.
+     */
+    public static Set<String> getNames() {
+        return new TreeSet<>(datasets.keySet());
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.List;
+import org.jfree.data.Range;
+
+/**
+ * The bounds of the values of one series of an array backed dataset,
+ * computed once when the series is added. Missing values (NaN) are
+ * ignored; a series without values has the empty bounds +Infinity to
+ * -Infinity, which leave the bounds of the other series unchanged.
+ */
+class SeriesBounds {
+
+    private static final double[] NO_BOUNDS = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+    final double minX;
+    final double maxX;
+    final double minY;
+    final double maxY;
+    final double minZ;
+    final double maxZ;
+
+    SeriesBounds(double[] x, double[] y) {
+        this(x, y, null);
+    }
+
+    SeriesBounds(double[] x, double[] y, double[] z) {
+        this(new double[][] {bounds(x), bounds(y), z == null ? NO_BOUNDS : bounds(z)});
+    }
+
+    SeriesBounds(long[] x, double[] y) {
+        this(new double[][] {bounds(x), bounds(y), NO_BOUNDS});
+    }
+
+    private SeriesBounds(double[][] bounds) {
+        minX = bounds[0][0];
+        maxX = bounds[0][1];
+        minY = bounds[1][0];
+        maxY = bounds[1][1];
+        minZ = bounds[2][0];
+        maxZ = bounds[2][1];
+    }
+
+    private static double[] bounds(long[] values) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long value : values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        return min <= max ? new double[] {min, max} : NO_BOUNDS;
+    }
+
+    private static double[] bounds(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+        }
+        return min <= max ? new double[] {min, max} : NO_BOUNDS;
+    }
+
+    /**
+     * The x bounds of the visible series.
+     *
+     * @param visibleSeriesKeys The keys of the visible series, null for all.
+     * @return The bounds, null when there are no values.
+     */
+    static Range domain(List<SeriesBounds> bounds, List<Comparable> keys, List visibleSeriesKeys) {
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (int series = 0; series < bounds.size(); series++) {
+            if (visibleSeriesKeys == null || visibleSeriesKeys.contains(keys.get(series))) {
+                SeriesBounds b = bounds.get(series);
+                lower = Math.min(lower, b.minX);
+                upper = Math.max(upper, b.maxX);
+            }
+        }
+        return lower <= upper ? new Range(lower, upper) : null;
+    }
+
+    /**
+     * The y bounds of the items of one series within an x range.
+     */
+    interface WindowBounds {
+
+        /**
+         * @return The bounds, null when the series has no values within the
+         * range.
+         */
+        Range of(int series, Range xRange);
+    }
+
+    /**
+     * The y bounds of the visible series, of the items within an x range.
+     * Only series reaching beyond the x range are scanned.
+     *
+     * @param visibleSeriesKeys The keys of the visible series, null for all.
+     * @param xRange The x range, null for all items.
+     * @return The bounds, null when there are no values.
+     */
+    static Range range(List<SeriesBounds> bounds, List<Comparable> keys, List visibleSeriesKeys, Range xRange,
+            List<double[]> xValues, List<double[]> yValues) {
+        return range(bounds, keys, visibleSeriesKeys, xRange, (series, window) -> {
+            double[] x = xValues.get(series);
+            double[] y = yValues.get(series);
+            double lower = Double.POSITIVE_INFINITY;
+            double upper = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < x.length; i++) {
+                if (window.contains(x[i]) && !Double.isNaN(y[i])) {
+                    lower = Math.min(lower, y[i]);
+                    upper = Math.max(upper, y[i]);
+                }
+            }
+            return lower <= upper ? new Range(lower, upper) : null;
+        });
+    }
+
+    /**
+     * The y bounds of the visible series, of the items within an x range.
+     * Only series reaching beyond the x range are scanned.
+     *
+     * @param visibleSeriesKeys The keys of the visible series, null for all.
+     * @param xRange The x range, null for all items.
+     * @param window Finds the bounds of a series reaching beyond the range.
+     * @return The bounds, null when there are no values.
+     */
+    static Range range(List<SeriesBounds> bounds, List<Comparable> keys, List visibleSeriesKeys, Range xRange,
+            WindowBounds window) {
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (int series = 0; series < bounds.size(); series++) {
+            if (visibleSeriesKeys != null && !visibleSeriesKeys.contains(keys.get(series))) {
+                continue;
+            }
+            SeriesBounds b = bounds.get(series);
+            if (b.minY > b.maxY) {
+                continue;
+            }
+            if (xRange == null || (xRange.contains(b.minX) && xRange.contains(b.maxX))) {
+                lower = Math.min(lower, b.minY);
+                upper = Math.max(upper, b.maxY);
+            } else {
+                Range r = window.of(series, xRange);
+                if (r != null) {
+                    lower = Math.min(lower, r.getLowerBound());
+                    upper = Math.max(upper, r.getUpperBound());
+                }
+            }
+        }
+        return lower <= upper ? new Range(lower, upper) : null;
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import org.exist.xquery.XPathException;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A pipeline of transforms of the Y values of each series of an XY dataset,
+ * run in single loops over primitive arrays before the chart is built. The
+ * pipeline is written as steps separated by spaces or commas, e.g.
+ * "resample(PT1M) movingAverage(5)":
+ * <pre>
+ * movingAverage(n)  mean of the last n items, fewer at the start
+ * movingMedian(n)   median of the last n items, fewer at the start
+ * cumulativeSum     running sum of the values
+ * rate, rate(unit)  change of the value per X unit, or per given unit,
+ *                   from the previous item on; drops the first item
+ * resample(width)   mean of the items per interval of X of the width,
+ *                   at the start of the interval; drops empty intervals
+ * </pre>
+ * Units and widths are numbers in X units, or durations like PT1S for time
+ * series. Missing values (NaN) are left out of the windows and intervals and
+ * stay missing. Series are transformed in parallel for large datasets.
+ */
+public class SeriesTransforms {
+
+    public static final SeriesTransforms NONE = new SeriesTransforms(Collections.emptyList());
+
+    private static final Pattern STEP = Pattern.compile("(\\w+)(?:\\(\\s*([^)]*?)\\s*\\))?");
+
+    private static final Pattern SEPARATOR = Pattern.compile("[\\s,]*");
+
+    // items of all series before the series are transformed in parallel
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final List<Step> steps;
+
+    private SeriesTransforms(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Parse a pipeline of transforms.
+     *
+     * @param pipeline The steps, separated by spaces or commas.
+     * @return The transforms.
+     * @throws XPathException Thrown when a step is unknown or has a wrong
+     * argument.
+     */
+    public static SeriesTransforms parse(String pipeline) throws XPathException {
+        List<Step> steps = new ArrayList<>();
+        Matcher separator = SEPARATOR.matcher(pipeline);
+        Matcher step = STEP.matcher(pipeline);
+        int position = 0;
+        while (true) {
+            separator.region(position, pipeline.length());
+            if (separator.lookingAt()) {
+                position = separator.end();
+            }
+            if (position == pipeline.length()) {
+                break;
+            }
+            step.region(position, pipeline.length());
+            if (!step.lookingAt()) {
+                throw new XPathException(MessageFormat.format("Wrong transform at \"{0}\"", pipeline.substring(position)));
+            }
+            steps.add(createStep(step.group(1), step.group(2)));
+            position = step.end();
+        }
+        return steps.isEmpty() ? NONE : new SeriesTransforms(steps);
+    }
+
+    private static Step createStep(String name, String argument) throws XPathException {
+        switch (name) {
+            case "movingAverage":
+                return new MovingAverage(parseWindow(name, argument));
+            case "movingMedian":
+                return new MovingMedian(parseWindow(name, argument));
+            case "cumulativeSum":
+                if (argument != null) {
+                    throw new XPathException("The transform cumulativeSum takes no argument");
+                }
+                return new CumulativeSum();
+            case "rate":
+                return new Rate(argument == null ? 1.0 : parseWidth(name, argument));
+            case "resample":
+                if (argument == null) {
+                    throw new XPathException("The transform resample requires the width of its intervals");
+                }
+                return new Resample(parseWidth(name, argument));
+            default:
+                throw new XPathException(MessageFormat.format("Unknown transform \"{0}\", choose one of "
+                        + "movingAverage movingMedian cumulativeSum rate resample", name));
+        }
+    }
+
+    private static int parseWindow(String name, String argument) throws XPathException {
+        try {
+            int window = Integer.parseInt(argument);
+            if (window > 0) {
+                return window;
+            }
+        } catch (NumberFormatException ex) {
+            // reported below
+        }
+        throw new XPathException(MessageFormat.format("The transform {0} requires a positive number of items", name));
+    }
+
+    private static double parseWidth(String name, String argument) throws XPathException {
+        try {
+            double width = argument.startsWith("P") ? Duration.parse(argument).toMillis() : Double.parseDouble(argument);
+            if (width > 0 && !Double.isInfinite(width)) {
+                return width;
+            }
+        } catch (DateTimeParseException | ArithmeticException | NumberFormatException ex) {
+            // reported below
+        }
+        throw new XPathException(MessageFormat.format("The transform {0} requires a positive number or duration", name));
+    }
+
+    public boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    /**
+     * Transform the series of a dataset.
+     *
+     * @param dataset The dataset.
+     * @param time True for a time series, with milliseconds as X values.
+     * @return The dataset of the transformed series, an
+     * {@link ArrayTimeSeriesDataset} for a time series and an
+     * {@link ArrayXYDataset} otherwise.
+     */
+    public XYDataset apply(XYDataset dataset, boolean time) {
+        int seriesCount = dataset.getSeriesCount();
+        long items = 0;
+        for (int series = 0; series < seriesCount; series++) {
+            items += dataset.getItemCount(series);
+        }
+
+        Series[] transformed = new Series[seriesCount];
+        IntStream tasks = IntStream.range(0, seriesCount);
+        if (seriesCount > 1 && items >= PARALLEL_THRESHOLD) {
+            tasks = tasks.parallel();
+        }
+        tasks.forEach(series -> {
+            Series values = Series.read(dataset, series);
+            for (Step step : steps) {
+                values = step.apply(values);
+            }
+            transformed[series] = values;
+        });
+
+        if (time) {
+            ArrayTimeSeriesDataset result = new ArrayTimeSeriesDataset();
+            for (int series = 0; series < seriesCount; series++) {
+                result.addSeries(dataset.getSeriesKey(series), transformed[series].x, transformed[series].y);
+            }
+            return result;
+        }
+        ArrayXYDataset result = new ArrayXYDataset();
+        for (int series = 0; series < seriesCount; series++) {
+            result.addSeries(dataset.getSeriesKey(series), transformed[series].x, transformed[series].y);
+        }
+        return result;
+    }
+
+    /**
+     * The X and Y values of a series; a step may return the arrays it was
+     * given when it leaves them unchanged.
+     */
+    private static class Series {
+
+        private final double[] x;
+        private final double[] y;
+
+        Series(double[] x, double[] y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        static Series read(XYDataset dataset, int series) {
+            if (dataset instanceof ArrayXYDataset) {
+                ArrayXYDataset arrays = (ArrayXYDataset) dataset;
+                return new Series(arrays.getXValues(series), arrays.getYValues(series));
+            }
+            if (dataset instanceof ArrayTimeSeriesDataset) {
+                ArrayTimeSeriesDataset arrays = (ArrayTimeSeriesDataset) dataset;
+                long[] millis = arrays.getMillis(series);
+                double[] x = new double[millis.length];
+                for (int item = 0; item < millis.length; item++) {
+                    x[item] = millis[item];
+                }
+                return new Series(x, arrays.getValues(series));
+            }
+            int count = dataset.getItemCount(series);
+            double[] x = new double[count];
+            double[] y = new double[count];
+            for (int item = 0; item < count; item++) {
+                x[item] = dataset.getXValue(series, item);
+                y[item] = dataset.getYValue(series, item);
+            }
+            return new Series(x, y);
+        }
+    }
+
+    private interface Step {
+
+        Series apply(Series series);
+    }
+
+    private static class MovingAverage implements Step {
+
+        private final int window;
+
+        MovingAverage(int window) {
+            this.window = window;
+        }
+
+        @Override
+        public Series apply(Series series) {
+            double[] y = series.y;
+            double[] result = new double[y.length];
+            double sum = 0;
+            int count = 0;
+            for (int i = 0; i < y.length; i++) {
+                if (!Double.isNaN(y[i])) {
+                    sum += y[i];
+                    count++;
+                }
+                if (i >= window && !Double.isNaN(y[i - window])) {
+                    sum -= y[i - window];
+                    count--;
+                }
+                result[i] = Double.isNaN(y[i]) || count == 0 ? Double.NaN : sum / count;
+            }
+            return new Series(series.x, result);
+        }
+    }
+
+    /**
+     * The window is kept sorted, each item inserted and the one leaving
+     * removed by binary search, so each step costs a move of at most the
+     * window.
+     */
+    private static class MovingMedian implements Step {
+
+        private final int window;
+
+        MovingMedian(int window) {
+            this.window = window;
+        }
+
+        @Override
+        public Series apply(Series series) {
+            double[] y = series.y;
+            double[] result = new double[y.length];
+            double[] sorted = new double[window];
+            int count = 0;
+            for (int i = 0; i < y.length; i++) {
+                if (i >= window && !Double.isNaN(y[i - window])) {
+                    int index = Arrays.binarySearch(sorted, 0, count, y[i - window]);
+                    System.arraycopy(sorted, index + 1, sorted, index, count - index - 1);
+                    count--;
+                }
+                if (!Double.isNaN(y[i])) {
+                    int index = Arrays.binarySearch(sorted, 0, count, y[i]);
+                    if (index < 0) {
+                        index = -index - 1;
+                    }
+                    System.arraycopy(sorted, index, sorted, index + 1, count - index);
+                    sorted[index] = y[i];
+                    count++;
+                }
+                result[i] = Double.isNaN(y[i]) || count == 0 ? Double.NaN
+                        : count % 2 == 1 ? sorted[count / 2] : (sorted[count / 2 - 1] + sorted[count / 2]) / 2;
+            }
+            return new Series(series.x, result);
+        }
+    }
+
+    private static class CumulativeSum implements Step {
+
+        @Override
+        public Series apply(Series series) {
+            double[] y = series.y;
+            double[] result = new double[y.length];
+            double sum = 0;
+            for (int i = 0; i < y.length; i++) {
+                if (Double.isNaN(y[i])) {
+                    result[i] = Double.NaN;
+                } else {
+                    sum += y[i];
+                    result[i] = sum;
+                }
+            }
+            return new Series(series.x, result);
+        }
+    }
+
+    private static class Rate implements Step {
+
+        private final double unit;
+
+        Rate(double unit) {
+            this.unit = unit;
+        }
+
+        @Override
+        public Series apply(Series series) {
+            double[] x = series.x;
+            double[] y = series.y;
+            int count = Math.max(x.length - 1, 0);
+            double[] resultX = new double[count];
+            double[] resultY = new double[count];
+            for (int i = 0; i < count; i++) {
+                double dx = x[i + 1] - x[i];
+                resultX[i] = x[i + 1];
+                resultY[i] = dx != 0 ? (y[i + 1] - y[i]) / dx * unit : Double.NaN;
+            }
+            return new Series(resultX, resultY);
+        }
+    }
+
+    /**
+     * The intervals start at whole multiples of the width, as the bars of
+     * {@link OHLCBars}. Items out of X order are sorted first.
+     */
+    private static class Resample implements Step {
+
+        private final double width;
+
+        Resample(double width) {
+            this.width = width;
+        }
+
+        @Override
+        public Series apply(Series series) {
+            double[] x = series.x;
+            double[] y = series.y;
+            int[] order = order(x);
+
+            double[] resultX = new double[Math.min(x.length, 16)];
+            double[] resultY = new double[resultX.length];
+            int count = 0;
+            double interval = Double.NaN;
+            double sum = 0;
+            int values = 0;
+            for (int k = 0; k <= x.length; k++) {
+                int i = k < x.length ? (order == null ? k : order[k]) : -1;
+                double start = i < 0 ? Double.NaN : Math.floor(x[i] / width) * width;
+                if (i >= 0 && Double.isNaN(start)) {
+                    continue;
+                }
+                if (i < 0 || start != interval) {
+                    if (values > 0) {
+                        if (count == resultX.length) {
+                            resultX = Arrays.copyOf(resultX, count * 2);
+                            resultY = Arrays.copyOf(resultY, count * 2);
+                        }
+                        resultX[count] = interval;
+                        resultY[count++] = sum / values;
+                    }
+                    interval = start;
+                    sum = 0;
+                    values = 0;
+                }
+                if (i >= 0 && !Double.isNaN(y[i])) {
+                    sum += y[i];
+                    values++;
+                }
+            }
+            return new Series(Arrays.copyOf(resultX, count), Arrays.copyOf(resultY, count));
+        }
+
+        /**
+         * Get the items in ascending X order, null when they already are.
+         */
+        private static int[] order(double[] x) {
+            boolean sorted = true;
+            for (int i = 1; i < x.length && sorted; i++) {
+                sorted = !(x[i - 1] > x[i]);
+            }
+            if (sorted) {
+                return null;
+            }
+            return IntStream.range(0, x.length).boxed()
+                    .sorted((a, b) -> Double.compare(x[a], x[b]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+/**
+ * A mergeable sketch of the distribution of a stream of values, after Ted
+ * Dunning's merging t-digest: values are buffered and merged into weighted
+ * centroids whose size is bounded by the k1 scale function, small at the
+ * tails and large around the median. Memory is constant in the number of
+ * values; quantiles and the cumulative distribution are interpolated
+ * between the centroids, exactly at the minimum and maximum.
+ *
+ * Digests of parts of a stream can be computed separately, e.g. in
+ * parallel, and merged. A digest is not thread-safe.
+ */
+public class TDigest {
+
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+
+    // centroids, sorted by mean, followed by the buffered values
+    private final double[] means;
+    private final double[] weights;
+    private int centroids;
+    private int buffered;
+
+    private double totalWeight;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compression The compression, bounding the number of centroids;
+     * higher values are more accurate.
+     */
+    public TDigest(double compression) {
+        this.compression = Math.max(compression, 10);
+        int capacity = 2 * (int) Math.ceil(this.compression) + 10;
+        this.means = new double[6 * capacity];
+        this.weights = new double[6 * capacity];
+    }
+
+    /**
+     * Add a value, NaN being ignored.
+     *
+     * @param value The value.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        add(value, 1);
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Merge another digest into this one.
+     *
+     * @param other The other digest, which is compressed but not changed
+     * otherwise.
+     */
+    public void add(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.centroids; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    private void add(double mean, double weight) {
+        if (centroids + buffered == means.length) {
+            compress();
+        }
+        means[centroids + buffered] = mean;
+        weights[centroids + buffered] = weight;
+        buffered++;
+        totalWeight += weight;
+    }
+
+    /**
+     * Merge the buffered values into the centroids.
+     */
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int n = centroids + buffered;
+        sort(means, weights, 0, n - 1);
+
+        double normalizer = compression / (2 * Math.PI);
+        int out = 0;
+        double soFar = 0;
+        double limit = totalWeight * limit(0, normalizer);
+        for (int i = 1; i < n; i++) {
+            double merged = weights[out] + weights[i];
+            if (soFar + merged <= limit) {
+                means[out] += (means[i] - means[out]) * weights[i] / merged;
+                weights[out] = merged;
+            } else {
+                soFar += weights[out];
+                limit = totalWeight * limit(soFar / totalWeight, normalizer);
+                out++;
+                means[out] = means[i];
+                weights[out] = weights[i];
+            }
+        }
+        centroids = out + 1;
+        buffered = 0;
+    }
+
+    /**
+     * The quantile up to which a centroid starting at quantile q may grow:
+     * one unit further on the k1 scale.
+     */
+    private static double limit(double q, double normalizer) {
+        double k = normalizer * Math.asin(2 * q - 1) + 1;
+        if (k / normalizer >= Math.PI / 2) {
+            return 1;
+        }
+        return (Math.sin(k / normalizer) + 1) / 2;
+    }
+
+    /**
+     * Sort values and their weights by value, quicksort with insertion sort
+     * for short ranges.
+     */
+    private static void sort(double[] values, double[] weights, int from, int to) {
+        while (to - from > 16) {
+            int middle = (from + to) >>> 1;
+            if (values[middle] < values[from]) {
+                swap(values, weights, middle, from);
+            }
+            if (values[to] < values[from]) {
+                swap(values, weights, to, from);
+            }
+            if (values[to] < values[middle]) {
+                swap(values, weights, to, middle);
+            }
+            double pivot = values[middle];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, weights, i++, j--);
+                }
+            }
+            // recurse into the shorter part
+            if (j - from < to - i) {
+                sort(values, weights, from, j);
+                from = i;
+            } else {
+                sort(values, weights, i, to);
+                to = j;
+            }
+        }
+        for (int i = from + 1; i <= to; i++) {
+            double value = values[i];
+            double weight = weights[i];
+            int j = i - 1;
+            while (j >= from && values[j] > value) {
+                values[j + 1] = values[j];
+                weights[j + 1] = weights[j];
+                j--;
+            }
+            values[j + 1] = value;
+            weights[j + 1] = weight;
+        }
+    }
+
+    private static void swap(double[] values, double[] weights, int i, int j) {
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+        double weight = weights[i];
+        weights[i] = weights[j];
+        weights[j] = weight;
+    }
+
+    public long getCount() {
+        return (long) totalWeight;
+    }
+
+    /**
+     * @return The smallest value, NaN when the digest is empty.
+     */
+    public double getMin() {
+        return totalWeight > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * @return The largest value, NaN when the digest is empty.
+     */
+    public double getMax() {
+        return totalWeight > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * @return The mean of the values, NaN when the digest is empty.
+     */
+    public double getMean() {
+        return totalWeight > 0 ? sum / totalWeight : Double.NaN;
+    }
+
+    /**
+     * Estimate a quantile. Centroids of a single value are exact.
+     *
+     * @param q The quantile, 0 to 1.
+     * @return The estimated value, NaN when the digest is empty.
+     */
+    public double quantile(double q) {
+        compress();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        int last = centroids - 1;
+        double index = q * totalWeight;
+        if (index < 1) {
+            return min;
+        }
+        if (index > totalWeight - 1) {
+            return max;
+        }
+        // between the minimum and the center of the first centroid
+        if (weights[0] > 1 && index < weights[0] / 2) {
+            return min + (index - 1) / (weights[0] / 2 - 1) * (means[0] - min);
+        }
+        // between the center of the last centroid and the maximum
+        if (weights[last] > 1 && totalWeight - index <= weights[last] / 2) {
+            return max - (totalWeight - index - 1) / (weights[last] / 2 - 1) * (max - means[last]);
+        }
+
+        double center = weights[0] / 2;
+        for (int i = 0; i < last; i++) {
+            double distance = (weights[i] + weights[i + 1]) / 2;
+            if (center + distance > index) {
+                double leftUnit = 0;
+                if (weights[i] == 1) {
+                    if (index - center < 0.5) {
+                        return means[i];
+                    }
+                    leftUnit = 0.5;
+                }
+                double rightUnit = 0;
+                if (weights[i + 1] == 1) {
+                    if (center + distance - index <= 0.5) {
+                        return means[i + 1];
+                    }
+                    rightUnit = 0.5;
+                }
+                double toLeft = index - center - leftUnit;
+                double toRight = center + distance - index - rightUnit;
+                return (means[i] * toRight + means[i + 1] * toLeft) / (toLeft + toRight);
+            }
+            center += distance;
+        }
+        return max;
+    }
+
+    /**
+     * Estimate the fraction of values below a value, counting values equal
+     * to it half. Centroids of a single value are exact.
+     *
+     * @param value The value.
+     * @return The fraction, 0 to 1, NaN when the digest is empty.
+     */
+    public double cdf(double value) {
+        compress();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (value < min) {
+            return 0;
+        }
+        if (value > max) {
+            return 1;
+        }
+        if (min == max) {
+            return 0.5;
+        }
+        int last = centroids - 1;
+
+        // between the minimum and the center of the first centroid
+        if (value < means[0]) {
+            if (value == min) {
+                return 0.5 / totalWeight;
+            }
+            return (1 + (value - min) / (means[0] - min) * (weights[0] / 2 - 1)) / totalWeight;
+        }
+        // between the center of the last centroid and the maximum
+        if (value > means[last]) {
+            if (value == max) {
+                return 1 - 0.5 / totalWeight;
+            }
+            return 1 - (1 + (max - value) / (max - means[last]) * (weights[last] / 2 - 1)) / totalWeight;
+        }
+
+        double below = 0;
+        for (int i = 0; i < centroids; i++) {
+            if (means[i] == value) {
+                // half of all centroids at the value
+                double at = 0;
+                for (int j = i; j < centroids && means[j] == value; j++) {
+                    at += weights[j];
+                }
+                return (below + at / 2) / totalWeight;
+            }
+            if (i < last && value < means[i + 1]) {
+                double leftUnit = weights[i] == 1 ? 0.5 : 0;
+                double rightUnit = weights[i + 1] == 1 ? 0.5 : 0;
+                double between = (weights[i] + weights[i + 1]) / 2 - leftUnit - rightUnit;
+                return (below + weights[i] / 2 + leftUnit
+                        + between * (value - means[i]) / (means[i + 1] - means[i])) / totalWeight;
+            }
+            below += weights[i];
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.general.PieDataset;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Keeps the largest entries of a dataset and folds the rest into a single
+ * "Other" entry: the sections of a pie, the series of category and XY data,
+ * or the categories of category data of a single series. Entries are ranked
+ * by the absolute sum of their values; an entry is kept when it is among
+ * the top n and its share of the absolute total is at least the minimum
+ * share. Kept entries stay in their order, with the other entry last. An
+ * entry named as the other entry is always folded into it, and a single
+ * entry left over is kept rather than folded.
+ */
+public class TopN {
+
+    private final int n;
+    private final double minShare;
+    private final String otherKey;
+
+    /**
+     * @param n The number of entries to keep, 0 for all.
+     * @param minShare The minimum share of an entry to be kept, 0 to 1.
+     * @param otherKey The key of the entry holding the folded entries.
+     */
+    public TopN(int n, double minShare, String otherKey) {
+        this.n = n > 0 ? n : Integer.MAX_VALUE;
+        this.minShare = minShare;
+        this.otherKey = otherKey;
+    }
+
+    /**
+     * Fold the smaller sections of a pie, summing their values.
+     *
+     * @param dataset The dataset.
+     * @return The folded dataset, or the dataset when nothing is folded.
+     */
+    public PieDataset fold(PieDataset dataset) {
+        int count = dataset.getItemCount();
+        double[] weights = new double[count];
+        boolean[] other = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = weight(dataset.getValue(i));
+            other[i] = otherKey.equals(dataset.getKey(i));
+        }
+        boolean[] kept = select(weights, other);
+        if (kept == null) {
+            return dataset;
+        }
+
+        ArrayPieDataset result = new ArrayPieDataset();
+        double rest = 0;
+        for (int i = 0; i < count; i++) {
+            if (kept[i]) {
+                result.setValue(dataset.getKey(i), value(dataset.getValue(i)));
+            } else {
+                rest += value(dataset.getValue(i));
+            }
+        }
+        result.setValue(otherKey, rest);
+        return result;
+    }
+
+    /**
+     * Fold the smaller series of category data, summing their values per
+     * category, or the smaller categories of a single series.
+     *
+     * @param dataset The dataset.
+     * @return The folded dataset, or the dataset when nothing is folded.
+     */
+    public CategoryDataset fold(CategoryDataset dataset) {
+        int rows = dataset.getRowCount();
+        int columns = dataset.getColumnCount();
+        boolean byRow = rows > 1;
+        int count = byRow ? rows : columns;
+        double[] weights = new double[count];
+        boolean[] other = new boolean[count];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                weights[byRow ? row : column] += weight(dataset.getValue(row, column));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            other[i] = otherKey.equals(byRow ? dataset.getRowKey(i) : dataset.getColumnKey(i));
+        }
+        boolean[] kept = select(weights, other);
+        if (kept == null) {
+            return dataset;
+        }
+
+        ArrayCategoryDataset result = new ArrayCategoryDataset();
+        for (int row = 0; row < rows; row++) {
+            if (!byRow || kept[row]) {
+                result.addRowKey(dataset.getRowKey(row));
+            }
+        }
+        int otherRow = byRow ? result.addRowKey(otherKey) : -1;
+        for (int column = 0; column < columns; column++) {
+            if (byRow || kept[column]) {
+                result.addColumnKey(dataset.getColumnKey(column));
+            }
+        }
+        int otherColumn = byRow ? -1 : result.addColumnKey(otherKey);
+
+        double[] rest = new double[byRow ? columns : rows];
+        boolean[] restHasValue = new boolean[rest.length];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                Number value = dataset.getValue(row, column);
+                if (kept[byRow ? row : column]) {
+                    if (value != null) {
+                        result.setValue(value.doubleValue(), dataset.getRowKey(row), dataset.getColumnKey(column));
+                    }
+                } else if (value != null && !Double.isNaN(value.doubleValue())) {
+                    rest[byRow ? column : row] += value.doubleValue();
+                    restHasValue[byRow ? column : row] = true;
+                }
+            }
+        }
+        for (int i = 0; i < rest.length; i++) {
+            if (restHasValue[i]) {
+                result.setValue(byRow ? otherRow : i, byRow ? result.getColumnIndex(dataset.getColumnKey(i))
+                        : otherColumn, rest[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fold the smaller series of XY data into one series, summing the Y
+     * values of the items at the same X value.
+     *
+     * @param dataset The dataset.
+     * @param time True for a time series, with milliseconds as X values.
+     * @return The folded dataset, an {@link ArrayTimeSeriesDataset} for a
+     * time series and an {@link ArrayXYDataset} otherwise, or the dataset
+     * when nothing is folded.
+     */
+    public XYDataset fold(XYDataset dataset, boolean time) {
+        int seriesCount = dataset.getSeriesCount();
+        double[] weights = new double[seriesCount];
+        boolean[] other = new boolean[seriesCount];
+        for (int series = 0; series < seriesCount; series++) {
+            for (int item = 0; item < dataset.getItemCount(series); item++) {
+                double y = dataset.getYValue(series, item);
+                weights[series] += Double.isNaN(y) ? 0 : Math.abs(y);
+            }
+            other[series] = otherKey.equals(dataset.getSeriesKey(series));
+        }
+        boolean[] kept = select(weights, other);
+        if (kept == null) {
+            return dataset;
+        }
+
+        ArrayTimeSeriesDataset timeResult = time ? new ArrayTimeSeriesDataset() : null;
+        ArrayXYDataset result = time ? null : new ArrayXYDataset();
+        int restCount = 0;
+        for (int series = 0; series < seriesCount; series++) {
+            if (kept[series]) {
+                double[][] items = items(dataset, series);
+                if (time) {
+                    timeResult.addSeries(dataset.getSeriesKey(series), items[0], items[1]);
+                } else {
+                    result.addSeries(dataset.getSeriesKey(series), items[0], items[1]);
+                }
+            } else {
+                restCount += dataset.getItemCount(series);
+            }
+        }
+
+        // the items of the folded series, sorted by X, summed per X value
+        double[] x = new double[restCount];
+        double[] y = new double[restCount];
+        int count = 0;
+        for (int series = 0; series < seriesCount; series++) {
+            if (!kept[series]) {
+                for (int item = 0; item < dataset.getItemCount(series); item++) {
+                    x[count] = dataset.getXValue(series, item);
+                    y[count++] = dataset.getYValue(series, item);
+                }
+            }
+        }
+        int[] order = IntStream.range(0, count).boxed()
+                .sorted((a, b) -> Double.compare(x[a], x[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        double[] restX = new double[count];
+        double[] restY = new double[count];
+        int restItems = 0;
+        for (int i : order) {
+            if (restItems > 0 && restX[restItems - 1] == x[i]) {
+                restY[restItems - 1] = sum(restY[restItems - 1], y[i]);
+            } else {
+                restX[restItems] = x[i];
+                restY[restItems++] = y[i];
+            }
+        }
+        restX = Arrays.copyOf(restX, restItems);
+        restY = Arrays.copyOf(restY, restItems);
+        if (time) {
+            timeResult.addSeries(otherKey, restX, restY);
+            return timeResult;
+        }
+        result.addSeries(otherKey, restX, restY);
+        return result;
+    }
+
+    /**
+     * Select the entries to keep.
+     *
+     * @return Whether each entry is kept, null when all are.
+     */
+    private boolean[] select(double[] weights, boolean[] other) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        int[] ranked = IntStream.range(0, weights.length).boxed()
+                .sorted((a, b) -> Double.compare(weights[b], weights[a]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        boolean[] kept = new boolean[weights.length];
+        int keptCount = 0;
+        int folded = 0;
+        boolean otherFolded = false;
+        for (int i : ranked) {
+            if (!other[i] && keptCount < n && (total == 0 || weights[i] / total >= minShare)) {
+                kept[i] = true;
+                keptCount++;
+            } else {
+                folded++;
+                otherFolded |= other[i];
+            }
+        }
+        if (folded == 0 || folded == 1 && !otherFolded) {
+            // nothing to fold, or a single entry taking the place of the other entry
+            return null;
+        }
+        return kept;
+    }
+
+    private static double weight(Number value) {
+        return value == null || Double.isNaN(value.doubleValue()) ? 0 : Math.abs(value.doubleValue());
+    }
+
+    private static double value(Number value) {
+        return value == null || Double.isNaN(value.doubleValue()) ? 0 : value.doubleValue();
+    }
+
+    private static double sum(double a, double b) {
+        return Double.isNaN(a) ? b : Double.isNaN(b) ? a : a + b;
+    }
+
+    private static double[][] items(XYDataset dataset, int series) {
+        if (dataset instanceof ArrayXYDataset) {
+            return new double[][] {((ArrayXYDataset) dataset).getXValues(series),
+                    ((ArrayXYDataset) dataset).getYValues(series)};
+        }
+        int count = dataset.getItemCount(series);
+        double[] x = new double[count];
+        double[] y = new double[count];
+        for (int item = 0; item < count; item++) {
+            x[item] = dataset.getXValue(series, item);
+            y[item] = dataset.getYValue(series, item);
+        }
+        return new double[][] {x, y};
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.Arrays;
+import org.jfree.data.Range;
+import org.jfree.data.general.DatasetUtilities;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Downsampling of XY series to a point budget before plotting, so lines of
+ * millions of points render in time proportional to the image width.
+ *
+ * Missing values (NaN) are kept as gaps: a bucket holding a missing value
+ * emits one missing value next to its selected point.
+ */
+public class XYDecimator {
+
+    /**
+     * Downsample each series with Largest-Triangle-Three-Buckets. Series
+     * which fit the budget are kept as they are.
+     *
+     * @param dataset The dataset, the items of each series ordered by x.
+     * @param threshold The maximum number of points per series, at least 3.
+     * @return The dataset, or a downsampled copy when a series exceeds the
+     * threshold.
+     */
+    public static XYDataset lttb(XYDataset dataset, int threshold) {
+        if (!exceeds(dataset, threshold) || threshold < 3) {
+            return dataset;
+        }
+
+        ArrayXYDataset result = new ArrayXYDataset();
+        DoubleList x = new DoubleList(threshold + threshold / 2);
+        DoubleList y = new DoubleList(threshold + threshold / 2);
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            x.clear();
+            y.clear();
+            if (dataset.getItemCount(series) > threshold) {
+                lttb(dataset, series, threshold, x, y);
+            } else {
+                copy(dataset, series, x, y);
+            }
+            result.addSeries(dataset.getSeriesKey(series), x.toArray(), y.toArray());
+        }
+        return result;
+    }
+
+    /**
+     * Downsample each series with M4: of each pixel column the first, last,
+     * minimum and maximum point are kept, which draw the same line as all
+     * points of the column. Series of at most 4 points per column are kept
+     * as they are.
+     *
+     * @param dataset The dataset, the items of each series ordered by x.
+     * @param columns The number of pixel columns along the domain axis.
+     * @param lowerBound The lower bound of the domain axis, or null for the
+     * lowest x value.
+     * @param upperBound The upper bound of the domain axis, or null for the
+     * highest x value.
+     * @return The dataset, or a downsampled copy when a series exceeds four
+     * points per column.
+     */
+    public static XYDataset m4(XYDataset dataset, int columns, Double lowerBound, Double upperBound) {
+        if (!exceeds(dataset, 4 * columns) || columns < 1) {
+            return dataset;
+        }
+
+        double lower;
+        double upper;
+        if (lowerBound != null && upperBound != null) {
+            lower = lowerBound;
+            upper = upperBound;
+        } else {
+            Range range = DatasetUtilities.findDomainBounds(dataset, false);
+            if (range == null) {
+                return dataset;
+            }
+            lower = lowerBound != null ? lowerBound : range.getLowerBound();
+            upper = upperBound != null ? upperBound : range.getUpperBound();
+        }
+        if (!(upper > lower)) {
+            return dataset;
+        }
+
+        ArrayXYDataset result = new ArrayXYDataset();
+        DoubleList x = new DoubleList(4 * columns + 8);
+        DoubleList y = new DoubleList(4 * columns + 8);
+        M4 m4 = new M4(columns, lower, upper);
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            x.clear();
+            y.clear();
+            if (dataset.getItemCount(series) > 4 * columns) {
+                m4.decimate(dataset, series, x, y);
+            } else {
+                copy(dataset, series, x, y);
+            }
+            result.addSeries(dataset.getSeriesKey(series), x.toArray(), y.toArray());
+        }
+        return result;
+    }
+
+    /**
+     * The per column state of M4, reused for all series. The points before
+     * and after the domain range are reduced as two more columns, so the
+     * range of the y values stays the same.
+     */
+    private static class M4 {
+
+        private final int columns;
+        private final double lower;
+        private final double scale;
+
+        // item index of the first, last, min, max and first missing point per column
+        private final int[] first;
+        private final int[] last;
+        private final int[] min;
+        private final int[] max;
+        private final int[] gap;
+        private final double[] minY;
+        private final double[] maxY;
+
+        private final int[] selected = new int[5];
+
+        M4(int columns, double lower, double upper) {
+            this.columns = columns;
+            this.lower = lower;
+            this.scale = columns / (upper - lower);
+            // column 0 is before the range, column columns + 1 after it
+            first = new int[columns + 2];
+            last = new int[columns + 2];
+            min = new int[columns + 2];
+            max = new int[columns + 2];
+            gap = new int[columns + 2];
+            minY = new double[columns + 2];
+            maxY = new double[columns + 2];
+        }
+
+        void decimate(XYDataset dataset, int series, DoubleList outX, DoubleList outY) {
+            Arrays.fill(first, -1);
+            Arrays.fill(gap, -1);
+
+            final int n = dataset.getItemCount(series);
+            for (int i = 0; i < n; i++) {
+                double column = (dataset.getXValue(series, i) - lower) * scale;
+                int c;
+                if (column < 0) {
+                    c = 0;
+                } else if (column < columns) {
+                    c = (int) column + 1;
+                } else if (column == columns) {
+                    // the upper bound itself
+                    c = columns;
+                } else if (column > columns) {
+                    c = columns + 1;
+                } else {
+                    // missing x
+                    continue;
+                }
+
+                double yi = dataset.getYValue(series, i);
+                if (Double.isNaN(yi)) {
+                    if (gap[c] < 0) {
+                        gap[c] = i;
+                    }
+                    continue;
+                }
+                if (first[c] < 0) {
+                    first[c] = i;
+                    min[c] = i;
+                    max[c] = i;
+                    minY[c] = yi;
+                    maxY[c] = yi;
+                } else if (yi < minY[c]) {
+                    min[c] = i;
+                    minY[c] = yi;
+                } else if (yi > maxY[c]) {
+                    max[c] = i;
+                    maxY[c] = yi;
+                }
+                last[c] = i;
+            }
+
+            for (int c = 0; c < columns + 2; c++) {
+                int count = 0;
+                if (first[c] >= 0) {
+                    selected[count++] = first[c];
+                    selected[count++] = min[c];
+                    selected[count++] = max[c];
+                    selected[count++] = last[c];
+                }
+                if (gap[c] >= 0) {
+                    selected[count++] = gap[c];
+                }
+                Arrays.sort(selected, 0, count);
+                for (int k = 0; k < count; k++) {
+                    if (k == 0 || selected[k] != selected[k - 1]) {
+                        outX.add(dataset.getXValue(series, selected[k]));
+                        outY.add(dataset.getYValue(series, selected[k]));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void lttb(XYDataset dataset, int series, int threshold, DoubleList outX, DoubleList outY) {
+        final int n = dataset.getItemCount(series);
+
+        // the first and last points are kept, the others fill threshold - 2 buckets
+        final double every = (double) (n - 2) / (threshold - 2);
+
+        int a = 0;
+        outX.add(dataset.getXValue(series, 0));
+        outY.add(dataset.getYValue(series, 0));
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+
+            // average of the next bucket, the third triangle point
+            int avgStart = (int) ((bucket + 1) * every) + 1;
+            int avgEnd = Math.min((int) ((bucket + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            int avgCount = 0;
+            for (int i = avgStart; i < avgEnd; i++) {
+                double yi = dataset.getYValue(series, i);
+                if (!Double.isNaN(yi)) {
+                    avgX += dataset.getXValue(series, i);
+                    avgY += yi;
+                    avgCount++;
+                }
+            }
+            if (avgCount > 0) {
+                avgX /= avgCount;
+                avgY /= avgCount;
+            } else {
+                avgX = dataset.getXValue(series, n - 1);
+                avgY = dataset.getYValue(series, n - 1);
+            }
+
+            // the point of this bucket forming the largest triangle
+            int rangeStart = (int) (bucket * every) + 1;
+            int rangeEnd = (int) ((bucket + 1) * every) + 1;
+            double ax = dataset.getXValue(series, a);
+            double ay = dataset.getYValue(series, a);
+            double maxArea = -1;
+            int selected = -1;
+            int firstFinite = -1;
+            int gap = -1;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double yi = dataset.getYValue(series, i);
+                if (Double.isNaN(yi)) {
+                    if (gap < 0) {
+                        gap = i;
+                    }
+                    continue;
+                }
+                if (firstFinite < 0) {
+                    firstFinite = i;
+                }
+                double area = Math.abs((ax - avgX) * (yi - ay)
+                        - (ax - dataset.getXValue(series, i)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = i;
+                }
+            }
+            if (selected < 0) {
+                // area undefined, e.g. after a missing first value
+                selected = firstFinite;
+            }
+
+            if (gap >= 0 && (selected < 0 || gap < selected)) {
+                outX.add(dataset.getXValue(series, gap));
+                outY.add(Double.NaN);
+            }
+            if (selected >= 0) {
+                outX.add(dataset.getXValue(series, selected));
+                outY.add(dataset.getYValue(series, selected));
+                a = selected;
+            }
+            if (gap > selected && selected >= 0) {
+                outX.add(dataset.getXValue(series, gap));
+                outY.add(Double.NaN);
+            }
+        }
+
+        outX.add(dataset.getXValue(series, n - 1));
+        outY.add(dataset.getYValue(series, n - 1));
+    }
+
+    private static void copy(XYDataset dataset, int series, DoubleList outX, DoubleList outY) {
+        for (int i = 0; i < dataset.getItemCount(series); i++) {
+            outX.add(dataset.getXValue(series, i));
+            outY.add(dataset.getYValue(series, i));
+        }
+    }
+
+    private static boolean exceeds(XYDataset dataset, int threshold) {
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            if (dataset.getItemCount(series) > threshold) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.io.IOException;
+
+/**
+ * Receives the items of XY series one by one while data is streamed, so
+ * the series never need to be held in memory. The items of different
+ * series may be interleaved.
+ */
+public interface XYItemSink {
+
+    /**
+     * Announce a series, before its first item.
+     *
+     * @param key The series key.
+     * @return The index of the series, counting from 0 in the order the
+     * series are announced.
+     * @throws IOException Thrown when the sink cannot take the series.
+     */
+    int addSeries(Comparable key) throws IOException;
+
+    /**
+     * Receive an item.
+     *
+     * @param series The index of the series.
+     * @param x The x value.
+     * @param y The y value, NaN when missing.
+     * @throws IOException Thrown when the sink cannot take the item.
+     */
+    void addItem(int series, double x, double y) throws IOException;
+}
@@ -0,0 +1,88 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sink collecting the statistics of streamed XY series: the number of
+ * items, the bounds, and the number and sum of the y values of each series. The
+ * statistics are available as a {@link XYSummaryDataset}.
+ */
+public class XYStreamSummary implements XYItemSink {
+
+    private final List<Comparable> keys = new ArrayList<>();
+    private final DoubleList counts = new DoubleList();
+    private final DoubleList minX = new DoubleList();
+    private final DoubleList maxX = new DoubleList();
+    private final DoubleList minY = new DoubleList();
+    private final DoubleList maxY = new DoubleList();
+    private final DoubleList countY = new DoubleList();
+    private final DoubleList sumY = new DoubleList();
+
+    @Override
+    public int addSeries(Comparable key) {
+        int series = keys.size();
+        keys.add(key);
+        counts.add(0);
+        minX.add(Double.POSITIVE_INFINITY);
+        maxX.add(Double.NEGATIVE_INFINITY);
+        minY.add(Double.POSITIVE_INFINITY);
+        maxY.add(Double.NEGATIVE_INFINITY);
+        countY.add(0);
+        sumY.add(0);
+        return series;
+    }
+
+    @Override
+    public void addItem(int series, double x, double y) {
+        counts.set(series, counts.get(series) + 1);
+        if (x < minX.get(series)) {
+            minX.set(series, x);
+        }
+        if (x > maxX.get(series)) {
+            maxX.set(series, x);
+        }
+        if (!Double.isNaN(y)) {
+            if (y < minY.get(series)) {
+                minY.set(series, y);
+            }
+            if (y > maxY.get(series)) {
+                maxY.set(series, y);
+            }
+            countY.set(series, countY.get(series) + 1);
+            sumY.set(series, sumY.get(series) + y);
+        }
+    }
+
+    /**
+     * Get the statistics as a dataset, for the axes and the legend of a
+     * chart.
+     *
+     * @return The dataset.
+     */
+    public XYSummaryDataset getDataset() {
+        int seriesCount = keys.size();
+        return new XYSummaryDataset(keys.toArray(new Comparable[seriesCount]), counts.toArray(),
+                minX.toArray(), maxX.toArray(), minY.toArray(), maxY.toArray(), countY.toArray(), sumY.toArray());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.data;
+
+import java.util.List;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+/**
+ * Stands in for streamed XY series while a chart is built: it has the keys
+ * and the bounds of the series, so axes and legend come out as for the
+ * full data, but only one placeholder item per non-empty series. The items
+ * themselves are drawn by a renderer streaming the data again.
+ */
+public class XYSummaryDataset extends AbstractXYDataset
+        implements DomainInfo, RangeInfo, XYDomainInfo, XYRangeInfo {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private final Comparable[] keys;
+    private final double[] counts;
+    private final double[] minX;
+    private final double[] maxX;
+    private final double[] minY;
+    private final double[] maxY;
+    private final double[] countY;
+    private final double[] sumY;
+
+    XYSummaryDataset(Comparable[] keys, double[] counts, double[] minX, double[] maxX,
+            double[] minY, double[] maxY, double[] countY, double[] sumY) {
+        this.keys = keys;
+        this.counts = counts;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.countY = countY;
+        this.sumY = sumY;
+    }
+
+    /**
+     * Get the number of streamed items of a series.
+     *
+     * @param series The series index.
+     * @return The number of items.
+     */
+    public long getStreamedItemCount(int series) {
+        return (long) counts[series];
+    }
+
+    /**
+     * Get the mean of the y values of a series, missing values excluded.
+     *
+     * @param series The series index.
+     * @return The mean, NaN when the series has no y values.
+     */
+    public double getMeanY(int series) {
+        return countY[series] > 0 ? sumY[series] / countY[series] : Double.NaN;
+    }
+
+    public double getMinX(int series) {
+        return minX[series];
+    }
+
+    public double getMaxX(int series) {
+        return maxX[series];
+    }
+
+    public double getMinY(int series) {
+        return minY[series];
+    }
+
+    public double getMaxY(int series) {
+        return maxY[series];
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return keys.length;
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return keys[series];
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return counts[series] > 0 ? 1 : 0;
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return minX[series];
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        return maxY[series] >= minY[series] ? minY[series] : null;
+    }
+
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        Range range = getDomainBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        return bounds(null, minX, maxX);
+    }
+
+    @Override
+    public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+        return bounds(visibleSeriesKeys, minX, maxX);
+    }
+
+    @Override
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getLowerBound();
+    }
+
+    @Override
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range range = getRangeBounds(includeInterval);
+        return range == null ? Double.NaN : range.getUpperBound();
+    }
+
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        return bounds(null, minY, maxY);
+    }
+
+    /**
+     * The y bounds of the visible series. The x range is not applied, as
+     * the bounds of the values within it are not known.
+     */
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+        return bounds(visibleSeriesKeys, minY, maxY);
+    }
+
+    private Range bounds(List visibleSeriesKeys, double[] min, double[] max) {
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (int series = 0; series < keys.length; series++) {
+            if (visibleSeriesKeys == null || visibleSeriesKeys.contains(keys[series])) {
+                lower = Math.min(lower, min[series]);
+                upper = Math.max(upper, max[series]);
+            }
+        }
+        return lower <= upper ? new Range(lower, upper) : null;
+    }
+}
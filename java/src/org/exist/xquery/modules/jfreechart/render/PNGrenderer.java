@@ -21,6 +21,7 @@
  */
 package org.exist.xquery.modules.jfreechart.render;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -38,9 +39,15 @@ import org.jfree.chart.JFreeChart;
  */
 public class PNGrenderer implements Renderer {
 
+    private static final StaticLayerCache cache = new StaticLayerCache(StaticLayerCache.DEFAULT_CAPACITY);
+
     @Override
     public void render(JFreeChart chart, Configuration config, OutputStream os) throws IOException {
-        ChartUtilities.writeChartAsPNG(os, chart, config.getImageWidth(), config.getImageHeight());
+        if (config.isStaticLayerCache()) {
+            ChartUtilities.writeBufferedImageAsPNG(os, cache.createBufferedImage(chart, config, BufferedImage.TYPE_INT_ARGB));
+        } else {
+            ChartUtilities.writeChartAsPNG(os, chart, config.getImageWidth(), config.getImageHeight());
+        }
     }
 
     @Override
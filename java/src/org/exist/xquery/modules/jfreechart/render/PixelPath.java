@@ -0,0 +1,159 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render;
+
+import java.awt.geom.Path2D;
+
+/**
+ * Builds the line of a series as one path from its Java2D coordinates,
+ * leaving out points that do not change the drawing: of a run of points in
+ * the same pixel column of the domain axis only the first, the lowest, the
+ * highest and the last are kept, and a point in the same pixel as the
+ * point before it is skipped. A series of any length thus gives a path of
+ * at most four points per pixel along the domain axis.
+ */
+public class PixelPath {
+
+    private final boolean domainIsHorizontal;
+    private final Path2D.Float path = new Path2D.Float();
+
+    // the last point added to the path, when a line can be continued
+    private boolean connected;
+    private int lastPixelX;
+    private int lastPixelY;
+
+    // the run of points in the current pixel column
+    private boolean pending;
+    private int column;
+    private int count;
+    private float firstX, firstY, lastX, lastY;
+    private float minX, minY, maxX, maxY;
+    private float minValue, maxValue;
+    private int minIndex, maxIndex;
+
+    /**
+     * Create a path builder.
+     *
+     * @param domainIsHorizontal True when the domain axis is horizontal,
+     * i.e. in the vertical plot orientation.
+     */
+    public PixelPath(boolean domainIsHorizontal) {
+        this.domainIsHorizontal = domainIsHorizontal;
+    }
+
+    /**
+     * Add the next point of the line.
+     *
+     * @param x The horizontal coordinate, NaN breaks the line.
+     * @param y The vertical coordinate, NaN breaks the line.
+     */
+    public void add(float x, float y) {
+        if (Float.isNaN(x) || Float.isNaN(y)) {
+            flush();
+            connected = false;
+            return;
+        }
+        float domain = domainIsHorizontal ? x : y;
+        float value = domainIsHorizontal ? y : x;
+        int pixelColumn = (int) Math.floor(domain);
+
+        if (pending && pixelColumn == column) {
+            if (value < minValue) {
+                minValue = value;
+                minX = x;
+                minY = y;
+                minIndex = count;
+            }
+            if (value > maxValue) {
+                maxValue = value;
+                maxX = x;
+                maxY = y;
+                maxIndex = count;
+            }
+            lastX = x;
+            lastY = y;
+            count++;
+            return;
+        }
+
+        flush();
+        pending = true;
+        column = pixelColumn;
+        count = 1;
+        firstX = minX = maxX = lastX = x;
+        firstY = minY = maxY = lastY = y;
+        minValue = maxValue = value;
+        minIndex = maxIndex = 0;
+    }
+
+    /**
+     * Get the path of the points added since the last reset.
+     *
+     * @return The path, owned by the builder.
+     */
+    public Path2D.Float getPath() {
+        flush();
+        return path;
+    }
+
+    /**
+     * Start a new path.
+     */
+    public void reset() {
+        path.reset();
+        connected = false;
+        pending = false;
+    }
+
+    /**
+     * Add the kept points of the pending run to the path, in their order.
+     */
+    private void flush() {
+        if (!pending) {
+            return;
+        }
+        pending = false;
+        emit(firstX, firstY);
+        if (minIndex <= maxIndex) {
+            emit(minX, minY);
+            emit(maxX, maxY);
+        } else {
+            emit(maxX, maxY);
+            emit(minX, minY);
+        }
+        emit(lastX, lastY);
+    }
+
+    private void emit(float x, float y) {
+        int pixelX = (int) Math.floor(x);
+        int pixelY = (int) Math.floor(y);
+        if (!connected) {
+            path.moveTo(x, y);
+            connected = true;
+        } else if (pixelX != lastPixelX || pixelY != lastPixelY) {
+            path.lineTo(x, y);
+        } else {
+            return;
+        }
+        lastPixelX = pixelX;
+        lastPixelY = pixelY;
+    }
+}
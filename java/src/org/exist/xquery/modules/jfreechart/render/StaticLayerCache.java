@@ -0,0 +1,394 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Stroke;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.exist.xquery.modules.jfreechart.Configuration;
+import org.jfree.chart.ChartRenderingInfo;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.LegendItem;
+import org.jfree.chart.LegendItemCollection;
+import org.jfree.chart.axis.Axis;
+import org.jfree.chart.axis.SymbolAxis;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.CategoryCrosshairState;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.CrosshairState;
+import org.jfree.chart.plot.DatasetRenderingOrder;
+import org.jfree.chart.plot.Plot;
+import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.AbstractXYItemRenderer;
+import org.jfree.chart.renderer.xy.XYItemRenderer;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
+import org.jfree.data.Range;
+import org.jfree.data.general.DatasetUtilities;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.ui.Layer;
+
+/**
+ * Draws XY and category charts in two layers: a static layer with the
+ * titles, legend, axes, background and gridlines, and a data layer with
+ * the items. The static layer is cached by the configuration, the image
+ * size and what the chart shows of its data, i.e. the axis ranges and
+ * symbols, the categories and the legend items; when these are unchanged the static
+ * layer is copied and only the data is drawn on top.
+ *
+ * The static layer is drawn as the chart without items: the renderers of
+ * XY plots are replaced by renderers drawing nothing, category plots are
+ * drawn with a foreground alpha of zero. Charts with markers, annotations,
+ * crosshairs, shadows or without data draw more than the items between
+ * the gridlines and the outline and are drawn in full instead.
+ */
+public class StaticLayerCache {
+
+    /** The number of static layers kept by default. */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final int capacity;
+    private final Map<String, StaticLayer> layers;
+
+    public StaticLayerCache(int capacity) {
+        this.capacity = capacity;
+        this.layers = new LinkedHashMap<String, StaticLayer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StaticLayer> eldest) {
+                return size() > StaticLayerCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Draw a chart into an image, reusing the cached static layer when
+     * possible.
+     *
+     * @param chart The chart.
+     * @param config The configuration the chart was created with.
+     * @param imageType The type of the image, e.g.
+     * {@link BufferedImage#TYPE_INT_ARGB}.
+     * @return The image, of the configured size.
+     */
+    public BufferedImage createBufferedImage(JFreeChart chart, Configuration config, int imageType) {
+        int width = config.getImageWidth();
+        int height = config.getImageHeight();
+        String key = getKey(chart, config, imageType);
+        if (key == null) {
+            return chart.createBufferedImage(width, height, imageType, null);
+        }
+
+        StaticLayer layer = get(key);
+        if (layer == null) {
+            layer = createStaticLayer(chart, width, height, imageType);
+            put(key, layer);
+        }
+
+        BufferedImage image = new BufferedImage(layer.image.getColorModel(), layer.image.copyData(null),
+                layer.image.isAlphaPremultiplied(), null);
+        Graphics2D g2 = image.createGraphics();
+        g2.addRenderingHints(chart.getRenderingHints());
+        drawData(g2, chart.getPlot(), layer.dataArea);
+        g2.dispose();
+        return image;
+    }
+
+    /**
+     * Remove all static layers.
+     */
+    public synchronized void clear() {
+        layers.clear();
+    }
+
+    public synchronized int size() {
+        return layers.size();
+    }
+
+    private synchronized StaticLayer get(String key) {
+        return layers.get(key);
+    }
+
+    private synchronized void put(String key, StaticLayer layer) {
+        layers.put(key, layer);
+    }
+
+    /**
+     * Draw the chart without its items, and without the plot outline which
+     * is drawn over the items.
+     */
+    private static StaticLayer createStaticLayer(JFreeChart chart, int width, int height, int imageType) {
+        Plot plot = chart.getPlot();
+        float foregroundAlpha = plot.getForegroundAlpha();
+        boolean outlineVisible = plot.isOutlineVisible();
+        XYItemRenderer[] renderers = null;
+        ChartRenderingInfo info = new ChartRenderingInfo(null);
+        try {
+            if (plot instanceof XYPlot) {
+                // the gridlines are drawn with the foreground alpha too
+                XYPlot xyPlot = (XYPlot) plot;
+                renderers = new XYItemRenderer[xyPlot.getDatasetCount()];
+                for (int i = 0; i < renderers.length; i++) {
+                    renderers[i] = xyPlot.getRenderer(i);
+                    if (renderers[i] != null) {
+                        xyPlot.setRenderer(i, new StaticXYRenderer(renderers[i]), false);
+                    }
+                }
+            } else {
+                plot.setForegroundAlpha(0.0f);
+            }
+            plot.setOutlineVisible(false);
+            BufferedImage image = chart.createBufferedImage(width, height, imageType, info);
+            return new StaticLayer(image, info.getPlotInfo().getDataArea());
+
+        } finally {
+            if (renderers != null) {
+                for (int i = 0; i < renderers.length; i++) {
+                    if (renderers[i] != null) {
+                        ((XYPlot) plot).setRenderer(i, renderers[i], false);
+                    }
+                }
+            }
+            plot.setForegroundAlpha(foregroundAlpha);
+            plot.setOutlineVisible(outlineVisible);
+        }
+    }
+
+    /**
+     * Draw the items and the outline of the plot as the plot itself does
+     * after drawing the axes and gridlines.
+     */
+    private static void drawData(Graphics2D g2, Plot plot, Rectangle2D dataArea) {
+        g2.clip(dataArea);
+        g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, plot.getForegroundAlpha()));
+        if (plot instanceof XYPlot) {
+            XYPlot xyPlot = (XYPlot) plot;
+            CrosshairState crosshairState = new CrosshairState();
+            boolean forward = xyPlot.getDatasetRenderingOrder() == DatasetRenderingOrder.FORWARD;
+            int count = xyPlot.getDatasetCount();
+            for (int i = 0; i < count; i++) {
+                xyPlot.render(g2, dataArea, forward ? i : count - 1 - i, null, crosshairState);
+            }
+        } else {
+            CategoryPlot categoryPlot = (CategoryPlot) plot;
+            CategoryCrosshairState crosshairState = new CategoryCrosshairState();
+            boolean forward = categoryPlot.getDatasetRenderingOrder() == DatasetRenderingOrder.FORWARD;
+            int count = categoryPlot.getDatasetCount();
+            for (int i = 0; i < count; i++) {
+                categoryPlot.render(g2, dataArea, forward ? i : count - 1 - i, null, crosshairState);
+            }
+        }
+        g2.setClip(null);
+        g2.setComposite(AlphaComposite.SrcOver);
+        plot.drawOutline(g2, dataArea);
+    }
+
+    /**
+     * Get the key of the static layer of a chart.
+     *
+     * @return The key, or null when the chart is not drawn in layers.
+     */
+    static String getKey(JFreeChart chart, Configuration config, int imageType) {
+        Plot plot = chart.getPlot();
+        StringBuilder key = new StringBuilder();
+        key.append(imageType).append('\u0000').append(config.getParameters())
+                .append('\u0000').append(plot.getClass().getName());
+
+        if (plot instanceof XYPlot) {
+            XYPlot xyPlot = (XYPlot) plot;
+            if (xyPlot.getShadowGenerator() != null || !xyPlot.getAnnotations().isEmpty()
+                    || xyPlot.isDomainCrosshairVisible() || xyPlot.isRangeCrosshairVisible()) {
+                return null;
+            }
+            for (int i = 0; i < xyPlot.getDatasetCount(); i++) {
+                XYItemRenderer renderer = xyPlot.getRenderer(i);
+                if (hasMarkers(xyPlot.getDomainMarkers(i, Layer.BACKGROUND), xyPlot.getDomainMarkers(i, Layer.FOREGROUND),
+                        xyPlot.getRangeMarkers(i, Layer.BACKGROUND), xyPlot.getRangeMarkers(i, Layer.FOREGROUND))
+                        || DatasetUtilities.isEmptyOrNull(xyPlot.getDataset(i))
+                        || renderer instanceof AbstractXYItemRenderer
+                                && !((AbstractXYItemRenderer) renderer).getAnnotations().isEmpty()) {
+                    return null;
+                }
+                key.append('\u0000').append(renderer == null ? null : renderer.getClass().getName());
+            }
+            for (int i = 0; i < xyPlot.getDomainAxisCount(); i++) {
+                appendAxis(key, xyPlot.getDomainAxis(i));
+            }
+            for (int i = 0; i < xyPlot.getRangeAxisCount(); i++) {
+                appendAxis(key, xyPlot.getRangeAxis(i));
+            }
+
+        } else if (plot instanceof CategoryPlot) {
+            CategoryPlot categoryPlot = (CategoryPlot) plot;
+            if (categoryPlot.getShadowGenerator() != null || !categoryPlot.getAnnotations().isEmpty()
+                    || categoryPlot.isDomainCrosshairVisible() || categoryPlot.isRangeCrosshairVisible()) {
+                return null;
+            }
+            for (int i = 0; i < categoryPlot.getDatasetCount(); i++) {
+                if (hasMarkers(categoryPlot.getDomainMarkers(i, Layer.BACKGROUND),
+                        categoryPlot.getDomainMarkers(i, Layer.FOREGROUND),
+                        categoryPlot.getRangeMarkers(i, Layer.BACKGROUND),
+                        categoryPlot.getRangeMarkers(i, Layer.FOREGROUND))
+                        || DatasetUtilities.isEmptyOrNull(categoryPlot.getDataset(i))) {
+                    return null;
+                }
+                key.append('\u0000').append(categoryPlot.getRenderer(i) == null
+                        ? null : categoryPlot.getRenderer(i).getClass().getName());
+                // the category labels
+                key.append('\u0000').append(categoryPlot.getDataset(i).getColumnKeys());
+            }
+            for (int i = 0; i < categoryPlot.getRangeAxisCount(); i++) {
+                appendAxis(key, categoryPlot.getRangeAxis(i));
+            }
+
+        } else {
+            return null;
+        }
+
+        // only with a legend, as the lookup assigns the series paints
+        if (chart.getLegend() != null) {
+            LegendItemCollection legendItems = plot.getLegendItems();
+            for (Iterator i = legendItems.iterator(); i.hasNext(); ) {
+                LegendItem item = (LegendItem) i.next();
+                key.append('\u0000').append(item.getLabel())
+                        .append(' ').append(item.isShapeVisible()).append(' ').append(item.isLineVisible())
+                        .append(' ').append(item.getFillPaint()).append(' ').append(item.getLinePaint());
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean hasMarkers(Collection... markers) {
+        for (Collection collection : markers) {
+            if (collection != null && !collection.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendAxis(StringBuilder key, Axis axis) {
+        key.append('\u0000');
+        if (axis != null) {
+            key.append(axis.getClass().getName());
+            if (axis instanceof ValueAxis) {
+                ValueAxis valueAxis = (ValueAxis) axis;
+                key.append(' ').append(valueAxis.getLowerBound()).append(' ').append(valueAxis.getUpperBound());
+            }
+            if (axis instanceof SymbolAxis) {
+                key.append(' ').append(Arrays.toString(((SymbolAxis) axis).getSymbols()));
+            }
+        }
+    }
+
+    /**
+     * Renderer standing in for the renderer of an XY plot while the static
+     * layer is drawn: it has the series, legend and gridlines of the
+     * renderer and no passes over the items.
+     */
+    private static class StaticXYRenderer extends AbstractXYItemRenderer {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        private final XYItemRenderer renderer;
+
+        StaticXYRenderer(XYItemRenderer renderer) {
+            this.renderer = renderer;
+        }
+
+        @Override
+        public int getPassCount() {
+            return 0;
+        }
+
+        @Override
+        public void drawItem(Graphics2D g2, XYItemRendererState state, Rectangle2D dataArea,
+                PlotRenderingInfo info, XYPlot plot, ValueAxis domainAxis, ValueAxis rangeAxis,
+                XYDataset dataset, int series, int item, CrosshairState crosshairState, int pass) {
+        }
+
+        @Override
+        public boolean isSeriesVisible(int series) {
+            return renderer.isSeriesVisible(series);
+        }
+
+        @Override
+        public boolean isSeriesVisibleInLegend(int series) {
+            return renderer.isSeriesVisibleInLegend(series);
+        }
+
+        @Override
+        public LegendItem getLegendItem(int datasetIndex, int series) {
+            return renderer.getLegendItem(datasetIndex, series);
+        }
+
+        @Override
+        public Range findDomainBounds(XYDataset dataset) {
+            return renderer.findDomainBounds(dataset);
+        }
+
+        @Override
+        public Range findRangeBounds(XYDataset dataset) {
+            return renderer.findRangeBounds(dataset);
+        }
+
+        @Override
+        public void drawDomainGridLine(Graphics2D g2, XYPlot plot, ValueAxis axis, Rectangle2D dataArea,
+                double value) {
+            renderer.drawDomainGridLine(g2, plot, axis, dataArea, value);
+        }
+
+        @Override
+        public void drawDomainLine(Graphics2D g2, XYPlot plot, ValueAxis axis, Rectangle2D dataArea,
+                double value, Paint paint, Stroke stroke) {
+            if (renderer instanceof AbstractXYItemRenderer) {
+                ((AbstractXYItemRenderer) renderer).drawDomainLine(g2, plot, axis, dataArea, value, paint, stroke);
+            } else {
+                super.drawDomainLine(g2, plot, axis, dataArea, value, paint, stroke);
+            }
+        }
+
+        @Override
+        public void drawRangeLine(Graphics2D g2, XYPlot plot, ValueAxis axis, Rectangle2D dataArea,
+                double value, Paint paint, Stroke stroke) {
+            renderer.drawRangeLine(g2, plot, axis, dataArea, value, paint, stroke);
+        }
+    }
+
+    private static class StaticLayer {
+
+        private final BufferedImage image;
+        private final Rectangle2D dataArea;
+
+        StaticLayer(BufferedImage image, Rectangle2D dataArea) {
+            this.image = image;
+            this.dataArea = dataArea;
+        }
+    }
+}
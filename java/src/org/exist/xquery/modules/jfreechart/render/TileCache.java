@@ -0,0 +1,103 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of rendered chart tiles. A tile is only found
+ * for the same dataset instance it was rendered from, so tiles of a
+ * replaced dataset are never served; they are evicted in time.
+ */
+public class TileCache {
+
+    /** The number of tiles kept by default. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final Map<String, Tile> tiles;
+
+    public TileCache(int capacity) {
+        this.capacity = capacity;
+        this.tiles = new LinkedHashMap<String, Tile>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Tile> eldest) {
+                return size() > TileCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Get a tile.
+     *
+     * @param key The key of the tile, e.g. of the chart type, configuration
+     * and position.
+     * @param dataset The dataset the tile is drawn from.
+     * @return The image, or null when it is not cached.
+     */
+    public synchronized byte[] get(String key, Object dataset) {
+        Tile tile = tiles.get(key);
+        if (tile == null) {
+            return null;
+        }
+        if (tile.dataset.get() != dataset) {
+            tiles.remove(key);
+            return null;
+        }
+        return tile.image;
+    }
+
+    /**
+     * Add a tile, evicting the least recently used tile when the cache is
+     * full.
+     *
+     * @param key The key of the tile.
+     * @param dataset The dataset the tile is drawn from.
+     * @param image The image.
+     */
+    public synchronized void put(String key, Object dataset, byte[] image) {
+        tiles.put(key, new Tile(dataset, image));
+    }
+
+    /**
+     * Remove all tiles.
+     */
+    public synchronized void clear() {
+        tiles.clear();
+    }
+
+    public synchronized int size() {
+        return tiles.size();
+    }
+
+    private static class Tile {
+
+        private final WeakReference<Object> dataset;
+        private final byte[] image;
+
+        Tile(Object dataset, byte[] image) {
+            this.dataset = new WeakReference<>(dataset);
+            this.image = image;
+        }
+    }
+}
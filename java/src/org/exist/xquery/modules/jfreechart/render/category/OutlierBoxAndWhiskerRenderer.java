@@ -0,0 +1,47 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.category;
+
+import org.jfree.chart.renderer.category.BoxAndWhiskerRenderer;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.category.CategoryDataset;
+
+/**
+ * A box-and-whisker renderer whose range includes the outliers, which
+ * {@link BoxAndWhiskerRenderer} leaves outside the axis range, so they are
+ * drawn instead of clipped.
+ */
+public class OutlierBoxAndWhiskerRenderer extends BoxAndWhiskerRenderer {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Range findRangeBounds(CategoryDataset dataset) {
+        Range bounds = super.findRangeBounds(dataset);
+        if (dataset instanceof RangeInfo) {
+            Range all = ((RangeInfo) dataset).getRangeBounds(true);
+            return bounds == null ? all : Range.combine(bounds, all);
+        }
+        return bounds;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.category;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import org.exist.xquery.modules.jfreechart.render.PixelPath;
+import org.jfree.chart.axis.CategoryAxis;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.renderer.category.CategoryItemRendererState;
+import org.jfree.chart.renderer.category.LineAndShapeRenderer;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.ui.RectangleEdge;
+
+/**
+ * A line and shape renderer drawing the line of each series as one path
+ * with a single stroke call, leaving out the points that fall in the same
+ * pixel, see {@link PixelPath}, instead of a draw call per segment. The
+ * line is drawn when the plot asks for the first item of the series; the
+ * shapes, item labels and entities are drawn item by item as before.
+ */
+public class PathLineAndShapeRenderer extends LineAndShapeRenderer {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    public PathLineAndShapeRenderer(boolean lines, boolean shapes) {
+        super(lines, shapes);
+    }
+
+    @Override
+    public void drawItem(Graphics2D g2, CategoryItemRendererState state, Rectangle2D dataArea,
+            CategoryPlot plot, CategoryAxis domainAxis, ValueAxis rangeAxis, CategoryDataset dataset,
+            int row, int column, int pass) {
+
+        if (pass != 0) {
+            super.drawItem(g2, state, dataArea, plot, domainAxis, rangeAxis, dataset, row, column, pass);
+            return;
+        }
+        int visibleRow = state.getVisibleSeriesIndex(row);
+        if (column != 0 || visibleRow < 0 || !getItemVisible(row, 0) || !getItemLineVisible(row, 0)) {
+            return;
+        }
+
+        boolean domainIsHorizontal = plot.getOrientation() == PlotOrientation.VERTICAL;
+        RectangleEdge domainEdge = plot.getDomainAxisEdge();
+        RectangleEdge rangeEdge = plot.getRangeAxisEdge();
+        int columnCount = dataset.getColumnCount();
+        PixelPath path = new PixelPath(domainIsHorizontal);
+        for (int c = 0; c < columnCount; c++) {
+            Number value = dataset.getValue(row, c);
+            if (value == null) {
+                path.add(Float.NaN, Float.NaN);
+                continue;
+            }
+            double category = getUseSeriesOffset()
+                    ? domainAxis.getCategorySeriesMiddle(c, columnCount, visibleRow,
+                            state.getVisibleSeriesCount(), getItemMargin(), dataArea, domainEdge)
+                    : domainAxis.getCategoryMiddle(c, columnCount, dataArea, domainEdge);
+            double java2DValue = rangeAxis.valueToJava2D(value.doubleValue(), dataArea, rangeEdge);
+            if (domainIsHorizontal) {
+                path.add((float) category, (float) java2DValue);
+            } else {
+                path.add((float) java2DValue, (float) category);
+            }
+        }
+        g2.setPaint(getItemPaint(row, 0));
+        g2.setStroke(getItemStroke(row, 0));
+        g2.draw(path.getPath());
+    }
+}
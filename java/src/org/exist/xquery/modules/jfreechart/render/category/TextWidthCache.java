@@ -0,0 +1,127 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.category;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jfree.text.TextMeasurer;
+
+/**
+ * Least recently used cache of measured string widths, keyed by font, font
+ * render context and text, shared by all renders, as the same category
+ * labels are measured on every render and several times per render.
+ */
+public class TextWidthCache {
+
+    /** The number of widths kept by default. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final int capacity;
+    private final Map<Key, Float> widths;
+
+    public TextWidthCache(int capacity) {
+        this.capacity = capacity;
+        this.widths = new LinkedHashMap<Key, Float>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Float> eldest) {
+                return size() > TextWidthCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the width of a text, measuring it when it is not cached.
+     *
+     * @param g2 The graphics device, for its font render context.
+     * @param font The font.
+     * @param text The text.
+     * @return The width of the text.
+     */
+    public float getWidth(Graphics2D g2, Font font, String text) {
+        Key key = new Key(font, g2.getFontRenderContext(), text);
+        Float width = get(key);
+        if (width == null) {
+            width = (float) g2.getFontMetrics(font).getStringBounds(text, g2).getWidth();
+            put(key, width);
+        }
+        return width;
+    }
+
+    /**
+     * Get a text measurer for JFreeChart text blocks, measuring in the
+     * current font of a graphics device through the cache.
+     *
+     * @param g2 The graphics device.
+     * @return The text measurer.
+     */
+    public TextMeasurer getTextMeasurer(Graphics2D g2) {
+        return (text, start, end) -> getWidth(g2, g2.getFont(), text.substring(start, end));
+    }
+
+    public synchronized void clear() {
+        widths.clear();
+    }
+
+    public synchronized int size() {
+        return widths.size();
+    }
+
+    private synchronized Float get(Key key) {
+        return widths.get(key);
+    }
+
+    private synchronized void put(Key key, Float width) {
+        widths.put(key, width);
+    }
+
+    private static class Key {
+
+        private final Font font;
+        private final FontRenderContext context;
+        private final String text;
+        private final int hash;
+
+        Key(Font font, FontRenderContext context, String text) {
+            this.font = font;
+            this.context = context;
+            this.text = text;
+            this.hash = (font.hashCode() * 31 + context.hashCode()) * 31 + text.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) object;
+            return hash == other.hash && text.equals(other.text) && font.equals(other.font)
+                    && context.equals(other.context);
+        }
+    }
+}
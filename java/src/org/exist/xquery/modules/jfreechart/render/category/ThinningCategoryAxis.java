@@ -0,0 +1,170 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.category;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import org.jfree.chart.axis.AxisState;
+import org.jfree.chart.axis.CategoryAxis;
+import org.jfree.chart.axis.CategoryLabelPosition;
+import org.jfree.chart.axis.CategoryLabelWidthType;
+import org.jfree.chart.axis.CategoryTick;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.text.TextBlock;
+import org.jfree.text.TextUtilities;
+import org.jfree.ui.RectangleEdge;
+
+/**
+ * A category axis labelling every k-th category only, with k the smallest
+ * step at which the labels do not overlap. The extent of each label along
+ * the axis is taken from its measured width and the line height, turned by
+ * the angle of the category label position of the edge. The other
+ * categories get empty labels, so their labels are neither laid out nor
+ * drawn, and the kept labels may use the width of k categories. String
+ * widths are measured through a cache shared by all renders.
+ */
+public class ThinningCategoryAxis extends CategoryAxis {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private static final TextWidthCache widths = new TextWidthCache(TextWidthCache.DEFAULT_CAPACITY);
+
+    // space between two labels, in line heights
+    private static final double LABEL_GAP = 0.5;
+
+    public ThinningCategoryAxis(String label) {
+        super(label);
+    }
+
+    /**
+     * Create an axis with the settings of another category axis.
+     *
+     * @param axis The axis.
+     */
+    public ThinningCategoryAxis(CategoryAxis axis) {
+        super(axis.getLabel());
+        setVisible(axis.isVisible());
+        setLabelFont(axis.getLabelFont());
+        setLabelPaint(axis.getLabelPaint());
+        setTickLabelFont(axis.getTickLabelFont());
+        setTickLabelPaint(axis.getTickLabelPaint());
+        setTickLabelsVisible(axis.isTickLabelsVisible());
+        setTickMarksVisible(axis.isTickMarksVisible());
+        setAxisLineVisible(axis.isAxisLineVisible());
+        setAxisLinePaint(axis.getAxisLinePaint());
+        setLowerMargin(axis.getLowerMargin());
+        setUpperMargin(axis.getUpperMargin());
+        setCategoryMargin(axis.getCategoryMargin());
+        setMaximumCategoryLabelLines(axis.getMaximumCategoryLabelLines());
+        setMaximumCategoryLabelWidthRatio(axis.getMaximumCategoryLabelWidthRatio());
+        setCategoryLabelPositions(axis.getCategoryLabelPositions());
+        setCategoryLabelPositionOffset(axis.getCategoryLabelPositionOffset());
+    }
+
+    @Override
+    public List refreshTicks(Graphics2D g2, AxisState state, Rectangle2D dataArea, RectangleEdge edge) {
+        List<CategoryTick> ticks = new ArrayList<>();
+        if (dataArea.getHeight() <= 0.0 || dataArea.getWidth() < 0.0) {
+            return ticks;
+        }
+        CategoryPlot plot = (CategoryPlot) getPlot();
+        List categories = plot.getCategoriesForAxis(this);
+        if (categories == null || categories.isEmpty()) {
+            state.setMax(0.0);
+            return ticks;
+        }
+
+        CategoryLabelPosition position = getCategoryLabelPositions().getLabelPosition(edge);
+        // the distance between the starts of two categories
+        double spacing = calculateCategorySize(categories.size(), dataArea, edge)
+                + calculateCategoryGapSize(categories.size(), dataArea, edge);
+        float ratio = getMaximumCategoryLabelWidthRatio() > 0
+                ? getMaximumCategoryLabelWidthRatio() : position.getWidthRatio();
+        boolean categoryWidth = position.getWidthType() == CategoryLabelWidthType.CATEGORY;
+        // labels limited to a share of their categories need as many more,
+        // and at least a gap between them
+        double extent = getMaximumExtent(g2, categories, position, edge);
+        double gap = g2.getFontMetrics(getTickLabelFont()).getHeight() * LABEL_GAP;
+        int step = spacing > 0 ? (int) Math.max(Math.ceil((extent + gap) / spacing),
+                Math.ceil(extent / (categoryWidth ? spacing * ratio : spacing))) : categories.size();
+        step = Math.max(step, 1);
+
+        float width;
+        if (categoryWidth) {
+            width = (float) (spacing * step);
+        } else {
+            width = (float) (RectangleEdge.isLeftOrRight(edge) ? dataArea.getWidth() : dataArea.getHeight());
+        }
+
+        double max = 0.0;
+        for (int i = 0; i < categories.size(); i++) {
+            Comparable category = (Comparable) categories.get(i);
+            TextBlock label;
+            if (i % step == 0) {
+                g2.setFont(getTickLabelFont(category));
+                label = createLabel(category, width * ratio, edge, g2);
+                max = Math.max(max, RectangleEdge.isTopOrBottom(edge)
+                        ? calculateTextBlockHeight(label, position, g2)
+                        : calculateTextBlockWidth(label, position, g2));
+            } else {
+                label = new TextBlock();
+            }
+            ticks.add(new CategoryTick(category, label, position.getLabelAnchor(),
+                    position.getRotationAnchor(), position.getAngle()));
+        }
+        state.setMax(max);
+        return ticks;
+    }
+
+    /**
+     * Get the largest extent of a label along the axis.
+     */
+    private double getMaximumExtent(Graphics2D g2, List categories, CategoryLabelPosition position,
+            RectangleEdge edge) {
+
+        double cos = Math.abs(Math.cos(position.getAngle()));
+        double sin = Math.abs(Math.sin(position.getAngle()));
+        boolean alongWidth = RectangleEdge.isTopOrBottom(edge);
+        double max = 0.0;
+        Font lastFont = null;
+        double lineHeight = 0.0;
+        for (Object category : categories) {
+            Font font = getTickLabelFont((Comparable) category);
+            if (font != lastFont) {
+                lastFont = font;
+                lineHeight = g2.getFontMetrics(font).getHeight();
+            }
+            double textWidth = widths.getWidth(g2, font, category.toString());
+            max = Math.max(max, alongWidth ? textWidth * cos + lineHeight * sin : textWidth * sin + lineHeight * cos);
+        }
+        return max;
+    }
+
+    @Override
+    protected TextBlock createLabel(Comparable category, float width, RectangleEdge edge, Graphics2D g2) {
+        return TextUtilities.createTextBlock(category.toString(), getTickLabelFont(category),
+                getTickLabelPaint(category), width, getMaximumCategoryLabelLines(), widths.getTextMeasurer(g2));
+    }
+}
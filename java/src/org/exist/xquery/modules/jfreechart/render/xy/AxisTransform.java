@@ -0,0 +1,142 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.xy;
+
+import java.awt.geom.Rectangle2D;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.axis.LogarithmicAxis;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.axis.Timeline;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.ui.RectangleEdge;
+
+/**
+ * Converts data values to Java2D coordinates for one axis. Linear number
+ * axes and date axes without a segmented timeline are reduced to a scale
+ * and an offset, other axes use
+ * {@link ValueAxis#valueToJava2D}.
+ */
+public class AxisTransform {
+
+    // the identity timeline shared by all date axes, not public
+    private static final Timeline DEFAULT_TIMELINE = new DateAxis().getTimeline();
+
+    private final ValueAxis axis;
+    private final Rectangle2D area;
+    private final RectangleEdge edge;
+    private final boolean linear;
+    private final double scale;
+    private final double offset;
+
+    public AxisTransform(ValueAxis axis, Rectangle2D area, RectangleEdge edge) {
+        this.axis = axis;
+        this.area = area;
+        this.edge = edge;
+        this.linear = axis instanceof NumberAxis && !(axis instanceof LogarithmicAxis)
+                || axis instanceof DateAxis && ((DateAxis) axis).getTimeline() == DEFAULT_TIMELINE;
+
+        double lower = axis.getLowerBound();
+        double upper = axis.getUpperBound();
+        double java2DLower = axis.valueToJava2D(lower, area, edge);
+        double java2DUpper = axis.valueToJava2D(upper, area, edge);
+        this.scale = upper > lower ? (java2DUpper - java2DLower) / (upper - lower) : 0;
+        this.offset = java2DLower - lower * scale;
+    }
+
+    /**
+     * The transform of the horizontal screen coordinate of a plot, which is
+     * the domain axis in the vertical orientation and the range axis in the
+     * horizontal orientation.
+     */
+    public static AxisTransform horizontal(XYPlot plot, ValueAxis domainAxis, ValueAxis rangeAxis,
+            Rectangle2D dataArea) {
+        return plot.getOrientation() == PlotOrientation.VERTICAL
+                ? new AxisTransform(domainAxis, dataArea, plot.getDomainAxisEdge())
+                : new AxisTransform(rangeAxis, dataArea, plot.getRangeAxisEdge());
+    }
+
+    /**
+     * The transform of the vertical screen coordinate of a plot.
+     */
+    public static AxisTransform vertical(XYPlot plot, ValueAxis domainAxis, ValueAxis rangeAxis,
+            Rectangle2D dataArea) {
+        return plot.getOrientation() == PlotOrientation.VERTICAL
+                ? new AxisTransform(rangeAxis, dataArea, plot.getRangeAxisEdge())
+                : new AxisTransform(domainAxis, dataArea, plot.getDomainAxisEdge());
+    }
+
+    /**
+     * Convert a data value.
+     *
+     * @param value The value.
+     * @return The Java2D coordinate.
+     */
+    public double toJava2D(double value) {
+        return linear ? value * scale + offset : axis.valueToJava2D(value, area, edge);
+    }
+
+    /**
+     * Convert data values in bulk.
+     *
+     * @param values The values.
+     * @param result The Java2D coordinates, may be the values array.
+     * @param count The number of values.
+     */
+    public void toJava2D(double[] values, double[] result, int count) {
+        if (linear) {
+            for (int i = 0; i < count; i++) {
+                result[i] = values[i] * scale + offset;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                result[i] = axis.valueToJava2D(values[i], area, edge);
+            }
+        }
+    }
+
+    /**
+     * Convert data values in bulk to float coordinates, which is the
+     * precision the graphics device rasterises with. The loop of a linear
+     * axis has no branches or calls, so the JIT can unroll and vectorise it.
+     * NaN values stay NaN.
+     *
+     * @param values The values.
+     * @param from The index of the first value.
+     * @param result The Java2D coordinates.
+     * @param to The index of the first coordinate.
+     * @param count The number of values.
+     */
+    public void toJava2D(double[] values, int from, float[] result, int to, int count) {
+        if (linear) {
+            double s = scale;
+            double o = offset;
+            for (int i = 0; i < count; i++) {
+                result[to + i] = (float) (values[from + i] * s + o);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                result[to + i] = (float) axis.valueToJava2D(values[from + i], area, edge);
+            }
+        }
+    }
+}
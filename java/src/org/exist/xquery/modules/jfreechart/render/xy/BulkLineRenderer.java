@@ -0,0 +1,132 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.xy;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import org.jfree.chart.LegendItem;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.SeriesRenderingOrder;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Draws the series of an XY line chart or scatter plot from their Java2D
+ * coordinates, converted per series in bulk, see {@link SeriesPixels}.
+ * Lines are drawn segment by segment as by XYLineAndShapeRenderer, which
+ * the graphics device rasterises faster than long paths when antialiasing;
+ * a missing value breaks the line. Points are drawn as the filled series
+ * shape. The series are
+ * drawn in the rendering order of the plot.
+ */
+public class BulkLineRenderer extends BulkXYRenderer {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private final boolean lines;
+
+    /**
+     * Create a bulk renderer.
+     *
+     * @param lines True to connect the items of a series by lines, false to
+     * draw them as points.
+     */
+    public BulkLineRenderer(boolean lines) {
+        this.lines = lines;
+    }
+
+    @Override
+    public LegendItem getLegendItem(int datasetIndex, int series) {
+        LegendItem item = super.getLegendItem(datasetIndex, series);
+        return lines ? createLineLegendItem(item, series) : item;
+    }
+
+    @Override
+    protected void drawDataset(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+            ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset) {
+
+        SeriesPixels pixels = new SeriesPixels(
+                AxisTransform.horizontal(plot, domainAxis, rangeAxis, dataArea),
+                AxisTransform.vertical(plot, domainAxis, rangeAxis, dataArea),
+                plot.getOrientation() == PlotOrientation.VERTICAL);
+        boolean reverse = plot.getSeriesRenderingOrder() == SeriesRenderingOrder.REVERSE;
+
+        int seriesCount = dataset.getSeriesCount();
+        for (int i = 0; i < seriesCount; i++) {
+            int series = reverse ? seriesCount - 1 - i : i;
+            if (!isSeriesVisible(series)) {
+                continue;
+            }
+            pixels.read(dataset, series);
+            g2.setPaint(lookupSeriesPaint(series));
+            if (lines) {
+                g2.setStroke(lookupSeriesStroke(series));
+                drawLines(g2, pixels);
+            } else {
+                drawShapes(g2, pixels, lookupSeriesShape(series));
+            }
+        }
+    }
+
+    private void drawLines(Graphics2D g2, SeriesPixels pixels) {
+        float[] x = pixels.getX();
+        float[] y = pixels.getY();
+        Line2D.Float line = new Line2D.Float();
+        for (int i = 1; i < pixels.getCount(); i++) {
+            if (Float.isNaN(x[i - 1]) || Float.isNaN(y[i - 1]) || Float.isNaN(x[i]) || Float.isNaN(y[i])) {
+                continue;
+            }
+            line.setLine(x[i - 1], y[i - 1], x[i], y[i]);
+            g2.draw(line);
+        }
+    }
+
+    private void drawShapes(Graphics2D g2, SeriesPixels pixels, Shape shape) {
+        float[] x = pixels.getX();
+        float[] y = pixels.getY();
+        if (shape == null || shape instanceof Rectangle2D) {
+            Rectangle2D bounds = shape == null ? new Rectangle2D.Double(0, 0, 1, 1) : (Rectangle2D) shape;
+            Rectangle2D.Double dot = new Rectangle2D.Double();
+            for (int i = 0; i < pixels.getCount(); i++) {
+                if (Float.isNaN(x[i]) || Float.isNaN(y[i])) {
+                    continue;
+                }
+                dot.setRect(x[i] + bounds.getX(), y[i] + bounds.getY(), bounds.getWidth(), bounds.getHeight());
+                g2.fill(dot);
+            }
+            return;
+        }
+        AffineTransform saved = g2.getTransform();
+        for (int i = 0; i < pixels.getCount(); i++) {
+            if (Float.isNaN(x[i]) || Float.isNaN(y[i])) {
+                continue;
+            }
+            g2.translate(x[i], y[i]);
+            g2.fill(shape);
+            g2.setTransform(saved);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.xy;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import org.jfree.chart.LegendItem;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.CrosshairState;
+import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.AbstractXYItemRenderer;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Base class of renderers drawing a whole dataset at once instead of item
+ * by item. The plot still calls drawItem for every item; the first call
+ * draws the dataset, the others return immediately. The scan for visible
+ * items is skipped.
+ *
+ * Entities (tooltips, image maps) are not created for the items.
+ */
+public abstract class BulkXYRenderer extends AbstractXYItemRenderer {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public XYItemRendererState initialise(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+            XYDataset dataset, PlotRenderingInfo info) {
+        State state = new State(info);
+        state.setProcessVisibleItemsOnly(false);
+        return state;
+    }
+
+    @Override
+    public void drawItem(Graphics2D g2, XYItemRendererState state, Rectangle2D dataArea,
+            PlotRenderingInfo info, XYPlot plot, ValueAxis domainAxis, ValueAxis rangeAxis,
+            XYDataset dataset, int series, int item, CrosshairState crosshairState, int pass) {
+        State bulkState = (State) state;
+        if (bulkState.drawn) {
+            return;
+        }
+        bulkState.drawn = true;
+        drawDataset(g2, dataArea, plot, domainAxis, rangeAxis, dataset);
+    }
+
+    /**
+     * Draw all visible series of a dataset.
+     *
+     * @param g2 The graphics device.
+     * @param dataArea The area within which the data is drawn.
+     * @param plot The plot.
+     * @param domainAxis The domain axis.
+     * @param rangeAxis The range axis.
+     * @param dataset The dataset.
+     */
+    protected abstract void drawDataset(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+            ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset);
+
+    /**
+     * Turn the legend item of a series into one showing a line in the
+     * series paint and stroke instead of the series shape.
+     *
+     * @param item The legend item, may be null.
+     * @param series The series index.
+     * @return The line legend item, null when the item is null.
+     */
+    protected LegendItem createLineLegendItem(LegendItem item, int series) {
+        if (item == null) {
+            return null;
+        }
+        LegendItem lineItem = new LegendItem(item.getLabel(), item.getDescription(), item.getToolTipText(),
+                item.getURLText(), false, item.getShape(), false, item.getFillPaint(), false,
+                item.getOutlinePaint(), item.getOutlineStroke(), true, new Line2D.Double(-7.0, 0.0, 7.0, 0.0),
+                lookupSeriesStroke(series), lookupSeriesPaint(series));
+        lineItem.setDataset(item.getDataset());
+        lineItem.setDatasetIndex(item.getDatasetIndex());
+        lineItem.setSeriesKey(item.getSeriesKey());
+        lineItem.setSeriesIndex(item.getSeriesIndex());
+        return lineItem;
+    }
+
+    /**
+     * Rendering state remembering whether the dataset has been drawn.
+     */
+    protected static class State extends XYItemRendererState {
+
+        private boolean drawn;
+
+        public State(PlotRenderingInfo info) {
+            super(info);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.xy;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.exist.xquery.modules.jfreechart.ColourRamp;
+import org.jfree.chart.LegendItem;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Draws the points of all series as a density: the points are counted in
+ * square pixel bins or hexagonal bins in one parallel pass, and each bin is
+ * coloured by its count using a colour ramp on a logarithmic scale. The
+ * binning takes time linear in the number of points, the drawing in the
+ * number of bins.
+ */
+public class DensityRenderer extends BulkXYRenderer {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private static final double SQRT3 = Math.sqrt(3);
+
+    // items binned by one task
+    private static final int CHUNK_SIZE = 1 << 18;
+
+    private final boolean hexagonal;
+    private final int binSize;
+    private final ColourRamp ramp;
+
+    /**
+     * Create a density renderer.
+     *
+     * @param hexagonal True for hexagonal bins, false for square bins.
+     * @param binSize The width of square bins or the radius of hexagonal
+     * bins, in pixels.
+     * @param ramp The colours for the counts, from one to the maximum.
+     */
+    public DensityRenderer(boolean hexagonal, int binSize, ColourRamp ramp) {
+        this.hexagonal = hexagonal;
+        this.binSize = Math.max(binSize, 1);
+        this.ramp = ramp;
+    }
+
+    @Override
+    public LegendItem getLegendItem(int datasetIndex, int series) {
+        // the colours stand for counts, not for series
+        return null;
+    }
+
+    @Override
+    protected void drawDataset(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+            ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset) {
+
+        Grid grid = hexagonal ? new HexGrid(dataArea, binSize) : new SquareGrid(dataArea, binSize);
+        AxisTransform horizontal = AxisTransform.horizontal(plot, domainAxis, rangeAxis, dataArea);
+        AxisTransform vertical = AxisTransform.vertical(plot, domainAxis, rangeAxis, dataArea);
+        boolean domainIsHorizontal = plot.getOrientation() == PlotOrientation.VERTICAL;
+
+        int[] counts = count(dataset, grid, horizontal, vertical, domainIsHorizontal);
+
+        int max = 0;
+        for (int count : counts) {
+            max = Math.max(max, count);
+        }
+        if (max == 0) {
+            return;
+        }
+
+        Shape savedClip = g2.getClip();
+        g2.clip(dataArea);
+        grid.draw(g2, counts, ramp, Math.log1p(max));
+        g2.setClip(savedClip);
+    }
+
+    /**
+     * Count the points of all visible series per bin, in parallel over
+     * chunks of items. Each worker takes chunks in turn and counts them into
+     * its own counts, so there is one array of counts per worker, not per
+     * chunk.
+     */
+    private int[] count(XYDataset dataset, Grid grid, AxisTransform horizontal, AxisTransform vertical,
+            boolean domainIsHorizontal) {
+
+        List<int[]> chunks = new ArrayList<>();
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            if (!isSeriesVisible(series)) {
+                continue;
+            }
+            int itemCount = dataset.getItemCount(series);
+            for (int start = 0; start < itemCount; start += CHUNK_SIZE) {
+                chunks.add(new int[] {series, start, Math.min(start + CHUNK_SIZE, itemCount)});
+            }
+        }
+
+        int workers = Math.min(ForkJoinPool.getCommonPoolParallelism(), chunks.size());
+        AtomicInteger nextChunk = new AtomicInteger();
+        return IntStream.range(0, workers).parallel()
+                .mapToObj(worker -> {
+                    int[] counts = new int[grid.size()];
+                    for (int chunk = nextChunk.getAndIncrement(); chunk < chunks.size();
+                            chunk = nextChunk.getAndIncrement()) {
+                        int[] range = chunks.get(chunk);
+                        for (int item = range[1]; item < range[2]; item++) {
+                            double x = dataset.getXValue(range[0], item);
+                            double y = dataset.getYValue(range[0], item);
+                            double java2DX = horizontal.toJava2D(domainIsHorizontal ? x : y);
+                            double java2DY = vertical.toJava2D(domainIsHorizontal ? y : x);
+                            int bin = grid.bin(java2DX, java2DY);
+                            if (bin >= 0) {
+                                counts[bin]++;
+                            }
+                        }
+                    }
+                    return counts;
+                })
+                .reduce((a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                    return a;
+                })
+                .orElseGet(() -> new int[grid.size()]);
+    }
+
+    private interface Grid {
+
+        int size();
+
+        /**
+         * Get the bin of a point, or -1 when it is outside the data area.
+         */
+        int bin(double java2DX, double java2DY);
+
+        void draw(Graphics2D g2, int[] counts, ColourRamp ramp, double logMax);
+    }
+
+    /**
+     * Square bins, drawn as an image with one pixel per bin.
+     */
+    private static class SquareGrid implements Grid {
+
+        private final Rectangle2D area;
+        private final int binSize;
+        private final int columns;
+        private final int rows;
+
+        SquareGrid(Rectangle2D area, int binSize) {
+            this.area = area;
+            this.binSize = binSize;
+            this.columns = Math.max((int) Math.ceil(area.getWidth() / binSize), 1);
+            this.rows = Math.max((int) Math.ceil(area.getHeight() / binSize), 1);
+        }
+
+        @Override
+        public int size() {
+            return columns * rows;
+        }
+
+        @Override
+        public int bin(double java2DX, double java2DY) {
+            double column = (java2DX - area.getX()) / binSize;
+            double row = (java2DY - area.getY()) / binSize;
+            if (column >= 0 && column < columns && row >= 0 && row < rows) {
+                return (int) row * columns + (int) column;
+            }
+            return -1;
+        }
+
+        @Override
+        public void draw(Graphics2D g2, int[] counts, ColourRamp ramp, double logMax) {
+            BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_ARGB);
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    pixels[i] = ramp.getRGB(Math.log1p(counts[i]) / logMax);
+                }
+            }
+            Object interpolation = g2.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2.drawImage(image, (int) Math.round(area.getX()), (int) Math.round(area.getY()),
+                    columns * binSize, rows * binSize, null);
+            if (interpolation != null) {
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+            } else {
+                RenderingHints hints = g2.getRenderingHints();
+                hints.remove(RenderingHints.KEY_INTERPOLATION);
+                g2.setRenderingHints(hints);
+            }
+        }
+    }
+
+    /**
+     * Pointy topped hexagonal bins in offset coordinates, odd rows shifted
+     * right by half a hexagon. A margin of one bin around the data area
+     * keeps rounding at the edges inside the grid.
+     */
+    private static class HexGrid implements Grid {
+
+        private final Rectangle2D area;
+        private final double radius;
+        private final int columns;
+        private final int rows;
+
+        HexGrid(Rectangle2D area, int radius) {
+            this.area = area;
+            this.radius = radius;
+            this.columns = (int) Math.ceil(area.getWidth() / (SQRT3 * radius)) + 3;
+            this.rows = (int) Math.ceil(area.getHeight() / (1.5 * radius)) + 3;
+        }
+
+        @Override
+        public int size() {
+            return columns * rows;
+        }
+
+        @Override
+        public int bin(double java2DX, double java2DY) {
+            double px = java2DX - area.getX();
+            double py = java2DY - area.getY();
+            if (!(px >= 0 && px <= area.getWidth() && py >= 0 && py <= area.getHeight())) {
+                return -1;
+            }
+
+            // axial coordinates, rounded in cube coordinates
+            double q = (SQRT3 / 3 * px - py / 3) / radius;
+            double r = (2.0 / 3 * py) / radius;
+            double s = -q - r;
+            long rq = Math.round(q);
+            long rr = Math.round(r);
+            long rs = Math.round(s);
+            double dq = Math.abs(rq - q);
+            double dr = Math.abs(rr - r);
+            double ds = Math.abs(rs - s);
+            if (dq > dr && dq > ds) {
+                rq = -rr - rs;
+            } else if (dr > ds) {
+                rr = -rq - rs;
+            }
+
+            int row = (int) rr;
+            int column = (int) (rq + (rr - (rr & 1)) / 2);
+            return (row + 1) * columns + column + 1;
+        }
+
+        @Override
+        public void draw(Graphics2D g2, int[] counts, ColourRamp ramp, double logMax) {
+            // hexagon around the origin, slightly enlarged to avoid seams
+            double corner = radius + 0.5;
+            Path2D.Double hexagon = new Path2D.Double();
+            for (int i = 0; i < 6; i++) {
+                double angle = Math.PI / 3 * i + Math.PI / 6;
+                double x = corner * Math.cos(angle);
+                double y = corner * Math.sin(angle);
+                if (i == 0) {
+                    hexagon.moveTo(x, y);
+                } else {
+                    hexagon.lineTo(x, y);
+                }
+            }
+            hexagon.closePath();
+
+            Object antialias = g2.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+                int row = i / columns - 1;
+                int column = i % columns - 1;
+                double x = area.getX() + SQRT3 * radius * (column + 0.5 * (row & 1));
+                double y = area.getY() + 1.5 * radius * row;
+                g2.setColor(new Color(ramp.getRGB(Math.log1p(counts[i]) / logMax)));
+                g2.translate(x, y);
+                g2.fill(hexagon);
+                g2.translate(-x, -y);
+            }
+            if (antialias != null) {
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialias);
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.xy;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import org.exist.xquery.modules.jfreechart.ColourRampPaintScale;
+import org.exist.xquery.modules.jfreechart.data.MatrixDataset;
+import org.jfree.chart.LegendItem;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.Range;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYZDataset;
+
+/**
+ * Draws the cells of a heat map straight into the pixels of an image of the
+ * data area, which is then drawn in one call. Each item of an XYZ dataset is
+ * a cell of the given width and height centred on its x and y values,
+ * coloured by its z value through a paint scale; cells are scaled to whole
+ * pixels and cover at least one. A {@link MatrixDataset} is sampled instead:
+ * each pixel gets the colour of the cell under its centre, so drawing takes
+ * time in proportion to the pixels, not to the cells.
+ */
+public class HeatMapRenderer extends BulkXYRenderer {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    // pixels sampled before the rows are split into tasks
+    private static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    private final ColourRampPaintScale scale;
+    private final double cellWidth;
+    private final double cellHeight;
+
+    /**
+     * Create a heat map renderer.
+     *
+     * @param scale The colours of the z values.
+     * @param cellWidth The width of a cell, in x values.
+     * @param cellHeight The height of a cell, in y values.
+     */
+    public HeatMapRenderer(ColourRampPaintScale scale, double cellWidth, double cellHeight) {
+        this.scale = scale;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+    }
+
+    public ColourRampPaintScale getPaintScale() {
+        return scale;
+    }
+
+    /**
+     * Get the size of the cells of a dataset along one dimension: the
+     * smallest gap between the distinct x or y values, 1 for a matrix or
+     * when all values are equal.
+     *
+     * @param dataset The dataset.
+     * @param x True for the width from the x values, false for the height
+     * from the y values.
+     * @return The cell size.
+     */
+    public static double findCellSize(XYDataset dataset, boolean x) {
+        if (dataset instanceof MatrixDataset) {
+            return 1.0;
+        }
+        int count = 0;
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            count += dataset.getItemCount(series);
+        }
+        double[] values = new double[count];
+        int n = 0;
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            for (int item = 0; item < dataset.getItemCount(series); item++) {
+                values[n++] = x ? dataset.getXValue(series, item) : dataset.getYValue(series, item);
+            }
+        }
+        Arrays.parallelSort(values);
+
+        double size = Double.POSITIVE_INFINITY;
+        for (int i = 1; i < n; i++) {
+            double gap = values[i] - values[i - 1];
+            if (gap > 0 && gap < size) {
+                size = gap;
+            }
+        }
+        return size < Double.POSITIVE_INFINITY ? size : 1.0;
+    }
+
+    @Override
+    public LegendItem getLegendItem(int datasetIndex, int series) {
+        // the colours stand for z values, shown by a paint scale legend
+        return null;
+    }
+
+    @Override
+    public Range findDomainBounds(XYDataset dataset) {
+        return expand(super.findDomainBounds(dataset), cellWidth);
+    }
+
+    @Override
+    public Range findRangeBounds(XYDataset dataset) {
+        return expand(super.findRangeBounds(dataset), cellHeight);
+    }
+
+    private static Range expand(Range range, double cellSize) {
+        return range == null ? null
+                : new Range(range.getLowerBound() - cellSize / 2, range.getUpperBound() + cellSize / 2);
+    }
+
+    @Override
+    protected void drawDataset(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+            ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset) {
+
+        int left = (int) Math.floor(dataArea.getMinX());
+        int top = (int) Math.floor(dataArea.getMinY());
+        int width = (int) Math.ceil(dataArea.getMaxX()) - left;
+        int height = (int) Math.ceil(dataArea.getMaxY()) - top;
+        if (width <= 0 || height <= 0 || !(dataset instanceof XYZDataset)) {
+            return;
+        }
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] argb = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        boolean domainIsHorizontal = plot.getOrientation() == PlotOrientation.VERTICAL;
+        if (dataset instanceof MatrixDataset) {
+            if (!isSeriesVisible(0)) {
+                return;
+            }
+            sample((MatrixDataset) dataset, argb, width, height, left, top, dataArea, plot,
+                    domainAxis, rangeAxis, domainIsHorizontal);
+        } else {
+            fill((XYZDataset) dataset, argb, width, height, left, top,
+                    AxisTransform.horizontal(plot, domainAxis, rangeAxis, dataArea),
+                    AxisTransform.vertical(plot, domainAxis, rangeAxis, dataArea), domainIsHorizontal);
+        }
+
+        // drawn with the composite of the plot, which holds the foreground alpha
+        g2.drawImage(image, left, top, null);
+    }
+
+    /**
+     * Colour each pixel by the cell of the matrix under its centre. The
+     * column or row of each pixel column and pixel row is looked up once.
+     */
+    private void sample(MatrixDataset matrix, int[] argb, int width, int height, int left, int top,
+            Rectangle2D dataArea, XYPlot plot, ValueAxis domainAxis, ValueAxis rangeAxis,
+            boolean domainIsHorizontal) {
+
+        int[] horizontal = new int[width];
+        int[] vertical = new int[height];
+        for (int px = 0; px < width; px++) {
+            horizontal[px] = domainIsHorizontal
+                    ? cell(domainAxis.java2DToValue(left + px + 0.5, dataArea, plot.getDomainAxisEdge()),
+                            matrix.getColumnCount())
+                    : cell(rangeAxis.java2DToValue(left + px + 0.5, dataArea, plot.getRangeAxisEdge()),
+                            matrix.getRowCount());
+        }
+        for (int py = 0; py < height; py++) {
+            vertical[py] = domainIsHorizontal
+                    ? cell(rangeAxis.java2DToValue(top + py + 0.5, dataArea, plot.getRangeAxisEdge()),
+                            matrix.getRowCount())
+                    : cell(domainAxis.java2DToValue(top + py + 0.5, dataArea, plot.getDomainAxisEdge()),
+                            matrix.getColumnCount());
+        }
+
+        IntStream rows = IntStream.range(0, height);
+        if ((long) width * height >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(py -> {
+            int v = vertical[py];
+            if (v < 0) {
+                return;
+            }
+            int offset = py * width;
+            for (int px = 0; px < width; px++) {
+                int h = horizontal[px];
+                if (h >= 0) {
+                    argb[offset + px] = scale.getRGB(domainIsHorizontal
+                            ? matrix.getValue(v, h) : matrix.getValue(h, v));
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the index of the cell centred on a whole number, -1 when outside.
+     */
+    private static int cell(double value, int count) {
+        long index = Math.round(value);
+        return index >= 0 && index < count ? (int) index : -1;
+    }
+
+    /**
+     * Fill the pixel rectangle of each cell of the visible series, later
+     * items painting over earlier ones.
+     */
+    private void fill(XYZDataset dataset, int[] argb, int width, int height, int left, int top,
+            AxisTransform horizontal, AxisTransform vertical, boolean domainIsHorizontal) {
+
+        double halfWidth = (domainIsHorizontal ? cellWidth : cellHeight) / 2;
+        double halfHeight = (domainIsHorizontal ? cellHeight : cellWidth) / 2;
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            if (!isSeriesVisible(series)) {
+                continue;
+            }
+            for (int item = 0; item < dataset.getItemCount(series); item++) {
+                double z = dataset.getZValue(series, item);
+                double x = dataset.getXValue(series, item);
+                double y = dataset.getYValue(series, item);
+                if (Double.isNaN(x) || Double.isNaN(y) || Double.isNaN(z)) {
+                    continue;
+                }
+                double h = domainIsHorizontal ? x : y;
+                double v = domainIsHorizontal ? y : x;
+
+                double x0 = horizontal.toJava2D(h - halfWidth) - left;
+                double x1 = horizontal.toJava2D(h + halfWidth) - left;
+                double y0 = vertical.toJava2D(v - halfHeight) - top;
+                double y1 = vertical.toJava2D(v + halfHeight) - top;
+                int minX = Math.max((int) Math.round(Math.min(x0, x1)), 0);
+                int maxX = Math.min(Math.max((int) Math.round(Math.max(x0, x1)), minX + 1), width);
+                int minY = Math.max((int) Math.round(Math.min(y0, y1)), 0);
+                int maxY = Math.min(Math.max((int) Math.round(Math.max(y0, y1)), minY + 1), height);
+
+                if (minX >= maxX || minY >= maxY) {
+                    continue;
+                }
+
+                int colour = scale.getRGB(z);
+                for (int py = minY; py < maxY; py++) {
+                    Arrays.fill(argb, py * width + minX, py * width + maxX, colour);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.xy;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.jfree.chart.LegendItem;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.CrosshairState;
+import org.jfree.chart.plot.SeriesRenderingOrder;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.RendererUtilities;
+import org.jfree.chart.renderer.xy.AbstractXYItemRenderer;
+import org.jfree.chart.renderer.xy.XYItemRendererState;
+import org.jfree.data.Range;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Draws the series of a plot with another renderer in parallel: the
+ * visible series are split, in rendering order, into groups of about equal
+ * item counts, each group is drawn on the common fork/join pool into a
+ * transparent image of the data area, and the images are drawn over the
+ * background and axes in series order.
+ *
+ * Each image is drawn into with the composite of the plot, and source over
+ * compositing is associative, so the result equals serial drawing, also
+ * for translucent series and a foreground alpha below one, up to rounding
+ * of the blended colours. It differs where the renderer draws in several
+ * passes and the series overlap: the plot draws a pass of all series
+ * before the next pass, a group draws all passes of its series before the
+ * groups above it, e.g. the lines of a series over the shapes of the
+ * series below it. Entities (tooltips, image maps) and crosshairs are not
+ * created. Meant for raster output.
+ */
+public class ParallelLayerRenderer extends BulkXYRenderer {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    private final AbstractXYItemRenderer renderer;
+    private final int layers;
+
+    /**
+     * Create a parallel renderer.
+     *
+     * @param renderer The renderer drawing the series, with their
+     * appearance. The groups are drawn with it at once, so it must keep the
+     * state of a drawing in its renderer state, not in its fields.
+     * @param layers The maximum number of groups drawn in parallel.
+     */
+    public ParallelLayerRenderer(AbstractXYItemRenderer renderer, int layers) {
+        this.renderer = renderer;
+        this.layers = Math.max(layers, 1);
+    }
+
+    @Override
+    public void setPlot(XYPlot plot) {
+        super.setPlot(plot);
+        renderer.setPlot(plot);
+    }
+
+    @Override
+    public LegendItem getLegendItem(int datasetIndex, int series) {
+        return renderer.getLegendItem(datasetIndex, series);
+    }
+
+    @Override
+    public Range findDomainBounds(XYDataset dataset) {
+        return renderer.findDomainBounds(dataset);
+    }
+
+    @Override
+    public Range findRangeBounds(XYDataset dataset) {
+        return renderer.findRangeBounds(dataset);
+    }
+
+    @Override
+    protected void drawDataset(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+            ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset) {
+
+        // the visible series in rendering order, their appearance looked up
+        // here, as the renderer fills in missing paints on first lookup
+        boolean reverse = plot.getSeriesRenderingOrder() == SeriesRenderingOrder.REVERSE;
+        int seriesCount = dataset.getSeriesCount();
+        List<Integer> visible = new ArrayList<>();
+        long items = 0;
+        for (int i = 0; i < seriesCount; i++) {
+            int series = reverse ? seriesCount - 1 - i : i;
+            if (!renderer.isSeriesVisible(series)) {
+                continue;
+            }
+            renderer.lookupSeriesPaint(series);
+            renderer.lookupSeriesFillPaint(series);
+            renderer.lookupSeriesOutlinePaint(series);
+            renderer.lookupSeriesStroke(series);
+            renderer.lookupSeriesOutlineStroke(series);
+            renderer.lookupSeriesShape(series);
+            visible.add(series);
+            items += dataset.getItemCount(series);
+        }
+        if (visible.isEmpty()) {
+            return;
+        }
+
+        // contiguous groups of about equal item counts
+        int groupCount = Math.min(layers, visible.size());
+        List<List<Integer>> groups = new ArrayList<>();
+        List<Integer> group = new ArrayList<>();
+        long grouped = 0;
+        for (int series : visible) {
+            group.add(series);
+            grouped += dataset.getItemCount(series);
+            if (grouped * groupCount >= items * (groups.size() + 1) && groups.size() < groupCount - 1) {
+                groups.add(group);
+                group = new ArrayList<>();
+            }
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+
+        if (groups.size() == 1) {
+            drawSeries(g2, dataArea, plot, domainAxis, rangeAxis, dataset, groups.get(0));
+            return;
+        }
+
+        int left = (int) Math.floor(dataArea.getMinX());
+        int top = (int) Math.floor(dataArea.getMinY());
+        int width = (int) Math.ceil(dataArea.getMaxX()) - left;
+        int height = (int) Math.ceil(dataArea.getMaxY()) - top;
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        Composite composite = g2.getComposite();
+
+        BufferedImage[] images = IntStream.range(0, groups.size()).parallel()
+                .mapToObj(g -> {
+                    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+                    Graphics2D layer = image.createGraphics();
+                    layer.setRenderingHints(g2.getRenderingHints());
+                    layer.translate(-left, -top);
+                    layer.clip(dataArea);
+                    layer.setComposite(composite);
+                    drawSeries(layer, dataArea, plot, domainAxis, rangeAxis, dataset, groups.get(g));
+                    layer.dispose();
+                    return image;
+                })
+                .toArray(BufferedImage[]::new);
+
+        g2.setComposite(AlphaComposite.SrcOver);
+        for (BufferedImage image : images) {
+            g2.drawImage(image, left, top, null);
+        }
+        g2.setComposite(composite);
+    }
+
+    /**
+     * Draw series with the renderer as the plot does: pass by pass, series
+     * by series, limited to the visible items when the renderer asks so.
+     */
+    private void drawSeries(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+            ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset, List<Integer> group) {
+
+        XYItemRendererState state = renderer.initialise(g2, dataArea, plot, dataset, null);
+        CrosshairState crosshairState = new CrosshairState();
+        int passCount = renderer.getPassCount();
+        for (int pass = 0; pass < passCount; pass++) {
+            for (int series : group) {
+                int firstItem = 0;
+                int lastItem = dataset.getItemCount(series) - 1;
+                if (lastItem < 0) {
+                    continue;
+                }
+                if (state.getProcessVisibleItemsOnly()) {
+                    int[] bounds = RendererUtilities.findLiveItems(dataset, series,
+                            domainAxis.getLowerBound(), domainAxis.getUpperBound());
+                    firstItem = Math.max(bounds[0] - 1, 0);
+                    lastItem = Math.min(bounds[1] + 1, lastItem);
+                }
+                state.startSeriesPass(dataset, series, firstItem, lastItem, pass, passCount);
+                for (int item = firstItem; item <= lastItem; item++) {
+                    renderer.drawItem(g2, state, dataArea, null, plot, domainAxis, rangeAxis, dataset,
+                            series, item, crosshairState, pass);
+                }
+                state.endSeriesPass(dataset, series, firstItem, lastItem, pass, passCount);
+            }
+        }
+    }
+}
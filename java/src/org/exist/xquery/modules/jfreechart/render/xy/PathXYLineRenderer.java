@@ -0,0 +1,80 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.xy;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import org.exist.xquery.modules.jfreechart.render.PixelPath;
+import org.jfree.chart.LegendItem;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.SeriesRenderingOrder;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Draws each series of an XY line chart as one path with a single stroke
+ * call, leaving out the points that fall in the same pixel, see
+ * {@link PixelPath}. Long series give a few thousand path points instead
+ * of a draw call per segment, and one path element per series in SVG. The
+ * series are drawn in the rendering order of the plot.
+ */
+public class PathXYLineRenderer extends BulkXYRenderer {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public LegendItem getLegendItem(int datasetIndex, int series) {
+        return createLineLegendItem(super.getLegendItem(datasetIndex, series), series);
+    }
+
+    @Override
+    protected void drawDataset(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+            ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset) {
+
+        boolean domainIsHorizontal = plot.getOrientation() == PlotOrientation.VERTICAL;
+        SeriesPixels pixels = new SeriesPixels(
+                AxisTransform.horizontal(plot, domainAxis, rangeAxis, dataArea),
+                AxisTransform.vertical(plot, domainAxis, rangeAxis, dataArea),
+                domainIsHorizontal);
+        PixelPath path = new PixelPath(domainIsHorizontal);
+        boolean reverse = plot.getSeriesRenderingOrder() == SeriesRenderingOrder.REVERSE;
+
+        int seriesCount = dataset.getSeriesCount();
+        for (int i = 0; i < seriesCount; i++) {
+            int series = reverse ? seriesCount - 1 - i : i;
+            if (!isSeriesVisible(series)) {
+                continue;
+            }
+            pixels.read(dataset, series);
+            float[] x = pixels.getX();
+            float[] y = pixels.getY();
+            path.reset();
+            for (int item = 0; item < pixels.getCount(); item++) {
+                path.add(x[item], y[item]);
+            }
+            g2.setPaint(lookupSeriesPaint(series));
+            g2.setStroke(lookupSeriesStroke(series));
+            g2.draw(path.getPath());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.xy;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.stream.IntStream;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.SeriesRenderingOrder;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Draws the points of a scatter plot straight into the pixels of an image
+ * of the data area, which is then drawn in one call, instead of filling a
+ * shape per point. Each series shape is rasterised once, without
+ * antialiasing, into a stamp of pixel offsets; the stamps are blended into
+ * the image in the rendering order of the plot, taking the alpha of the
+ * series colour and the foreground alpha of the plot into account. Large
+ * datasets are stamped in parallel, each task writing its own band of rows
+ * so the result does not depend on the number of tasks.
+ *
+ * Meant for raster output; when a series paint is not a plain colour the
+ * dataset is drawn as by {@link BulkLineRenderer}.
+ */
+public class RasterScatterRenderer extends BulkLineRenderer {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    // points stamped before the rows are split into bands
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // rows per band
+    private static final int BAND_HEIGHT = 32;
+
+    public RasterScatterRenderer() {
+        super(false);
+    }
+
+    @Override
+    protected void drawDataset(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+            ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset) {
+
+        int seriesCount = dataset.getSeriesCount();
+        boolean reverse = plot.getSeriesRenderingOrder() == SeriesRenderingOrder.REVERSE;
+        int[] order = new int[seriesCount];
+        int visible = 0;
+        long items = 0;
+        for (int i = 0; i < seriesCount; i++) {
+            int series = reverse ? seriesCount - 1 - i : i;
+            if (!isSeriesVisible(series)) {
+                continue;
+            }
+            if (!(lookupSeriesPaint(series) instanceof Color)) {
+                super.drawDataset(g2, dataArea, plot, domainAxis, rangeAxis, dataset);
+                return;
+            }
+            order[visible++] = series;
+            items += dataset.getItemCount(series);
+        }
+
+        int left = (int) Math.floor(dataArea.getMinX());
+        int top = (int) Math.floor(dataArea.getMinY());
+        int width = (int) Math.ceil(dataArea.getMaxX()) - left;
+        int height = (int) Math.ceil(dataArea.getMaxY()) - top;
+        if (visible == 0 || width <= 0 || height <= 0) {
+            return;
+        }
+
+        // the foreground alpha of the plot goes into the blending of each point
+        Composite composite = g2.getComposite();
+        float alpha = composite instanceof AlphaComposite
+                && ((AlphaComposite) composite).getRule() == AlphaComposite.SRC_OVER
+                ? ((AlphaComposite) composite).getAlpha() : 1f;
+
+        Layer layer = new Layer(width, height, left, top);
+        SeriesPixels pixels = new SeriesPixels(
+                AxisTransform.horizontal(plot, domainAxis, rangeAxis, dataArea),
+                AxisTransform.vertical(plot, domainAxis, rangeAxis, dataArea),
+                plot.getOrientation() == PlotOrientation.VERTICAL);
+        boolean parallel = items >= PARALLEL_THRESHOLD;
+        for (int i = 0; i < visible; i++) {
+            int series = order[i];
+            pixels.read(dataset, series);
+            Stamp stamp = new Stamp(lookupSeriesShape(series));
+            int colour = premultiply((Color) lookupSeriesPaint(series), alpha);
+            if (parallel) {
+                IntStream.range(0, (height + BAND_HEIGHT - 1) / BAND_HEIGHT).parallel()
+                        .forEach(band -> layer.stamp(pixels, stamp, colour,
+                                band * BAND_HEIGHT, Math.min((band + 1) * BAND_HEIGHT, height)));
+            } else {
+                layer.stamp(pixels, stamp, colour, 0, height);
+            }
+        }
+
+        g2.setComposite(AlphaComposite.SrcOver);
+        g2.drawImage(layer.image, left, top, null);
+        g2.setComposite(composite);
+    }
+
+    /**
+     * Get the premultiplied ARGB value of a colour drawn with an extra alpha.
+     */
+    private static int premultiply(Color colour, float alpha) {
+        int a = Math.round(colour.getAlpha() * alpha);
+        return a << 24
+                | (colour.getRed() * a + 127) / 255 << 16
+                | (colour.getGreen() * a + 127) / 255 << 8
+                | (colour.getBlue() * a + 127) / 255;
+    }
+
+    /**
+     * The pixels covered by a shape drawn at the origin, as offsets from
+     * the pixel of the point.
+     */
+    private static class Stamp {
+
+        private final int[] dx;
+        private final int[] dy;
+
+        Stamp(Shape shape) {
+            Rectangle2D bounds = shape == null ? new Rectangle2D.Double(0, 0, 1, 1) : shape.getBounds2D();
+            int x0 = (int) Math.floor(bounds.getMinX());
+            int y0 = (int) Math.floor(bounds.getMinY());
+            int w = Math.max((int) Math.ceil(bounds.getMaxX()) - x0, 1);
+            int h = Math.max((int) Math.ceil(bounds.getMaxY()) - y0, 1);
+
+            BufferedImage mask = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = mask.createGraphics();
+            g2.setColor(Color.BLACK);
+            g2.setTransform(AffineTransform.getTranslateInstance(-x0, -y0));
+            g2.fill(shape == null ? bounds : shape);
+            g2.dispose();
+
+            int[] argb = ((DataBufferInt) mask.getRaster().getDataBuffer()).getData();
+            int count = 0;
+            for (int value : argb) {
+                if (value != 0) {
+                    count++;
+                }
+            }
+            if (count == 0) {
+                // too small to cover a pixel centre, draw a single pixel
+                dx = new int[] {0};
+                dy = new int[] {0};
+                return;
+            }
+            dx = new int[count];
+            dy = new int[count];
+            int i = 0;
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    if (argb[y * w + x] != 0) {
+                        dx[i] = x + x0;
+                        dy[i++] = y + y0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The image of the data area and its premultiplied ARGB pixels.
+     */
+    private static class Layer {
+
+        private final BufferedImage image;
+        private final int[] argb;
+        private final int width;
+        private final int left;
+        private final int top;
+
+        Layer(int width, int height, int left, int top) {
+            this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            this.argb = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            this.width = width;
+            this.left = left;
+            this.top = top;
+        }
+
+        /**
+         * Stamp the points of a series, writing the rows from firstRow up
+         * to lastRow only.
+         */
+        void stamp(SeriesPixels pixels, Stamp stamp, int colour, int firstRow, int lastRow) {
+            float[] xs = pixels.getX();
+            float[] ys = pixels.getY();
+            int[] dx = stamp.dx;
+            int[] dy = stamp.dy;
+            boolean opaque = colour >>> 24 == 0xFF;
+            int inverseAlpha = 255 - (colour >>> 24);
+            for (int item = 0; item < pixels.getCount(); item++) {
+                float fx = xs[item];
+                float fy = ys[item];
+                if (Float.isNaN(fx) || Float.isNaN(fy)) {
+                    continue;
+                }
+                int px = (int) Math.floor(fx) - left;
+                int py = (int) Math.floor(fy) - top;
+                for (int k = 0; k < dx.length; k++) {
+                    int x = px + dx[k];
+                    int y = py + dy[k];
+                    if (y < firstRow || y >= lastRow || x < 0 || x >= width) {
+                        continue;
+                    }
+                    int index = y * width + x;
+                    argb[index] = opaque ? colour : blend(colour, argb[index], inverseAlpha);
+                }
+            }
+        }
+
+        /**
+         * Source over for premultiplied ARGB values.
+         */
+        private static int blend(int source, int destination, int inverseAlpha) {
+            int a = (source >>> 24) + ((destination >>> 24) * inverseAlpha + 127) / 255;
+            int r = (source >>> 16 & 0xFF) + ((destination >>> 16 & 0xFF) * inverseAlpha + 127) / 255;
+            int g = (source >>> 8 & 0xFF) + ((destination >>> 8 & 0xFF) * inverseAlpha + 127) / 255;
+            int b = (source & 0xFF) + ((destination & 0xFF) * inverseAlpha + 127) / 255;
+            return a << 24 | r << 16 | g << 8 | b;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.xy;
+
+import org.exist.xquery.modules.jfreechart.data.ArrayXYDataset;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * The Java2D coordinates of the items of a series, converted in bulk. The
+ * values of an {@link ArrayXYDataset} are converted straight from its
+ * arrays, those of other datasets are first copied in blocks, so the
+ * conversion runs in tight loops over primitive arrays instead of calling
+ * {@link org.jfree.chart.axis.ValueAxis#valueToJava2D} per item. Missing
+ * values give NaN coordinates. The arrays are reused from series to series.
+ */
+public class SeriesPixels {
+
+    // values copied from other datasets per block
+    private static final int BLOCK_SIZE = 4096;
+
+    private final AxisTransform domainTransform;
+    private final AxisTransform rangeTransform;
+    private final boolean domainIsHorizontal;
+
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private int count;
+
+    private double[] xBlock;
+    private double[] yBlock;
+
+    /**
+     * Create the coordinates for the series of a plot.
+     *
+     * @param horizontal The transform of the horizontal coordinate.
+     * @param vertical The transform of the vertical coordinate.
+     * @param domainIsHorizontal True when the domain axis is horizontal,
+     * i.e. in the vertical plot orientation.
+     */
+    public SeriesPixels(AxisTransform horizontal, AxisTransform vertical, boolean domainIsHorizontal) {
+        this.domainTransform = domainIsHorizontal ? horizontal : vertical;
+        this.rangeTransform = domainIsHorizontal ? vertical : horizontal;
+        this.domainIsHorizontal = domainIsHorizontal;
+    }
+
+    /**
+     * Convert the items of a series, replacing the previous coordinates.
+     *
+     * @param dataset The dataset.
+     * @param series The series index.
+     */
+    public void read(XYDataset dataset, int series) {
+        count = dataset.getItemCount(series);
+        if (x.length < count) {
+            x = new float[count];
+            y = new float[count];
+        }
+        float[] domain = domainIsHorizontal ? x : y;
+        float[] range = domainIsHorizontal ? y : x;
+
+        if (dataset instanceof ArrayXYDataset) {
+            ArrayXYDataset arrays = (ArrayXYDataset) dataset;
+            domainTransform.toJava2D(arrays.getXValues(series), 0, domain, 0, count);
+            rangeTransform.toJava2D(arrays.getYValues(series), 0, range, 0, count);
+            return;
+        }
+
+        if (xBlock == null) {
+            xBlock = new double[BLOCK_SIZE];
+            yBlock = new double[BLOCK_SIZE];
+        }
+        for (int start = 0; start < count; start += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, count - start);
+            for (int i = 0; i < length; i++) {
+                xBlock[i] = dataset.getXValue(series, start + i);
+                yBlock[i] = dataset.getYValue(series, start + i);
+            }
+            domainTransform.toJava2D(xBlock, 0, domain, start, length);
+            rangeTransform.toJava2D(yBlock, 0, range, start, length);
+        }
+    }
+
+    /**
+     * Get the horizontal coordinates. The array may be longer than the
+     * number of items.
+     */
+    public float[] getX() {
+        return x;
+    }
+
+    /**
+     * Get the vertical coordinates. The array may be longer than the number
+     * of items.
+     */
+    public float[] getY() {
+        return y;
+    }
+
+    /**
+     * Get the number of items of the series read last.
+     */
+    public int getCount() {
+        return count;
+    }
+}
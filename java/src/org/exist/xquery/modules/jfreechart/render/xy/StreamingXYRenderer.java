@@ -0,0 +1,191 @@
+/*
+ *  eXist Open Source Native XML Database
+ *  Copyright (C) 2026 The eXist-db Project
+ *  http://exist-db.org
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ */
+package org.exist.xquery.modules.jfreechart.render.xy;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.exist.xquery.modules.jfreechart.data.XYItemSink;
+import org.exist.xquery.modules.jfreechart.data.XYItemSource;
+import org.jfree.chart.LegendItem;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Draws streamed XY series without holding their items: the plot is built
+ * on a summary of the series, and this renderer streams the data again
+ * while drawing, passing every item straight to the graphics device. Lines
+ * are drawn in chunks of connected segments, points as filled rectangles
+ * with the bounds of the series shape. Items are drawn in the order they
+ * are streamed, a missing y value breaks the line.
+ */
+public class StreamingXYRenderer extends BulkXYRenderer {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 1L;
+
+    // points per path handed to the graphics device
+    private static final int CHUNK_SIZE = 1024;
+
+    private final transient XYItemSource source;
+    private final boolean lines;
+
+    /**
+     * Create a streaming renderer.
+     *
+     * @param source The data, streamed once for every drawing.
+     * @param lines True to connect the items of a series by lines, false to
+     * draw them as points.
+     */
+    public StreamingXYRenderer(XYItemSource source, boolean lines) {
+        this.source = source;
+        this.lines = lines;
+    }
+
+    @Override
+    public LegendItem getLegendItem(int datasetIndex, int series) {
+        LegendItem item = super.getLegendItem(datasetIndex, series);
+        return lines ? createLineLegendItem(item, series) : item;
+    }
+
+    @Override
+    protected void drawDataset(Graphics2D g2, Rectangle2D dataArea, XYPlot plot,
+            ValueAxis domainAxis, ValueAxis rangeAxis, XYDataset dataset) {
+
+        AxisTransform horizontal = AxisTransform.horizontal(plot, domainAxis, rangeAxis, dataArea);
+        AxisTransform vertical = AxisTransform.vertical(plot, domainAxis, rangeAxis, dataArea);
+        boolean domainIsHorizontal = plot.getOrientation() == PlotOrientation.VERTICAL;
+
+        try {
+            Drawing drawing = new Drawing(g2, dataset.getSeriesCount(), horizontal, vertical, domainIsHorizontal);
+            source.stream(drawing);
+            drawing.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sink drawing the streamed items, with the pending line of every
+     * series.
+     */
+    private class Drawing implements XYItemSink {
+
+        private final Graphics2D g2;
+        private final AxisTransform horizontal;
+        private final AxisTransform vertical;
+        private final boolean domainIsHorizontal;
+        private final Path2D.Double[] paths;
+        private final int[] points;
+        private final boolean[] connected;
+        private final Rectangle2D[] dots;
+        private int series;
+
+        Drawing(Graphics2D g2, int seriesCount, AxisTransform horizontal, AxisTransform vertical,
+                boolean domainIsHorizontal) {
+            this.g2 = g2;
+            this.horizontal = horizontal;
+            this.vertical = vertical;
+            this.domainIsHorizontal = domainIsHorizontal;
+            this.paths = new Path2D.Double[seriesCount];
+            this.points = new int[seriesCount];
+            this.connected = new boolean[seriesCount];
+            this.dots = new Rectangle2D[seriesCount];
+        }
+
+        @Override
+        public int addSeries(Comparable key) {
+            if (series == paths.length) {
+                throw new IllegalStateException("The data has more series than when the chart was created");
+            }
+            if (isSeriesVisible(series)) {
+                if (lines) {
+                    paths[series] = new Path2D.Double(Path2D.WIND_NON_ZERO, CHUNK_SIZE);
+                } else {
+                    Shape shape = lookupSeriesShape(series);
+                    dots[series] = shape == null ? new Rectangle2D.Double(0, 0, 1, 1) : shape.getBounds2D();
+                }
+            }
+            return series++;
+        }
+
+        @Override
+        public void addItem(int series, double x, double y) {
+            if (paths[series] == null && dots[series] == null) {
+                return;
+            }
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                connected[series] = false;
+                return;
+            }
+            double java2DX = horizontal.toJava2D(domainIsHorizontal ? x : y);
+            double java2DY = vertical.toJava2D(domainIsHorizontal ? y : x);
+
+            if (!lines) {
+                Rectangle2D dot = dots[series];
+                g2.setPaint(lookupSeriesPaint(series));
+                g2.fill(new Rectangle2D.Double(java2DX + dot.getX(), java2DY + dot.getY(),
+                        dot.getWidth(), dot.getHeight()));
+                return;
+            }
+
+            Path2D.Double path = paths[series];
+            if (connected[series]) {
+                path.lineTo(java2DX, java2DY);
+            } else {
+                path.moveTo(java2DX, java2DY);
+                connected[series] = true;
+            }
+            if (++points[series] >= CHUNK_SIZE) {
+                flush(series);
+                // continue the line from the last point
+                path.moveTo(java2DX, java2DY);
+                points[series] = 1;
+            }
+        }
+
+        /**
+         * Draw the pending line of a series.
+         */
+        private void flush(int series) {
+            g2.setPaint(lookupSeriesPaint(series));
+            g2.setStroke(lookupSeriesStroke(series));
+            g2.draw(paths[series]);
+            paths[series].reset();
+        }
+
+        /**
+         * Draw the pending lines of all series.
+         */
+        void finish() {
+            for (int s = 0; s < paths.length; s++) {
+                if (paths[s] != null && points[s] > 0) {
+                    flush(s);
+                }
+            }
+        }
+    }
+}
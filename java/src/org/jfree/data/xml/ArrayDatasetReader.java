@@ -0,0 +1,235 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2013, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -----------------------
+ * ArrayDatasetReader.java
+ * -----------------------
+ * (C) Copyright 2026
+ *
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 19-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.data.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.exist.xquery.modules.jfreechart.data.DistributionDataset;
+import org.exist.xquery.modules.jfreechart.data.OHLCBars;
+import org.exist.xquery.modules.jfreechart.data.XYItemSink;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.general.PieDataset;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYZDataset;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * A utility class for reading category, pie, XY and XYZ datasets from XML
+ * into array backed datasets, see {@link ArrayCategoryDatasetHandler},
+ * {@link ArrayPieDatasetHandler}, {@link ArrayXYDatasetHandler} and
+ * {@link ArrayXYZDatasetHandler}. The XML format is the one of
+ * {@link DatasetReader} and {@link XYDatasetReader}. XY datasets can also
+ * be streamed item by item.
+ */
+public class ArrayDatasetReader {
+
+    /**
+     * Reads a {@link PieDataset} from a stream.
+     *
+     * @param in  the input stream.
+     *
+     * @return A dataset.
+     *
+     * @throws IOException if there is an I/O error or the XML is invalid.
+     */
+    public static PieDataset readPieDatasetFromXML(InputStream in)
+        throws IOException {
+        ArrayPieDatasetHandler handler = new ArrayPieDatasetHandler();
+        parse(in, handler);
+        return handler.getDataset();
+    }
+
+    /**
+     * Reads a {@link CategoryDataset} from a stream.
+     *
+     * @param in  the input stream.
+     *
+     * @return A dataset.
+     *
+     * @throws IOException if there is an I/O error or the XML is invalid.
+     */
+    public static CategoryDataset readCategoryDatasetFromXML(InputStream in)
+        throws IOException {
+        ArrayCategoryDatasetHandler handler = new ArrayCategoryDatasetHandler();
+        parse(in, handler);
+        return handler.getDataset();
+    }
+
+    /**
+     * Reads a {@link XYDataset} from a stream.
+     *
+     * @param in  the input stream.
+     *
+     * @return A dataset.
+     *
+     * @throws IOException if there is an I/O error or the XML is invalid.
+     */
+    public static XYDataset readXYDatasetFromXML(InputStream in)
+        throws IOException {
+        ArrayXYDatasetHandler handler = new ArrayXYDatasetHandler();
+        parse(in, handler);
+        return handler.getDataset();
+    }
+
+    /**
+     * Reads a time series from a stream, an {@link XYDataset} with points in
+     * time as X values, see {@link ArrayTimeSeriesDatasetHandler}.
+     *
+     * @param in  the input stream.
+     *
+     * @return A dataset.
+     *
+     * @throws IOException if there is an I/O error or the XML is invalid.
+     */
+    public static XYDataset readTimeSeriesDatasetFromXML(InputStream in)
+        throws IOException {
+        ArrayTimeSeriesDatasetHandler handler = new ArrayTimeSeriesDatasetHandler();
+        parse(in, handler);
+        return handler.getDataset();
+    }
+
+    /**
+     * Reads the raw values of series from a stream into sketches of their
+     * distributions, see {@link ArrayDistributionDatasetHandler}.
+     *
+     * @param in  the input stream.
+     *
+     * @return A dataset.
+     *
+     * @throws IOException if there is an I/O error or the XML is invalid.
+     */
+    public static DistributionDataset readDistributionDatasetFromXML(InputStream in)
+        throws IOException {
+        ArrayDistributionDatasetHandler handler = new ArrayDistributionDatasetHandler();
+        parse(in, handler);
+        return handler.getDataset();
+    }
+
+    /**
+     * Reads the ticks of series from a stream in the format of
+     * {@link XYDatasetHandler}, X being the point in time and Y the value,
+     * bucketed into OHLC bars while they are read, see {@link OHLCBars}.
+     *
+     * @param in  the input stream.
+     * @param period  the period of a bar, in milliseconds.
+     *
+     * @return A dataset.
+     *
+     * @throws IOException if there is an I/O error or the XML is invalid.
+     */
+    public static OHLCDataset readOHLCDatasetFromXML(InputStream in, long period)
+        throws IOException {
+        OHLCBars bars = new OHLCBars(period);
+        parse(in, new XYItemStreamHandler(bars, true));
+        return bars.getDataset();
+    }
+
+    /**
+     * Reads a {@link XYZDataset} from a stream.
+     *
+     * @param in  the input stream.
+     *
+     * @return A dataset.
+     *
+     * @throws IOException if there is an I/O error or the XML is invalid.
+     */
+    public static XYZDataset readXYZDatasetFromXML(InputStream in)
+        throws IOException {
+        ArrayXYZDatasetHandler handler = new ArrayXYZDatasetHandler();
+        parse(in, handler);
+        return handler.getDataset();
+    }
+
+    /**
+     * Reads the items of an {@link XYDataset} from a
+     * stream into a sink, see {@link XYItemStreamHandler}.
+     *
+     * @param in  the input stream.
+     * @param sink  the sink.
+     *
+     * @throws IOException if there is an I/O error, the XML is invalid or
+     *     the sink fails.
+     */
+    public static void streamXYDatasetFromXML(InputStream in, XYItemSink sink)
+        throws IOException {
+        parse(in, new XYItemStreamHandler(sink));
+    }
+
+    private static void parse(InputStream in, DefaultHandler handler)
+        throws IOException {
+        try {
+            SAXParser parser = SAXParserFactory.newInstance().newSAXParser();
+            parser.parse(in, handler);
+        }
+        catch (SAXException e) {
+            if (e.getException() instanceof IOException) {
+                throw (IOException) e.getException();
+            }
+            throw new IOException(e.getMessage(), e);
+        }
+        catch (ParserConfigurationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses the text of a value element, NaN for missing values.
+     *
+     * @param text  the text.
+     *
+     * @return The value.
+     */
+    static double parseValue(CharSequence text) {
+        try {
+            return Double.parseDouble(text.toString());
+        }
+        catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+}
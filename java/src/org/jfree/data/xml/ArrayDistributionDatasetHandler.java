@@ -0,0 +1,151 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2013, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ------------------------------------
+ * ArrayDistributionDatasetHandler.java
+ * ------------------------------------
+ * (C) Copyright 2026
+ *
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 19-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.data.xml;
+
+import org.exist.xquery.modules.jfreechart.data.DistributionDataset;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * A SAX handler for reading the raw values of series from an XML file into
+ * a {@link DistributionDataset}, sketching the values as they are read.
+ * Reads the format of {@link CategoryDatasetHandler}, the values of the
+ * items of a series being its raw values; keys may be omitted and are
+ * ignored.
+ */
+public class ArrayDistributionDatasetHandler extends DefaultHandler
+        implements DatasetTags {
+
+    /** The dataset under construction. */
+    private DistributionDataset dataset;
+
+    /** The index of the current series. */
+    private int series = -1;
+
+    /** The text of the current value, null outside values. */
+    private StringBuilder text;
+
+    /**
+     * Returns the dataset.
+     *
+     * @return The dataset.
+     */
+    public DistributionDataset getDataset() {
+        return this.dataset;
+    }
+
+    /**
+     * The start of an element.
+     *
+     * @param namespaceURI  the namespace.
+     * @param localName  the element name.
+     * @param qName  the element name.
+     * @param atts  the element attributes.
+     *
+     * @throws SAXException for errors.
+     */
+    @Override
+    public void startElement(String namespaceURI,
+                             String localName,
+                             String qName,
+                             Attributes atts) throws SAXException {
+        switch (qName) {
+            case CATEGORYDATASET_TAG:
+                this.dataset = new DistributionDataset();
+                break;
+            case SERIES_TAG:
+                if (this.dataset == null) {
+                    throw new SAXException("Expecting <CategoryDataset> tag...found " + qName);
+                }
+                String name = atts.getValue("name");
+                this.series = this.dataset.addSeries(name == null ? "" : name);
+                break;
+            case ITEM_TAG:
+            case KEY_TAG:
+                if (this.series < 0) {
+                    throw new SAXException("Expecting <Series> tag...found " + qName);
+                }
+                break;
+            case VALUE_TAG:
+                if (this.series < 0) {
+                    throw new SAXException("Expecting <Series> tag...found " + qName);
+                }
+                this.text = new StringBuilder();
+                break;
+            default:
+                throw new SAXException("Element not recognised: " + qName);
+        }
+    }
+
+    /**
+     * The end of an element.
+     *
+     * @param namespaceURI  the namespace.
+     * @param localName  the element name.
+     * @param qName  the element name.
+     *
+     * @throws SAXException for errors.
+     */
+    @Override
+    public void endElement(String namespaceURI,
+                           String localName,
+                           String qName) throws SAXException {
+        if (VALUE_TAG.equals(qName)) {
+            this.dataset.add(this.series, ArrayDatasetReader.parseValue(this.text));
+            this.text = null;
+        }
+    }
+
+    /**
+     * Receives some (or all) of the text in the current element.
+     *
+     * @param ch  character buffer.
+     * @param start  the start index.
+     * @param length  the length of the valid character data.
+     */
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (this.text != null) {
+            this.text.append(ch, start, length);
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2013, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ----------------------------------
+ * ArrayTimeSeriesDatasetHandler.java
+ * ----------------------------------
+ * (C) Copyright 2026
+ *
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 19-Oct-2026 : Version 1;
+ *
+ */
+
+
+package org.jfree.data.xml;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.exist.xquery.modules.jfreechart.data.ArrayTimeSeriesDataset;
+import org.exist.xquery.modules.jfreechart.data.DoubleList;
+import org.exist.xquery.modules.jfreechart.data.XYItemSink;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A SAX handler for reading a time series from an XML file in the format of
+ * {@link XYDatasetHandler} into an {@link ArrayTimeSeriesDataset}. The X
+ * values are points in time: xs:dateTime or xs:date values, or numbers of
+ * milliseconds since the epoch. Items without a point in time are dropped.
+ */
+public class ArrayTimeSeriesDatasetHandler extends XYItemStreamHandler {
+
+    /** The values read so far. */
+    private final Values values;
+
+    /**
+     * Creates a new handler.
+     */
+    public ArrayTimeSeriesDatasetHandler() {
+        this(new Values());
+    }
+
+    private ArrayTimeSeriesDatasetHandler(Values values) {
+        super(values, true);
+        this.values = values;
+    }
+
+    /**
+     * Returns the dataset.
+     *
+     * @return The dataset.
+     */
+    public XYDataset getDataset() {
+        ArrayTimeSeriesDataset dataset = new ArrayTimeSeriesDataset();
+        for (int series = 0; series < this.values.keys.size(); series++) {
+            dataset.addSeries(this.values.keys.get(series),
+                    this.values.millis.get(series).toArray(),
+                    this.values.y.get(series).toArray());
+        }
+        return dataset;
+    }
+
+    /**
+     * Collects the items of the series in primitive lists.
+     */
+    private static class Values implements XYItemSink {
+
+        private final List<Comparable> keys = new ArrayList<>();
+        private final List<DoubleList> millis = new ArrayList<>();
+        private final List<DoubleList> y = new ArrayList<>();
+
+        @Override
+        public int addSeries(Comparable key) {
+            this.keys.add(key);
+            this.millis.add(new DoubleList());
+            this.y.add(new DoubleList());
+            return this.keys.size() - 1;
+        }
+
+        @Override
+        public void addItem(int series, double x, double y) {
+            this.millis.get(series).add(x);
+            this.y.get(series).add(y);
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2013, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * --------------------------
+ * ArrayXYDatasetHandler.java
+ * --------------------------
+ * (C) Copyright 2026
+ *
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 19-Oct-2026 : Version 1;
+ *
+ */
+
+
+package org.jfree.data.xml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.exist.xquery.modules.jfreechart.data.ArrayXYDataset;
+import org.exist.xquery.modules.jfreechart.data.DoubleList;
+import org.exist.xquery.modules.jfreechart.data.XYItemSink;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A SAX handler for reading a {@link XYDataset} from an XML file into an
+ * {@link ArrayXYDataset}. Reads the format of {@link XYDatasetHandler}
+ * without sub handlers or boxed values. As in the
+ * {@link org.jfree.data.xy.XYSeries} read by that handler, the items of
+ * each series are sorted by X, items with equal X keeping their order.
+ */
+public class ArrayXYDatasetHandler extends XYItemStreamHandler {
+
+    /** The values read so far. */
+    private final Values values;
+
+    /**
+     * Creates a new handler.
+     */
+    public ArrayXYDatasetHandler() {
+        this(new Values());
+    }
+
+    private ArrayXYDatasetHandler(Values values) {
+        super(values);
+        this.values = values;
+    }
+
+    /**
+     * Returns the dataset.
+     *
+     * @return The dataset.
+     */
+    public XYDataset getDataset() {
+        ArrayXYDataset dataset = new ArrayXYDataset();
+        for (int series = 0; series < this.values.keys.size(); series++) {
+            double[] x = this.values.x.get(series).toArray();
+            double[] y = this.values.y.get(series).toArray();
+            sort(x, y);
+            dataset.addSeries(this.values.keys.get(series), x, y);
+        }
+        return dataset;
+    }
+
+    /**
+     * Stable sort of the items of a series by X.
+     */
+    private static void sort(double[] x, double[] y) {
+        boolean sorted = true;
+        for (int i = 1; i < x.length && sorted; i++) {
+            sorted = Double.compare(x[i - 1], x[i]) <= 0;
+        }
+        if (sorted) {
+            return;
+        }
+        Integer[] items = new Integer[x.length];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        Arrays.sort(items, (a, b) -> Double.compare(x[a], x[b]));
+        double[] xs = x.clone();
+        double[] ys = y.clone();
+        for (int i = 0; i < items.length; i++) {
+            x[i] = xs[items[i]];
+            y[i] = ys[items[i]];
+        }
+    }
+
+    /**
+     * Collects the items of the series in primitive lists.
+     */
+    private static class Values implements XYItemSink {
+
+        private final List<Comparable> keys = new ArrayList<>();
+        private final List<DoubleList> x = new ArrayList<>();
+        private final List<DoubleList> y = new ArrayList<>();
+
+        @Override
+        public int addSeries(Comparable key) {
+            this.keys.add(key);
+            this.x.add(new DoubleList());
+            this.y.add(new DoubleList());
+            return this.keys.size() - 1;
+        }
+
+        @Override
+        public void addItem(int series, double x, double y) {
+            this.x.get(series).add(x);
+            this.y.get(series).add(y);
+        }
+    }
+
+}
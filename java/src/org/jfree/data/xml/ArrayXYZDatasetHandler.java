@@ -0,0 +1,181 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2013, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * ---------------------------
+ * ArrayXYZDatasetHandler.java
+ * ---------------------------
+ * (C) Copyright 2026
+ *
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 19-Oct-2026 : Version 1;
+ *
+ */
+
+
+package org.jfree.data.xml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.exist.xquery.modules.jfreechart.data.ArrayXYZDataset;
+import org.exist.xquery.modules.jfreechart.data.DoubleList;
+import org.jfree.data.xy.XYZDataset;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * A SAX handler for reading a {@link XYZDataset} from an XML file into an
+ * {@link ArrayXYZDataset}. Reads the format of {@link XYZDatasetHandler}
+ * without sub handlers or boxed values; a missing or empty value is stored
+ * as NaN. The items keep their order.
+ */
+public class ArrayXYZDatasetHandler extends DefaultHandler
+        implements XYZDatasetTags {
+
+    /** The series keys. */
+    private final List<Comparable> keys = new ArrayList<>();
+
+    /** The X, Y and Z values of each series. */
+    private final List<DoubleList[]> values = new ArrayList<>();
+
+    /** The values of the current series, null before the first. */
+    private DoubleList[] series;
+
+    /** The X, Y and Z values of the current item. */
+    private final double[] item = new double[3];
+
+    /** The text of the current value, null outside values. */
+    private StringBuilder text;
+
+    /**
+     * Returns the dataset.
+     *
+     * @return The dataset.
+     */
+    public XYZDataset getDataset() {
+        ArrayXYZDataset dataset = new ArrayXYZDataset();
+        for (int i = 0; i < this.keys.size(); i++) {
+            DoubleList[] columns = this.values.get(i);
+            dataset.addSeries(this.keys.get(i), columns[0].toArray(),
+                    columns[1].toArray(), columns[2].toArray());
+        }
+        return dataset;
+    }
+
+    /**
+     * The start of an element.
+     *
+     * @param namespaceURI  the namespace.
+     * @param localName  the element name.
+     * @param qName  the element name.
+     * @param atts  the element attributes.
+     *
+     * @throws SAXException for errors.
+     */
+    @Override
+    public void startElement(String namespaceURI,
+                             String localName,
+                             String qName,
+                             Attributes atts) throws SAXException {
+        switch (qName) {
+            case XYZDATASET_TAG:
+                break;
+            case SERIES_TAG:
+                this.series = new DoubleList[] {
+                    new DoubleList(), new DoubleList(), new DoubleList()};
+                this.keys.add(atts.getValue("name"));
+                this.values.add(this.series);
+                break;
+            case ITEM_TAG:
+                if (this.series == null) {
+                    throw new SAXException("Expecting <Series> tag...found " + qName);
+                }
+                Arrays.fill(this.item, Double.NaN);
+                break;
+            case X_VALUE_TAG:
+            case Y_VALUE_TAG:
+            case Z_VALUE_TAG:
+                this.text = new StringBuilder();
+                break;
+            default:
+                throw new SAXException("Element not recognised: " + qName);
+        }
+    }
+
+    /**
+     * The end of an element.
+     *
+     * @param namespaceURI  the namespace.
+     * @param localName  the element name.
+     * @param qName  the element name.
+     */
+    @Override
+    public void endElement(String namespaceURI,
+                           String localName,
+                           String qName) {
+        switch (qName) {
+            case X_VALUE_TAG:
+                this.item[0] = ArrayDatasetReader.parseValue(this.text);
+                this.text = null;
+                break;
+            case Y_VALUE_TAG:
+                this.item[1] = ArrayDatasetReader.parseValue(this.text);
+                this.text = null;
+                break;
+            case Z_VALUE_TAG:
+                this.item[2] = ArrayDatasetReader.parseValue(this.text);
+                this.text = null;
+                break;
+            case ITEM_TAG:
+                for (int i = 0; i < 3; i++) {
+                    this.series[i].add(this.item[i]);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Receives some (or all) of the text in the current element.
+     *
+     * @param ch  character buffer.
+     * @param start  the start index.
+     * @param length  the length of the valid character data.
+     */
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (this.text != null) {
+            this.text.append(ch, start, length);
+        }
+    }
+
+}
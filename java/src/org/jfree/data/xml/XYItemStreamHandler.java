@@ -0,0 +1,192 @@
+/* ===========================================================
+ * JFreeChart : a free chart library for the Java(tm) platform
+ * ===========================================================
+ *
+ * (C) Copyright 2000-2013, by Object Refinery Limited and Contributors.
+ *
+ * Project Info:  http://www.jfree.org/jfreechart/index.html
+ *
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation; either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ *
+ * -------------------------
+ * XYItemStreamHandler.java
+ * -------------------------
+ * (C) Copyright 2026
+ *
+ * Contributor(s):   -;
+ *
+ * Changes
+ * -------
+ * 19-Oct-2026 : Version 1;
+ *
+ */
+
+package org.jfree.data.xml;
+
+import java.io.IOException;
+
+import org.exist.xquery.modules.jfreechart.data.EpochMillis;
+import org.exist.xquery.modules.jfreechart.data.XYItemSink;
+import org.jfree.data.xy.XYDataset;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * A SAX handler passing the items of an {@link XYDataset} in XML to an
+ * {@link XYItemSink} as they are read, without building a dataset. Reads
+ * the format of {@link XYDatasetHandler}; a missing or empty Y value is
+ * passed as NaN. The X values may be read as points in time, see
+ * {@link EpochMillis}.
+ */
+public class XYItemStreamHandler extends DefaultHandler
+        implements XYZDatasetTags {
+
+    /** The sink receiving the series and items. */
+    private final XYItemSink sink;
+
+    /** Whether the X values are points in time. */
+    private final boolean time;
+
+    /** The index of the current series, -1 before the first. */
+    private int series = -1;
+
+    /** The X value of the current item. */
+    private double x;
+
+    /** The Y value of the current item. */
+    private double y;
+
+    /** The text of the current value, null outside values. */
+    private StringBuilder text;
+
+    /**
+     * Creates a new handler.
+     *
+     * @param sink  the sink.
+     */
+    public XYItemStreamHandler(XYItemSink sink) {
+        this(sink, false);
+    }
+
+    /**
+     * Creates a new handler.
+     *
+     * @param sink  the sink.
+     * @param time  whether the X values are points in time, passed as
+     *     milliseconds since the epoch.
+     */
+    public XYItemStreamHandler(XYItemSink sink, boolean time) {
+        this.sink = sink;
+        this.time = time;
+    }
+
+    /**
+     * The start of an element.
+     *
+     * @param namespaceURI  the namespace.
+     * @param localName  the element name.
+     * @param qName  the element name.
+     * @param atts  the element attributes.
+     *
+     * @throws SAXException for errors.
+     */
+    @Override
+    public void startElement(String namespaceURI,
+                             String localName,
+                             String qName,
+                             Attributes atts) throws SAXException {
+        switch (qName) {
+            case XYDATASET_TAG:
+                break;
+            case SERIES_TAG:
+                try {
+                    this.series = this.sink.addSeries(atts.getValue("name"));
+                }
+                catch (IOException e) {
+                    throw new SAXException(e);
+                }
+                break;
+            case ITEM_TAG:
+                if (this.series < 0) {
+                    throw new SAXException("Expecting <Series> tag...found " + qName);
+                }
+                this.x = Double.NaN;
+                this.y = Double.NaN;
+                break;
+            case X_VALUE_TAG:
+            case Y_VALUE_TAG:
+                this.text = new StringBuilder();
+                break;
+            default:
+                throw new SAXException("Element not recognised: " + qName);
+        }
+    }
+
+    /**
+     * The end of an element.
+     *
+     * @param namespaceURI  the namespace.
+     * @param localName  the element name.
+     * @param qName  the element name.
+     *
+     * @throws SAXException for errors.
+     */
+    @Override
+    public void endElement(String namespaceURI,
+                           String localName,
+                           String qName) throws SAXException {
+        switch (qName) {
+            case X_VALUE_TAG:
+                this.x = this.time ? EpochMillis.parse(this.text)
+                        : ArrayDatasetReader.parseValue(this.text);
+                this.text = null;
+                break;
+            case Y_VALUE_TAG:
+                this.y = ArrayDatasetReader.parseValue(this.text);
+                this.text = null;
+                break;
+            case ITEM_TAG:
+                try {
+                    this.sink.addItem(this.series, this.x, this.y);
+                }
+                catch (IOException e) {
+                    throw new SAXException(e);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Receives some (or all) of the text in the current element.
+     *
+     * @param ch  character buffer.
+     * @param start  the start index.
+     * @param length  the length of the valid character data.
+     */
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (this.text != null) {
+            this.text.append(ch, start, length);
+        }
+    }
+
+}